@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the boxed {@code Map<Short, PlayerTracker>} previously used for
+ * chunk block owner tracking with {@link PlayerTrackerMap}.
+ *
+ * <p>Run with {@code -Pjmh.args="PlayerTrackerMapBenchmark -prof gc"} to
+ * also compare the allocation rate of both maps.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlayerTrackerMapBenchmark {
+
+    @Param({"1000", "10000"})
+    public int positions;
+
+    private short[] keys;
+    private Map<Short, PlayerTracker> boxedMap;
+    private PlayerTrackerMap primitiveMap;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        this.keys = new short[this.positions];
+        for (int i = 0; i < this.keys.length; i++) {
+            this.keys[i] = (short) random.nextInt();
+        }
+        this.boxedMap = fillBoxed();
+        this.primitiveMap = fillPrimitive();
+    }
+
+    @Benchmark
+    public Map<Short, PlayerTracker> fillBoxed() {
+        Map<Short, PlayerTracker> map = Maps.newHashMap();
+        for (short key : this.keys) {
+            PlayerTracker tracker = map.get(key);
+            if (tracker == null) {
+                map.put(key, new PlayerTracker(key & 0xFF, PlayerTracker.Type.OWNER));
+            } else {
+                tracker.setNotifier(key & 0xFF);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public PlayerTrackerMap fillPrimitive() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        for (short key : this.keys) {
+            if (!map.contains(key)) {
+                map.put(key, key & 0xFF, -1);
+            } else {
+                map.setNotifier(key, key & 0xFF);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int lookupBoxed() {
+        int sum = 0;
+        for (short key : this.keys) {
+            PlayerTracker tracker = this.boxedMap.get(key);
+            if (tracker != null) {
+                sum += tracker.ownerIndex;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lookupPrimitive() {
+        int sum = 0;
+        for (short key : this.keys) {
+            sum += this.primitiveMap.getOwner(key);
+        }
+        return sum;
+    }
+
+}
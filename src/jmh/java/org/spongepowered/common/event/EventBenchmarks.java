@@ -0,0 +1,95 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.data.manipulator.mutable.entity.SkinData;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.launch.SpongeLaunch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+final class EventBenchmarks {
+
+    private static boolean initialized;
+
+    private EventBenchmarks() {
+    }
+
+    /**
+     * Creates a new event manager backed by a temporary global config, with
+     * listener metrics disabled so only the dispatch itself is measured.
+     *
+     * @param generatedDispatchers Whether to generate dispatcher classes
+     * @return The new event manager
+     */
+    static SpongeEventManager createEventManager(boolean generatedDispatchers) throws IOException {
+        if (!initialized) {
+            SpongeLaunch.initialize(Files.createTempDirectory("sponge-jmh"), null, null);
+            initialized = true;
+        }
+
+        SpongeConfig.EventsCategory config = SpongeImpl.getGlobalConfig().getConfig().getEvents();
+        config.setListenerMetricsEnabled(false);
+        config.setGeneratedDispatchers(generatedDispatchers);
+
+        return new SpongeEventManager(mock(PluginManager.class));
+    }
+
+    /**
+     * Creates a cause with the given number of entries. The source is a
+     * player with {@link SkinData}, the last entry is the owner block state
+     * and the remaining entries are filler objects in between.
+     *
+     * @param depth The number of entries, at least 2
+     * @return The new cause
+     */
+    static Cause createCause(int depth) {
+        // Stub only mocks don't record invocations, which would otherwise leak memory during long runs
+        Player player = mock(Player.class, withSettings().stubOnly());
+        when(player.supports(SkinData.class)).thenReturn(true);
+        when(player.get(SkinData.class)).thenReturn(Optional.of(mock(SkinData.class, withSettings().stubOnly())));
+
+        Object[] causes = new Object[Math.max(depth, 2)];
+        causes[0] = NamedCause.source(player);
+        for (int i = 1; i < causes.length - 1; i++) {
+            causes[i] = NamedCause.of("filler" + i, "Filler " + i);
+        }
+        causes[causes.length - 1] = NamedCause.of(NamedCause.OWNER, mock(BlockState.class, withSettings().stubOnly()));
+        return Cause.of(causes);
+    }
+
+}
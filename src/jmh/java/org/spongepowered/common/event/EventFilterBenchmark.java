@@ -0,0 +1,153 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.common.event.filter.FilterFactory;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+import org.spongepowered.common.event.listener.DataHasListener;
+import org.spongepowered.common.event.listener.DataSupportsListener;
+import org.spongepowered.common.event.listener.FirstLastCauseListener;
+import org.spongepowered.common.event.listener.IncludeExcludeListener;
+import org.spongepowered.common.event.listener.NamedCauseListener;
+import org.spongepowered.common.event.listener.RootListener;
+import org.spongepowered.common.event.listener.SimpleListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the generated filters of each parameter and event
+ * annotation by invoking the annotated listeners directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventFilterBenchmark {
+
+    @Param({"2", "8", "32"})
+    public int causeDepth;
+
+    private AnnotatedEventListener simple;
+    private AnnotatedEventListener first;
+    private AnnotatedEventListener last;
+    private AnnotatedEventListener root;
+    private AnnotatedEventListener named;
+    private AnnotatedEventListener has;
+    private AnnotatedEventListener supports;
+    private AnnotatedEventListener include;
+    private AnnotatedEventListener exclude;
+
+    private EventFilterTest.SubEvent event;
+
+    @Setup
+    public void setup() throws Exception {
+        DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
+        AnnotatedEventListener.Factory factory = new ClassEventListenerFactory("org.spongepowered.common.event.listener",
+                new FilterFactory("org.spongepowered.common.event.filters", classLoader), classLoader);
+
+        this.simple = create(factory, new SimpleListener(), "onEvent");
+        FirstLastCauseListener firstLast = new FirstLastCauseListener();
+        this.first = create(factory, firstLast, "firstCauseListener", Player.class);
+        this.last = create(factory, firstLast, "lastCauseListener", Player.class);
+        this.root = create(factory, new RootListener(), "rootListener", Player.class);
+        this.named = create(factory, new NamedCauseListener(), "namedCauseListener", BlockState.class);
+        this.has = create(factory, new DataHasListener(), "hasSkinListener", Player.class);
+        this.supports = create(factory, new DataSupportsListener(), "supportsSkinListener", Player.class);
+        IncludeExcludeListener includeExclude = new IncludeExcludeListener();
+        this.include = factory.create(includeExclude, IncludeExcludeListener.class.getMethod("includeListener", EventFilterTest.TestEvent.class));
+        this.exclude = factory.create(includeExclude, IncludeExcludeListener.class.getMethod("excludeListener", EventFilterTest.TestEvent.class));
+
+        this.event = new EventFilterTest.SubEvent(EventBenchmarks.createCause(this.causeDepth));
+    }
+
+    private static AnnotatedEventListener create(AnnotatedEventListener.Factory factory, Object listener, String method,
+            Class<?>... parameters) throws Exception {
+        Class<?>[] types = new Class<?>[parameters.length + 1];
+        types[0] = EventFilterTest.SubEvent.class;
+        System.arraycopy(parameters, 0, types, 1, parameters.length);
+        return factory.create(listener, listener.getClass().getMethod(method, types));
+    }
+
+    @Benchmark
+    public void simple() throws Exception {
+        this.simple.handle(this.event);
+    }
+
+    @Benchmark
+    public void first() throws Exception {
+        this.first.handle(this.event);
+    }
+
+    @Benchmark
+    public void last() throws Exception {
+        this.last.handle(this.event);
+    }
+
+    @Benchmark
+    public void root() throws Exception {
+        this.root.handle(this.event);
+    }
+
+    @Benchmark
+    public void named() throws Exception {
+        this.named.handle(this.event);
+    }
+
+    @Benchmark
+    public void has() throws Exception {
+        this.has.handle(this.event);
+    }
+
+    @Benchmark
+    public void supports() throws Exception {
+        this.supports.handle(this.event);
+    }
+
+    @Benchmark
+    public void include() throws Exception {
+        this.include.handle(this.event);
+    }
+
+    @Benchmark
+    public void exclude() throws Exception {
+        this.exclude.handle(this.event);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.mockito.Mockito.mock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.event.listener.DataHasListener;
+import org.spongepowered.common.event.listener.DataSupportsListener;
+import org.spongepowered.common.event.listener.FirstLastCauseListener;
+import org.spongepowered.common.event.listener.IncludeExcludeListener;
+import org.spongepowered.common.event.listener.NamedCauseListener;
+import org.spongepowered.common.event.listener.RootListener;
+import org.spongepowered.common.event.listener.SimpleListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures {@link SpongeEventManager#post} with a mix of filtered listeners,
+ * for varying listener counts and cause depths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventPostBenchmark {
+
+    @SuppressWarnings("unchecked")
+    private static final Supplier<Object>[] LISTENERS = new Supplier[] {
+            SimpleListener::new,
+            FirstLastCauseListener::new,
+            RootListener::new,
+            NamedCauseListener::new,
+            DataHasListener::new,
+            DataSupportsListener::new,
+            IncludeExcludeListener::new
+    };
+
+    @Param({"1", "10", "50"})
+    public int listeners;
+
+    @Param({"2", "8", "32"})
+    public int causeDepth;
+
+    @Param({"false", "true"})
+    public boolean generated;
+
+    private SpongeEventManager eventManager;
+    private EventFilterTest.SubEvent event;
+
+    @Setup
+    public void setup() throws Exception {
+        this.eventManager = EventBenchmarks.createEventManager(this.generated);
+        PluginContainer plugin = mock(PluginContainer.class);
+        for (int i = 0; i < this.listeners; i++) {
+            this.eventManager.registerListener(plugin, LISTENERS[i % LISTENERS.length].get());
+        }
+
+        this.event = new EventFilterTest.SubEvent(EventBenchmarks.createCause(this.causeDepth));
+    }
+
+    @Benchmark
+    public boolean post() {
+        return this.eventManager.post(this.event);
+    }
+
+}
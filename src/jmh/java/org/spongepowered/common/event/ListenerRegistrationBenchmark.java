@@ -0,0 +1,91 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.mockito.Mockito.mock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.event.listener.FirstLastCauseListener;
+import org.spongepowered.common.event.listener.IncludeExcludeListener;
+import org.spongepowered.common.event.listener.SimpleListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering and unregistering a listener while other listeners
+ * are registered and the handler caches of several event types are baked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListenerRegistrationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int listeners;
+
+    @Param({"false", "true"})
+    public boolean generated;
+
+    private SpongeEventManager eventManager;
+    private PluginContainer plugin;
+
+    @Setup
+    public void setup() throws Exception {
+        this.eventManager = EventBenchmarks.createEventManager(this.generated);
+        this.plugin = mock(PluginContainer.class);
+        for (int i = 0; i < this.listeners; i++) {
+            this.eventManager.registerListener(this.plugin, i % 2 == 0 ? new SimpleListener() : new IncludeExcludeListener());
+        }
+
+        // Bake the caches, so they have to be re-baked on every change
+        Cause cause = Cause.of(this);
+        this.eventManager.post(new EventFilterTest.TestEvent(cause));
+        this.eventManager.post(new EventFilterTest.SubEvent(cause));
+        this.eventManager.post(new EventFilterTest.UncancellableEvent());
+    }
+
+    @Benchmark
+    public void registerUnregister() {
+        Object listener = new FirstLastCauseListener();
+        this.eventManager.registerListener(this.plugin, listener);
+        this.eventManager.unregisterListeners(listener);
+    }
+
+}
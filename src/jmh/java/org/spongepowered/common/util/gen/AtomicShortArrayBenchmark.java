@@ -0,0 +1,122 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures several threads writing into one shared block array, comparing
+ * {@link AtomicShortArray} with a {@code short[]} guarded by a single lock,
+ * which is what callers had to do before thread-safe buffers existed.
+ *
+ * <p>Run with {@code -Pjmh.args="AtomicShortArrayBenchmark -t 1"} to get
+ * the uncontended numbers for comparison.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+public class AtomicShortArrayBenchmark {
+
+    // One chunk worth of blocks
+    private static final int VOLUME = 16 * 256 * 16;
+
+    @Param({"1024"})
+    public int writes;
+
+    private final AtomicShortArray atomicBlocks = new AtomicShortArray(VOLUME);
+    private final short[] lockedBlocks = new short[VOLUME];
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        int[] indices;
+
+        @Setup
+        public void setup(AtomicShortArrayBenchmark benchmark) {
+            Random random = new Random();
+            this.indices = new int[benchmark.writes];
+            for (int i = 0; i < this.indices.length; i++) {
+                this.indices[i] = random.nextInt(VOLUME);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeAtomic(Writer writer) {
+        final int[] indices = writer.indices;
+        for (int i = 0; i < indices.length; i++) {
+            this.atomicBlocks.set(indices[i], (short) i);
+        }
+    }
+
+    @Benchmark
+    public void writeLocked(Writer writer) {
+        final int[] indices = writer.indices;
+        for (int i = 0; i < indices.length; i++) {
+            synchronized (this.lockedBlocks) {
+                this.lockedBlocks[indices[i]] = (short) i;
+            }
+        }
+    }
+
+    @Benchmark
+    public int readAtomic(Writer writer) {
+        int sum = 0;
+        for (int index : writer.indices) {
+            sum += this.atomicBlocks.get(index);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int readLocked(Writer writer) {
+        int sum = 0;
+        for (int index : writer.indices) {
+            synchronized (this.lockedBlocks) {
+                sum += this.lockedBlocks[index];
+            }
+        }
+        return sum;
+    }
+
+}
@@ -51,6 +51,8 @@ public final class SpongeTimings {
     public static final Timing entityActivationCheckTimer = SpongeTimingsFactory.ofSafe("entityActivationCheck");
     public static final Timing checkIfActiveTimer = SpongeTimingsFactory.ofSafe("checkIfActive");
 
+    public static final Timing biomeGenerationTimer = SpongeTimingsFactory.ofSafe("Biome Cache - Generate");
+
     public static final Timing antiXrayUpdateTimer = SpongeTimingsFactory.ofSafe("anti-xray - update");
     public static final Timing antiXrayObfuscateTimer = SpongeTimingsFactory.ofSafe("anti-xray - obfuscate");
 
@@ -57,6 +57,7 @@ public class TimingHistory {
     public static long entityTicks;
     public static long tileEntityTicks;
     public static long activatedEntityTicks;
+    public static long sleepingTileEntityTicks;
     static int worldIdPool = 1;
     static Map<String, Integer> worldMap = LoadingMap.newHashMap((input) -> worldIdPool++);
     final long endTime;
@@ -142,6 +143,7 @@ public static void resetTicks(boolean fullReset) {
         tileEntityTicks = 0;
         entityTicks = 0;
         activatedEntityTicks = 0;
+        sleepingTileEntityTicks = 0;
     }
 
     JsonObject export() {
@@ -178,7 +180,8 @@ public JsonArray export() {
                             this.ticksRecord.player,
                             this.ticksRecord.entity,
                             this.ticksRecord.activatedEntity,
-                            this.ticksRecord.tileEntity),
+                            this.ticksRecord.tileEntity,
+                            this.ticksRecord.sleepingTileEntity),
                     this.usedMemory,
                     this.freeMemory,
                     this.loadAvg);
@@ -192,6 +195,7 @@ static class TicksRecord {
         final long entity;
         final long tileEntity;
         final long activatedEntity;
+        final long sleepingTileEntity;
 
         TicksRecord() {
             this.timed = timedTicks - (TimingsManager.MINUTE_REPORTS.size() * 1200);
@@ -199,6 +203,7 @@ static class TicksRecord {
             this.entity = entityTicks;
             this.tileEntity = tileEntityTicks;
             this.activatedEntity = activatedEntityTicks;
+            this.sleepingTileEntity = sleepingTileEntityTicks;
         }
 
     }
@@ -33,8 +33,10 @@
 import org.slf4j.LoggerFactory;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventManager;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.launch.SpongeLaunch;
 import org.spongepowered.common.registry.SpongeGameRegistry;
 
@@ -111,6 +113,20 @@ public static boolean postEvent(Event event) {
         return getGame().getEventManager().post(event);
     }
 
+    /**
+     * Gets whether any listeners are registered for the given event class.
+     *
+     * <p>Event managers which do not support this query are assumed to
+     * always have listeners.</p>
+     *
+     * @param eventClass The event class
+     * @return Whether the event should be constructed and posted
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        EventManager eventManager = getGame().getEventManager();
+        return !(eventManager instanceof SpongeEventManager) || ((SpongeEventManager) eventManager).hasListeners(eventClass);
+    }
+
     public static Logger getLogger() {
         return getInstance().logger;
     }
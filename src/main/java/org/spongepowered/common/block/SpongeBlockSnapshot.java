@@ -43,6 +43,7 @@
 import org.spongepowered.api.data.Property;
 import org.spongepowered.api.data.Queries;
 import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.manipulator.DataManipulator;
 import org.spongepowered.api.data.manipulator.ImmutableDataManipulator;
 import org.spongepowered.api.data.merge.MergeFunction;
 import org.spongepowered.api.data.value.BaseValue;
@@ -73,15 +74,14 @@ public class SpongeBlockSnapshot implements BlockSnapshot {
     private final BlockState extendedState;
     private final UUID worldUniqueId;
     private final Vector3i pos;
-    private final ImmutableList<ImmutableDataManipulator<?, ?>> extraData;
-    private final ImmutableMap<Key<?>, ImmutableValue<?>> keyValueMap;
-    private final ImmutableSet<ImmutableValue<?>> valueSet;
-    private final ImmutableList<ImmutableDataManipulator<?, ?>> blockData;
-    private final ImmutableMap<Key<?>, ImmutableValue<?>> blockKeyValueMap;
-    private final ImmutableSet<ImmutableValue<?>> blockValueSet;
+    private ImmutableList<ImmutableDataManipulator<?, ?>> extraData;
+    @Nullable private NBTTagCompound compound;
+    // The tile entity whose data is captured on first access, see captureTileData
+    @Nullable private volatile TileEntity tileSource;
+    // Key/value views, built on first access
+    @Nullable private Views views;
     private int updateFlag; // internal use
     public CaptureType captureType; // used internally for post event
-    @Nullable final NBTTagCompound compound;
 
     // Internal use for restores
     public SpongeBlockSnapshot(SpongeBlockSnapshotBuilder builder, int flag) {
@@ -94,26 +94,78 @@ public SpongeBlockSnapshot(SpongeBlockSnapshotBuilder builder) {
         this.extendedState = builder.extendedState;
         this.worldUniqueId = checkNotNull(builder.worldUuid);
         this.pos = checkNotNull(builder.coords);
-        final ImmutableMap.Builder<Key<?>, ImmutableValue<?>> mapBuilder = ImmutableMap.builder();
-        for (ImmutableValue<?> value : this.blockState.getValues()) {
-            mapBuilder.put(value.getKey(), value);
+        this.extraData = builder.manipulators == null ? ImmutableList.<ImmutableDataManipulator<?, ?>>of() : ImmutableList.copyOf(builder.manipulators);
+        this.compound = builder.compound == null ? null : (NBTTagCompound) builder.compound.copy();
+    }
+
+    /**
+     * Creates a snapshot which defers capturing the data of the given tile
+     * entity until it is first accessed. Used for snapshots of ticking
+     * blocks which usually only end up as the source of a cause, so the
+     * tile entity is never written to NBT unless someone actually looks at
+     * its data.
+     *
+     * <p>The captured tile data reflects the tile entity at the time of the
+     * first access, not at the time the snapshot was created. The tile
+     * entity is released once its data is captured.</p>
+     *
+     * @param blockState The block state
+     * @param extendedState The extended block state
+     * @param worldUniqueId The unique id of the world
+     * @param pos The block position
+     * @param updateFlag The update flag for restores
+     * @param tileSource The tile entity at the position, if any
+     */
+    public SpongeBlockSnapshot(BlockState blockState, BlockState extendedState, UUID worldUniqueId, Vector3i pos, int updateFlag,
+            @Nullable TileEntity tileSource) {
+        this.blockState = checkNotNull(blockState, "The block state was null!");
+        this.extendedState = checkNotNull(extendedState, "The extended state was null!");
+        this.worldUniqueId = checkNotNull(worldUniqueId);
+        this.pos = checkNotNull(pos);
+        this.updateFlag = updateFlag;
+        this.extraData = ImmutableList.of();
+        this.tileSource = tileSource;
+    }
+
+    private synchronized void captureTileData() {
+        TileEntity tile = this.tileSource;
+        if (tile == null) {
+            return;
         }
-        this.blockKeyValueMap = mapBuilder.build();
-        this.blockValueSet = ImmutableSet.copyOf(this.blockKeyValueMap.values());
-        this.blockData = ImmutableList.copyOf(this.blockState.getContainers());
+        final ImmutableList.Builder<ImmutableDataManipulator<?, ?>> builder = ImmutableList.builder();
+        for (DataManipulator<?, ?> manipulator : ((org.spongepowered.api.block.tileentity.TileEntity) tile).getContainers()) {
+            builder.add(manipulator.asImmutable());
+        }
+        final NBTTagCompound nbt = new NBTTagCompound();
+        tile.writeToNBT(nbt);
+        this.extraData = builder.build();
+        this.compound = nbt;
+        // Publishes the captured data to threads which read the field
+        this.tileSource = null;
+    }
 
-        // This avoids cross contamination of block state based values versus tile entity values.
-        final ImmutableMap.Builder<Key<?>, ImmutableValue<?>> tileBuilder = ImmutableMap.builder();
-        this.extraData = builder.manipulators == null ? ImmutableList.<ImmutableDataManipulator<?, ?>>of() : ImmutableList.copyOf(builder.manipulators);
-        for (ImmutableDataManipulator<?, ?> manipulator : this.extraData) {
-            for (ImmutableValue<?> value : manipulator.getValues()) {
-                tileBuilder.put(value.getKey(), value);
-            }
+    private ImmutableList<ImmutableDataManipulator<?, ?>> getTileManipulators() {
+        if (this.tileSource != null) {
+            captureTileData();
         }
-        this.keyValueMap = tileBuilder.build();
-        this.valueSet = ImmutableSet.copyOf(this.keyValueMap.values());
-        this.compound = builder.compound == null ? null : (NBTTagCompound) builder.compound.copy();
+        return this.extraData;
+    }
 
+    @Nullable
+    NBTTagCompound getTileCompound() {
+        if (this.tileSource != null) {
+            captureTileData();
+        }
+        return this.compound;
+    }
+
+    private Views getViews() {
+        Views views = this.views;
+        if (views == null) {
+            // Views is immutable, so racing threads at worst build it twice
+            this.views = views = new Views(this.blockState, getTileManipulators());
+        }
+        return views;
     }
 
     @Override
@@ -171,10 +223,11 @@ public boolean restore(boolean force, boolean notifyNeighbors) {
 
         world.setBlockState(pos, replaced, notifyNeighbors ? 3 : 2);
         world.markBlockForUpdate(pos);
-        if (this.compound != null) {
+        final NBTTagCompound compound = getTileCompound();
+        if (compound != null) {
             final TileEntity te = world.getTileEntity(pos);
             if (te != null) {
-                te.readFromNBT(this.compound);
+                te.readFromNBT(compound);
                 te.markDirty();
             }
         }
@@ -193,7 +246,7 @@ public Optional<Location<World>> getLocation() {
 
     @Override
     public List<ImmutableDataManipulator<?, ?>> getManipulators() {
-        return ImmutableList.<ImmutableDataManipulator<?, ?>>builder().addAll(this.blockData).addAll(this.extraData).build();
+        return ImmutableList.<ImmutableDataManipulator<?, ?>>builder().addAll(getViews().blockData).addAll(getTileManipulators()).build();
     }
 
     @Override
@@ -216,10 +269,11 @@ public DataContainer toContainer() {
         if (this.blockState != this.extendedState) {
             container.set(DataQueries.BLOCK_EXTENDED_STATE, this.extendedState);
         }
-        if (this.compound != null) {
-            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateFrom(this.compound));
+        final NBTTagCompound compound = getTileCompound();
+        if (compound != null) {
+            container.set(DataQueries.UNSAFE_NBT, NbtTranslator.getInstance().translateFrom(compound));
         }
-        final List<DataView> dataList = DataUtil.getSerializedImmutableManipulatorList(this.extraData);
+        final List<DataView> dataList = DataUtil.getSerializedImmutableManipulatorList(getTileManipulators());
         if (!dataList.isEmpty()) {
             container.set(DataQueries.SNAPSHOT_TILE_DATA, dataList);
         }
@@ -232,7 +286,7 @@ public DataContainer toContainer() {
         if (optional.isPresent()) {
             return optional;
         } else {
-            for (ImmutableDataManipulator<?, ?> dataManipulator : this.extraData) {
+            for (ImmutableDataManipulator<?, ?> dataManipulator : getTileManipulators()) {
                 if (containerClass.isInstance(dataManipulator)) {
                     return Optional.of(((T) dataManipulator));
                 }
@@ -336,20 +390,22 @@ public BlockSnapshot merge(BlockSnapshot that, MergeFunction function) {
 
     @Override
     public <E> Optional<E> get(Key<? extends BaseValue<E>> key) {
-        if (this.keyValueMap.containsKey(key)) {
-            return Optional.of((E) this.keyValueMap.get(key).get());
-        } else if (this.blockKeyValueMap.containsKey(key)) {
-            return Optional.of((E) this.keyValueMap.get(key).get());
+        final Views views = getViews();
+        if (views.keyValueMap.containsKey(key)) {
+            return Optional.of((E) views.keyValueMap.get(key).get());
+        } else if (views.blockKeyValueMap.containsKey(key)) {
+            return Optional.of((E) views.blockKeyValueMap.get(key).get());
         }
         return Optional.empty();
     }
 
     @Override
     public <E, V extends BaseValue<E>> Optional<V> getValue(Key<V> key) {
-        if (this.keyValueMap.containsKey(key)) {
-            return Optional.of((V) this.keyValueMap.get(key).asMutable());
-        } else if (this.blockKeyValueMap.containsKey(key)) {
-            return Optional.of((V) this.blockKeyValueMap.get(key).asMutable());
+        final Views views = getViews();
+        if (views.keyValueMap.containsKey(key)) {
+            return Optional.of((V) views.keyValueMap.get(key).asMutable());
+        } else if (views.blockKeyValueMap.containsKey(key)) {
+            return Optional.of((V) views.blockKeyValueMap.get(key).asMutable());
         }
         return Optional.empty();
     }
@@ -357,7 +413,8 @@ public <E, V extends BaseValue<E>> Optional<V> getValue(Key<V> key) {
     @Override
     public boolean supports(Key<?> key) {
         checkNotNull(key, "Key");
-        return this.keyValueMap.containsKey(key) || this.blockKeyValueMap.containsKey(key);
+        final Views views = getViews();
+        return views.keyValueMap.containsKey(key) || views.blockKeyValueMap.containsKey(key);
     }
 
     @Override
@@ -367,16 +424,19 @@ public BlockSnapshot copy() {
 
     @Override
     public Set<Key<?>> getKeys() {
-        return ImmutableSet.<Key<?>>builder().addAll(this.keyValueMap.keySet()).addAll(this.blockKeyValueMap.keySet()).build();
+        final Views views = getViews();
+        return ImmutableSet.<Key<?>>builder().addAll(views.keyValueMap.keySet()).addAll(views.blockKeyValueMap.keySet()).build();
     }
 
     @Override
     public Set<ImmutableValue<?>> getValues() {
-        return ImmutableSet.<ImmutableValue<?>>builder().addAll(this.valueSet).addAll(this.blockValueSet).build();
+        final Views views = getViews();
+        return ImmutableSet.<ImmutableValue<?>>builder().addAll(views.valueSet).addAll(views.blockValueSet).build();
     }
 
     public Optional<NBTTagCompound> getCompound() {
-        return this.compound == null ? Optional.<NBTTagCompound>empty() : Optional.of((NBTTagCompound) this.compound.copy());
+        final NBTTagCompound compound = getTileCompound();
+        return compound == null ? Optional.<NBTTagCompound>empty() : Optional.of((NBTTagCompound) compound.copy());
     }
 
     @SuppressWarnings("rawtypes")
@@ -386,11 +446,12 @@ public SpongeBlockSnapshotBuilder createBuilder() {
             .extendedState(this.extendedState)
             .position(this.pos)
             .worldId(this.worldUniqueId);
-        for (ImmutableDataManipulator<?, ?> manipulator : this.extraData) {
+        for (ImmutableDataManipulator<?, ?> manipulator : getTileManipulators()) {
             builder.add((ImmutableDataManipulator) manipulator);
         }
-        if (this.compound != null) {
-            builder.unsafeNbt(this.compound);
+        final NBTTagCompound compound = getTileCompound();
+        if (compound != null) {
+            builder.unsafeNbt(compound);
         }
         return builder;
     }
@@ -400,6 +461,11 @@ public int getUpdateFlag() {
         return this.updateFlag;
     }
 
+    // Used internally to merge the flags of later changes of a captured block
+    public void addUpdateFlag(int flag) {
+        this.updateFlag |= flag;
+    }
+
     @Override
     public String toString() {
         return Objects.toStringHelper(this)
@@ -430,23 +496,52 @@ public boolean equals(Object o) {
         }
         SpongeBlockSnapshot that = (SpongeBlockSnapshot) o;
         return this.updateFlag == that.updateFlag &&
+               Objects.equal(this.blockState, that.blockState) &&
                Objects.equal(this.extendedState, that.extendedState) &&
                Objects.equal(this.worldUniqueId, that.worldUniqueId) &&
                Objects.equal(this.pos, that.pos) &&
-               Objects.equal(this.extraData, that.extraData) &&
-               Objects.equal(this.blockData, that.blockData) &&
-               Objects.equal(this.compound, that.compound);
+               Objects.equal(getTileManipulators(), that.getTileManipulators()) &&
+               Objects.equal(getTileCompound(), that.getTileCompound());
     }
 
     @Override
     public int hashCode() {
+        // Leaves out the tile data, so hashing doesn't capture it
         return Objects
-            .hashCode(this.extendedState,
+            .hashCode(this.blockState,
+                this.extendedState,
                 this.worldUniqueId,
                 this.pos,
-                this.extraData,
-                this.blockData,
-                this.updateFlag,
-                this.compound);
+                this.updateFlag);
+    }
+
+    private static final class Views {
+
+        final ImmutableList<ImmutableDataManipulator<?, ?>> blockData;
+        final ImmutableMap<Key<?>, ImmutableValue<?>> blockKeyValueMap;
+        final ImmutableSet<ImmutableValue<?>> blockValueSet;
+        final ImmutableMap<Key<?>, ImmutableValue<?>> keyValueMap;
+        final ImmutableSet<ImmutableValue<?>> valueSet;
+
+        Views(BlockState blockState, ImmutableList<ImmutableDataManipulator<?, ?>> extraData) {
+            final ImmutableMap.Builder<Key<?>, ImmutableValue<?>> mapBuilder = ImmutableMap.builder();
+            for (ImmutableValue<?> value : blockState.getValues()) {
+                mapBuilder.put(value.getKey(), value);
+            }
+            this.blockKeyValueMap = mapBuilder.build();
+            this.blockValueSet = ImmutableSet.copyOf(this.blockKeyValueMap.values());
+            this.blockData = ImmutableList.copyOf(blockState.getContainers());
+
+            // This avoids cross contamination of block state based values versus tile entity values.
+            final ImmutableMap.Builder<Key<?>, ImmutableValue<?>> tileBuilder = ImmutableMap.builder();
+            for (ImmutableDataManipulator<?, ?> manipulator : extraData) {
+                for (ImmutableValue<?> value : manipulator.getValues()) {
+                    tileBuilder.put(value.getKey(), value);
+                }
+            }
+            this.keyValueMap = tileBuilder.build();
+            this.valueSet = ImmutableSet.copyOf(this.keyValueMap.values());
+        }
+
     }
 }
@@ -156,8 +156,9 @@ public SpongeBlockSnapshotBuilder from(BlockSnapshot holder) {
         this.coords = holder.getPosition();
         this.manipulators = Lists.newArrayList(holder.getManipulators());
         if (holder instanceof SpongeBlockSnapshot) {
-            if (((SpongeBlockSnapshot) holder).compound != null) {
-                this.compound = (NBTTagCompound) ((SpongeBlockSnapshot) holder).compound.copy();
+            final NBTTagCompound compound = ((SpongeBlockSnapshot) holder).getTileCompound();
+            if (compound != null) {
+                this.compound = (NBTTagCompound) compound.copy();
             }
         }
         return this;
@@ -35,6 +35,8 @@
 import net.minecraft.world.WorldServer;
 import org.spongepowered.api.world.World;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
+import org.spongepowered.common.world.SleepingTileEntities;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -69,6 +71,9 @@ public static void writeChunks(File file, boolean logAll) {
                 writer.name("activeChunks").value(world.activeChunkSet.size());
                 writer.name("entities").value(world.loadedEntityList.size());
                 writer.name("tiles").value(world.loadedTileEntityList.size());
+                SleepingTileEntities sleepingTiles = ((IMixinWorld) world).getSleepingTileEntities();
+                writer.name("awakeTiles").value(world.tickableTileEntities.size());
+                writer.name("sleepingTiles").value(sleepingTiles.size());
 
                 TObjectIntHashMap<ChunkCoordIntPair> chunkEntityCounts = new TObjectIntHashMap<>();
                 TObjectIntHashMap<Class> classEntityCounts = new TObjectIntHashMap<>();
@@ -104,6 +109,7 @@ public static void writeChunks(File file, boolean logAll) {
                         writer.name("y").value(tile.getPos().getY());
                         writer.name("z").value(tile.getPos().getZ());
                         writer.name("isInvalid").value(tile.isInvalid());
+                        writer.name("isSleeping").value(sleepingTiles.isSleeping(tile.getPos()));
                         // writer.name("canUpdate").value(tile.canUpdate());
                         writer.name("block").value("" + tile.getBlockType());
                         writer.endObject();
@@ -114,6 +120,11 @@ public static void writeChunks(File file, boolean logAll) {
                 }
                 writer.endArray();
 
+                TObjectIntHashMap<Class> classSleepingTileCounts = new TObjectIntHashMap<>();
+                for (TileEntity tile : sleepingTiles.getTileEntities()) {
+                    classSleepingTileCounts.adjustOrPutValue(tile.getClass(), 1, 1);
+                }
+
                 if (logAll) {
                     writeChunkCounts(writer, "topEntityColliders", entityCollisionCounts, 20);
                 }
@@ -123,6 +134,7 @@ public static void writeChunks(File file, boolean logAll) {
 
                 writeChunkCounts(writer, "tilesByClass", classTileCounts);
                 writeChunkCounts(writer, "tilesByChunk", chunkTileCounts);
+                writeChunkCounts(writer, "sleepingTilesByClass", classSleepingTileCounts);
 
                 writer.endObject(); // Dimension
             }
@@ -35,6 +35,10 @@
 
 import co.aikar.timings.SpongeTimingsFactory;
 import co.aikar.timings.Timings;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.WorldServer;
 import org.spongepowered.api.command.CommandCallable;
@@ -46,6 +50,7 @@
 import org.spongepowered.api.command.args.PatternMatchingCommandElement;
 import org.spongepowered.api.command.spec.CommandExecutor;
 import org.spongepowered.api.command.spec.CommandSpec;
+import org.spongepowered.api.event.EventManager;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.TextBuilder;
@@ -56,21 +61,33 @@
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.api.world.DimensionType;
 import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.gen.WorldGenerator;
 import org.spongepowered.api.world.storage.WorldProperties;
 import org.spongepowered.asm.mixin.MixinEnvironment;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.event.AsyncEventQueue;
+import org.spongepowered.common.event.DispatchMetrics;
+import org.spongepowered.common.event.RegisteredListener;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.world.IMixinWorld;
 import org.spongepowered.common.interfaces.world.IMixinWorldProvider;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.world.DimensionManager;
 import org.spongepowered.common.world.SpongeDimensionType;
+import org.spongepowered.common.world.gen.ChunkBiomeCache;
+import org.spongepowered.common.world.gen.SpongeChunkProvider;
+import org.spongepowered.common.world.storage.PlayerUniqueIdCompactor;
 
 import java.io.File;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -96,15 +113,19 @@ public static CommandSpec getCommand() {
         nonFlagChildren.register(getHeapCommand(), "heap");
         nonFlagChildren.register(getPluginsCommand(), "plugins");
         nonFlagChildren.register(getTimingsCommand(), "timings");
+        nonFlagChildren.register(getEventsCommand(), "events");
         flagChildren.register(getChunksCommand(), "chunks");
         flagChildren.register(getConfigCommand(), "config");
         flagChildren.register(getReloadCommand(), "reload"); // TODO: Should these two be subcommands of config, and what is now config be set?
         flagChildren.register(getSaveCommand(), "save");
+        flagChildren.register(getCompactPlayersCommand(), "compact-players");
         return CommandSpec.builder()
                 .description(Texts.of("Text description"))
                 .extendedDescription(Texts.of("commands:\n", // TODO: Automatically generate from child executors (wait for help system on this)
                         INDENT, title("chunks"), LONG_INDENT, "Prints chunk data for a specific dimension or world(s)\n",
+                        INDENT, title("compact-players"), LONG_INDENT, "Frees the ids of players no chunk tracks as block owner anymore\n",
                         INDENT, title("conf"), LONG_INDENT, "Configure sponge settings\n",
+                        INDENT, title("events"), LONG_INDENT, "Show dispatch metrics and the async queue of event listeners\n",
                         INDENT, title("heap"), LONG_INDENT, "Dump live JVM heap\n",
                         INDENT, title("reload"), LONG_INDENT, "Reloads a global, dimension, or world config\n",
                         INDENT, title("save"), LONG_INDENT, "Saves a global, dimension, or world config\n",
@@ -237,9 +258,20 @@ protected Text getChunksInfo(WorldServer worldserver) {
                                 key("Entities: "), value(worldserver.loadedEntityList.size()), NEWLINE_TEXT,
                                 key("Tile Entities: "), value(worldserver.loadedTileEntityList.size()), NEWLINE_TEXT,
                                 key("Removed Entities:"), value(worldserver.unloadedEntityList.size()), NEWLINE_TEXT,
-                                key("Removed Tile Entities: "), value(worldserver.tileEntitiesToBeRemoved), NEWLINE_TEXT
+                                key("Removed Tile Entities: "), value(worldserver.tileEntitiesToBeRemoved), NEWLINE_TEXT,
+                                getBiomeCacheInfo(worldserver)
                         );
                     }
+
+                    private Text getBiomeCacheInfo(WorldServer worldserver) {
+                        final WorldGenerator generator = ((IMixinWorld) worldserver).getWorldGenerator();
+                        if (!(generator instanceof SpongeChunkProvider)) {
+                            return Texts.of();
+                        }
+                        final ChunkBiomeCache biomeCache = ((SpongeChunkProvider) generator).getBiomeCache();
+                        return Texts.of(key("Biome cache hits: "), value(biomeCache.getHits()), NEWLINE_TEXT,
+                                key("Biome cache misses: "), value(biomeCache.getMisses()), NEWLINE_TEXT);
+                    }
                 })
                 .build();
     }
@@ -301,6 +333,69 @@ protected Text process(SpongeConfig<?> config, CommandSource source, CommandCont
                 .build();
     }
 
+    private static CommandSpec getCompactPlayersCommand() {
+        return CommandSpec.builder()
+                .description(Texts.of("Free the ids of players that no chunk tracks as block owner or notifier anymore"))
+                .permission("sponge.command.compact-players")
+                .executor(new ConfigUsingExecutor() {
+                    @Override
+                    protected Text processGlobal(SpongeConfig<SpongeConfig.GlobalConfig> config, CommandSource source, CommandContext args)
+                            throws CommandException {
+                        int worlds = 0;
+                        for (World world : SpongeImpl.getGame().getServer().getWorlds()) {
+                            compact((WorldServer) world, source);
+                            worlds++;
+                        }
+                        return Texts.of("Compacting the player ids of ", worlds, " worlds");
+                    }
+
+                    @Override
+                    protected Text processDimension(SpongeConfig<SpongeConfig.DimensionConfig> config, DimensionType dim, CommandSource source,
+                            CommandContext args) throws CommandException {
+                        int worlds = 0;
+                        for (World world : SpongeImpl.getGame().getServer().getWorlds()) {
+                            if (world.getDimension().getType().equals(dim)) {
+                                compact((WorldServer) world, source);
+                                worlds++;
+                            }
+                        }
+                        return Texts.of("Compacting the player ids of ", worlds, " worlds in dimension ", dim.getName());
+                    }
+
+                    @Override
+                    protected Text processWorld(SpongeConfig<SpongeConfig.WorldConfig> config, World world, CommandSource source, CommandContext args)
+                            throws CommandException {
+                        compact((WorldServer) world, source);
+                        return Texts.of("Compacting the player ids");
+                    }
+
+                    private void compact(WorldServer world, CommandSource source) throws CommandException {
+                        String worldName = world.getWorldInfo().getWorldName();
+                        ListenableFuture<Integer> compacted;
+                        try {
+                            compacted = PlayerUniqueIdCompactor.compact(world);
+                        } catch (IllegalStateException e) {
+                            throw new CommandException(Texts.of(e.getMessage()), e);
+                        }
+                        // Report back on the main thread once the saved chunks are scanned
+                        Futures.addCallback(compacted, new FutureCallback<Integer>() {
+
+                            @Override
+                            public void onSuccess(Integer freed) {
+                                source.sendMessage(Texts.of("World ", worldName, ": Freed ", freed, " player ids"));
+                            }
+
+                            @Override
+                            public void onFailure(Throwable t) {
+                                SpongeImpl.getLogger().error("Failed to compact the player ids of " + worldName, t);
+                                source.sendMessage(Texts.of(TextColors.RED, "World ", worldName, ": Failed to compact the player ids"));
+                            }
+                        }, task -> MinecraftServer.getServer().addScheduledTask(task));
+                    }
+                })
+                .build();
+    }
+
     // Non-flag children
 
     private static CommandSpec getHeapCommand() {
@@ -478,4 +573,105 @@ private static CommandCallable getTimingsCommand() {
                         .build(), "cost")
                 .build();
     }
+
+    private static final int EVENTS_SHOWN = 10;
+
+    private static Optional<SpongeEventManager> getSpongeEventManager(CommandSource src) {
+        EventManager eventManager = SpongeImpl.getGame().getEventManager();
+        if (!(eventManager instanceof SpongeEventManager)) {
+            src.sendMessage(Texts.of(TextColors.RED, "Event metrics are not supported by this event manager"));
+            return Optional.empty();
+        }
+        return Optional.of((SpongeEventManager) eventManager);
+    }
+
+    private static Text metrics(DispatchMetrics metrics) {
+        return Texts.of(TextColors.GRAY, "calls: ", metrics.getInvocations(),
+                ", total: ", TimeUnit.NANOSECONDS.toMillis(metrics.getTotalNanos()), "ms",
+                ", avg: ", (long) (metrics.getAverageNanos() / 1000), "us",
+                ", p99: <", metrics.getPercentileMicros(0.99), "us",
+                ", max: ", TimeUnit.NANOSECONDS.toMicros(metrics.getMaxNanos()), "us",
+                metrics.getSlowInvocations() == 0 ? Texts.of() : Texts.of(TextColors.RED, ", slow: ", metrics.getSlowInvocations()));
+    }
+
+    private static CommandCallable getEventsCommand() {
+        return CommandSpec.builder()
+                .permission("sponge.command.events")
+                .description(Texts.of("Shows dispatch metrics of event listeners."))
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Show the listeners with the highest total dispatch time"))
+                        .executor((src, args) -> {
+                            Optional<SpongeEventManager> eventManager = getSpongeEventManager(src);
+                            if (!eventManager.isPresent()) {
+                                return CommandResult.empty();
+                            }
+                            List<RegisteredListener<?>> listeners = eventManager.get().getRegisteredListeners().stream()
+                                    .filter(listener -> listener.getMetrics().getInvocations() > 0)
+                                    .sorted(Comparator.comparingLong((RegisteredListener<?> listener) -> listener.getMetrics().getTotalNanos())
+                                            .reversed())
+                                    .limit(EVENTS_SHOWN)
+                                    .collect(Collectors.toList());
+                            src.sendMessage(Texts.of("Slowest listeners (", listeners.size(), "):"));
+                            for (RegisteredListener<?> listener : listeners) {
+                                src.sendMessage(Texts.of(INDENT, title(listener.getPlugin().getId()), " ",
+                                        listener.getHandle().getClass().getSimpleName(), " (", listener.getEventClass().getSimpleName(), ")",
+                                        NEWLINE_TEXT, LONG_INDENT, metrics(listener.getMetrics())));
+                            }
+                            return CommandResult.success();
+                        })
+                        .build(), "listeners")
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Show the event types with the highest total dispatch time"))
+                        .executor((src, args) -> {
+                            Optional<SpongeEventManager> eventManager = getSpongeEventManager(src);
+                            if (!eventManager.isPresent()) {
+                                return CommandResult.empty();
+                            }
+                            List<Map.Entry<Class<?>, DispatchMetrics>> types = eventManager.get().getEventMetrics().entrySet().stream()
+                                    .filter(entry -> entry.getValue().getInvocations() > 0)
+                                    .sorted(Comparator.comparingLong((Map.Entry<Class<?>, DispatchMetrics> entry) -> entry.getValue()
+                                            .getTotalNanos()).reversed())
+                                    .limit(EVENTS_SHOWN)
+                                    .collect(Collectors.toList());
+                            src.sendMessage(Texts.of("Slowest event types (", types.size(), "):"));
+                            for (Map.Entry<Class<?>, DispatchMetrics> entry : types) {
+                                src.sendMessage(Texts.of(INDENT, title(entry.getKey().getSimpleName()),
+                                        NEWLINE_TEXT, LONG_INDENT, metrics(entry.getValue())));
+                            }
+                            return CommandResult.success();
+                        })
+                        .build(), "types")
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Reset all event dispatch metrics"))
+                        .executor((src, args) -> {
+                            Optional<SpongeEventManager> eventManager = getSpongeEventManager(src);
+                            if (!eventManager.isPresent()) {
+                                return CommandResult.empty();
+                            }
+                            eventManager.get().resetMetrics();
+                            src.sendMessage(Texts.of("Event metrics reset"));
+                            return CommandResult.success();
+                        })
+                        .build(), "reset")
+                .child(CommandSpec.builder()
+                        .description(Texts.of("Show the state of the asynchronous listener queue"))
+                        .executor((src, args) -> {
+                            Optional<SpongeEventManager> eventManager = getSpongeEventManager(src);
+                            if (!eventManager.isPresent()) {
+                                return CommandResult.empty();
+                            }
+                            AsyncEventQueue queue = eventManager.get().getAsyncQueue();
+                            src.sendMessage(Texts.of("Asynchronous listeners:"));
+                            src.sendMessage(Texts.of(INDENT, title("Queued events: "), queue.getQueuedEvents(),
+                                    " (", queue.getPendingBatches(), " batches waiting)"));
+                            src.sendMessage(Texts.of(INDENT, title("Delivered events: "), queue.getDeliveredEvents(),
+                                    " in ", queue.getBatches(), " batches"));
+                            src.sendMessage(Texts.of(INDENT, title("Dropped events: "),
+                                    queue.getDroppedEvents() == 0 ? Texts.of(queue.getDroppedEvents())
+                                            : Texts.of(TextColors.RED, queue.getDroppedEvents())));
+                            return CommandResult.success();
+                        })
+                        .build(), "async")
+                .build();
+    }
 }
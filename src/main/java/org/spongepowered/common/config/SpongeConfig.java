@@ -53,7 +53,9 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
 
@@ -92,6 +94,18 @@ public enum Type {
     public static final String ENTITY_ACTIVATION_RANGE_MISC = "misc-activation-range";
     public static final String ENTITY_HUMAN_PLAYER_LIST_REMOVE_DELAY = "human-player-list-remove-delay";
     public static final String ENTITY_PAINTING_RESPAWN_DELAY = "entity-painting-respawn-delay";
+    public static final String ENTITY_CHUNK_CAPS = "chunk-caps";
+    public static final String ENTITY_WORLD_CAPS = "world-caps";
+    public static final String ENTITY_ITEM_MERGE_RADIUS = "item-merge-radius";
+    public static final String ENTITY_XP_ORB_MERGE_RADIUS = "xp-orb-merge-radius";
+
+    // EVENTS
+    public static final String EVENTS_LISTENER_METRICS = "listener-metrics";
+    public static final String EVENTS_SLOW_LISTENER_BUDGET = "slow-listener-budget";
+    public static final String EVENTS_GENERATED_DISPATCHERS = "generated-dispatchers";
+    public static final String EVENTS_ASYNC_THREADS = "async-threads";
+    public static final String EVENTS_ASYNC_QUEUE_SIZE = "async-queue-size";
+    public static final String EVENTS_ASYNC_BATCH_SIZE = "async-batch-size";
 
     // BUNGEECORD
     public static final String BUNGEECORD_IP_FORWARDING = "ip-forwarding";
@@ -139,6 +153,9 @@ public enum Type {
     public static final String WORLD_KEEP_SPAWN_LOADED = "keep-spawn-loaded";
     public static final String WORLD_LOAD_ON_STARTUP = "load-on-startup";
     public static final String WORLD_GEN_MODIFIERS = "world-generation-modifiers";
+    public static final String WORLD_COMPACT_PLAYER_INDEX = "compact-player-index-on-load";
+    public static final String WORLD_PRE_GENERATE_THREADS = "pre-generate-threads";
+    public static final String WORLD_BIOME_CACHE_SIZE = "biome-cache-size";
 
     private static final String HEADER = "1.0\n"
             + "\n"
@@ -155,6 +172,7 @@ public enum Type {
     private ObjectMapper<T>.BoundInstance configMapper;
     private T configBase;
     private String modId;
+    private final List<Consumer<? super T>> loadListeners = new CopyOnWriteArrayList<>();
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     public SpongeConfig(Type type, Path path, String modId) {
@@ -198,16 +216,37 @@ public void reload() {
                             TypeSerializers.getDefaultSerializers().newChild().registerType(TypeToken.of(IpSet.class), new IpSet.IpSetSerializer()))
                     .setHeader(HEADER));
             this.configBase = this.configMapper.populate(this.root.getNode(this.modId));
+            onLoaded();
         } catch (Exception e) {
             SpongeImpl.getLogger().error("Failed to load configuration", e);
         }
     }
 
+    /**
+     * Adds a listener which is called with the config right away, and again
+     * whenever the config is reloaded or a setting is changed.
+     *
+     * @param listener The listener
+     */
+    public void addLoadListener(Consumer<? super T> listener) {
+        this.loadListeners.add(listener);
+        if (this.configBase != null) {
+            listener.accept(this.configBase);
+        }
+    }
+
+    private void onLoaded() {
+        for (Consumer<? super T> listener : this.loadListeners) {
+            listener.accept(this.configBase);
+        }
+    }
+
     public CompletableFuture<CommentedConfigurationNode> updateSetting(String key, Object value) {
         return Functional.asyncFailableFuture(() -> {
             CommentedConfigurationNode upd = getSetting(key);
             upd.setValue(value);
             this.configBase = this.configMapper.populate(this.root.getNode(this.modId));
+            onLoaded();
             this.loader.save(this.root);
             return upd;
         }, ForkJoinPool.commonPool());
@@ -253,6 +292,12 @@ public static class GlobalConfig extends ConfigBase {
         @Setting(MODULE_SHUTDOWN_ON_EULA)
         private ShutdownOnEulaCategory eulaShutdown = new ShutdownOnEulaCategory();
 
+        @Setting(comment = "Configuration options related to event dispatch")
+        private EventsCategory events = new EventsCategory();
+
+        @Setting(value = "chunk-loading", comment = "Configuration options related to chunk loading tickets of plugins")
+        private ChunkLoadingCategory chunkLoading = new ChunkLoadingCategory();
+
         public BungeeCordCategory getBungeeCord() {
             return this.bungeeCord;
         }
@@ -269,6 +314,14 @@ public CommandsCategory getCommands() {
             return this.commands;
         }
 
+        public EventsCategory getEvents() {
+            return this.events;
+        }
+
+        public ChunkLoadingCategory getChunkLoading() {
+            return this.chunkLoading;
+        }
+
         public ModuleCategory getModules() {
             return this.mixins;
         }
@@ -407,6 +460,120 @@ public Map<String, String> getAliases() {
         }
     }
 
+    @ConfigSerializable
+    public static class ChunkLoadingCategory extends Category {
+
+        @Setting(value = "max-tickets", comment = "The number of tickets a plugin may have in each world")
+        private int maxTickets = 200;
+
+        @Setting(value = "max-chunks-per-ticket", comment = "The number of chunks a single ticket may keep loaded")
+        private int maxChunksPerTicket = 25;
+
+        @Setting(value = "player-max-tickets", comment = "The number of tickets plugins may create for a single player, in all worlds")
+        private int playerMaxTickets = 500;
+
+        @Setting(value = "plugin-max-tickets", comment = "Overrides max-tickets for the plugins with the given ids")
+        private Map<String, Integer> pluginMaxTickets = new HashMap<>();
+
+        public int getMaxTickets(String pluginId) {
+            Integer maxTickets = this.pluginMaxTickets.get(pluginId);
+            return maxTickets == null ? this.maxTickets : maxTickets;
+        }
+
+        public void setMaxTickets(int maxTickets) {
+            this.maxTickets = Math.max(0, maxTickets);
+        }
+
+        public int getMaxChunksPerTicket() {
+            return this.maxChunksPerTicket;
+        }
+
+        public void setMaxChunksPerTicket(int maxChunksPerTicket) {
+            this.maxChunksPerTicket = Math.max(0, maxChunksPerTicket);
+        }
+
+        public int getPlayerMaxTickets() {
+            return this.playerMaxTickets;
+        }
+
+        public void setPlayerMaxTickets(int playerMaxTickets) {
+            this.playerMaxTickets = Math.max(0, playerMaxTickets);
+        }
+
+        public Map<String, Integer> getPluginMaxTickets() {
+            return this.pluginMaxTickets;
+        }
+    }
+
+    @ConfigSerializable
+    public static class EventsCategory extends Category {
+
+        @Setting(value = EVENTS_LISTENER_METRICS, comment = "Record invocation counts and latencies of every event listener, see /sponge events")
+        private boolean listenerMetrics = true;
+        @Setting(value = EVENTS_SLOW_LISTENER_BUDGET,
+                comment = "Time in microseconds a single listener call may take before it is reported as slow. Set to 0 to disable")
+        private int slowListenerBudget = 10000;
+        @Setting(value = EVENTS_GENERATED_DISPATCHERS,
+                comment = "Generate a dispatcher class per event type which calls all of its listeners directly. Requires a restart to fully apply")
+        private boolean generatedDispatchers = false;
+        @Setting(value = EVENTS_ASYNC_THREADS, comment = "Number of threads which deliver events to asynchronous listeners. Requires a restart")
+        private int asyncThreads = 2;
+        @Setting(value = EVENTS_ASYNC_QUEUE_SIZE,
+                comment = "Maximum number of tick batches waiting for asynchronous listeners. Further batches are dropped. Requires a restart")
+        private int asyncQueueSize = 64;
+        @Setting(value = EVENTS_ASYNC_BATCH_SIZE,
+                comment = "Maximum number of events queued for asynchronous listeners in a single tick. Further events are dropped")
+        private int asyncBatchSize = 10000;
+
+        public boolean isListenerMetricsEnabled() {
+            return this.listenerMetrics;
+        }
+
+        public void setListenerMetricsEnabled(boolean flag) {
+            this.listenerMetrics = flag;
+        }
+
+        public int getSlowListenerBudget() {
+            return this.slowListenerBudget;
+        }
+
+        public void setSlowListenerBudget(int slowListenerBudget) {
+            this.slowListenerBudget = Math.max(0, slowListenerBudget);
+        }
+
+        public boolean useGeneratedDispatchers() {
+            return this.generatedDispatchers;
+        }
+
+        public void setGeneratedDispatchers(boolean flag) {
+            this.generatedDispatchers = flag;
+        }
+
+        public int getAsyncThreads() {
+            return this.asyncThreads;
+        }
+
+        public void setAsyncThreads(int asyncThreads) {
+            this.asyncThreads = Math.max(1, asyncThreads);
+        }
+
+        public int getAsyncQueueSize() {
+            return this.asyncQueueSize;
+        }
+
+        public void setAsyncQueueSize(int asyncQueueSize) {
+            this.asyncQueueSize = Math.max(1, asyncQueueSize);
+        }
+
+        public int getAsyncBatchSize() {
+            return this.asyncBatchSize;
+        }
+
+        public void setAsyncBatchSize(int asyncBatchSize) {
+            this.asyncBatchSize = Math.max(1, asyncBatchSize);
+        }
+    }
+
     @ConfigSerializable
     public static class DebugCategory extends Category {
 
@@ -499,6 +666,18 @@ public static class EntityCategory extends Category {
         @Setting(value = ENTITY_PAINTING_RESPAWN_DELAY,
                 comment = "Number of ticks before a painting is respawned on clients when their art is changed")
         private int paintingRespawnDelaly = 2;
+        @Setting(value = ENTITY_CHUNK_CAPS, comment = "Max number of entities of an entity type (such as minecraft:chicken) or category "
+                + "(creature, monster, aquatic, ambient or misc) in one chunk. Further spawns are refused")
+        private Map<String, Integer> chunkCaps = new HashMap<>();
+        @Setting(value = ENTITY_WORLD_CAPS, comment = "Max number of entities of an entity type (such as minecraft:chicken) or category "
+                + "(creature, monster, aquatic, ambient or misc) in the world. Further spawns are refused")
+        private Map<String, Integer> worldCaps = new HashMap<>();
+        @Setting(value = ENTITY_ITEM_MERGE_RADIUS,
+                comment = "Radius in blocks in which dropped items of the same kind are merged into one stack. Set to 0 to only use vanilla merging")
+        private double itemMergeRadius = 2.5;
+        @Setting(value = ENTITY_XP_ORB_MERGE_RADIUS,
+                comment = "Radius in blocks in which experience orbs are merged into one orb. Set to 0 to disable")
+        private double xpOrbMergeRadius = 3.0;
 
         public int getMaxBoundingBoxSize() {
             return this.maxBoundingBoxSize;
@@ -555,6 +734,30 @@ public int getPaintingRespawnDelaly() {
         public void setPaintingRespawnDelaly(int paintingRespawnDelaly) {
             this.paintingRespawnDelaly = Math.min(paintingRespawnDelaly, 1);
         }
+
+        public Map<String, Integer> getChunkCaps() {
+            return this.chunkCaps;
+        }
+
+        public Map<String, Integer> getWorldCaps() {
+            return this.worldCaps;
+        }
+
+        public double getItemMergeRadius() {
+            return this.itemMergeRadius;
+        }
+
+        public void setItemMergeRadius(double itemMergeRadius) {
+            this.itemMergeRadius = Math.max(0, itemMergeRadius);
+        }
+
+        public double getXpOrbMergeRadius() {
+            return this.xpOrbMergeRadius;
+        }
+
+        public void setXpOrbMergeRadius(double xpOrbMergeRadius) {
+            this.xpOrbMergeRadius = Math.max(0, xpOrbMergeRadius);
+        }
     }
 
     @ConfigSerializable
@@ -782,8 +985,9 @@ public static class ModuleCategory extends Category {
         @Setting(value = MODULE_BUNGEECORD)
         private boolean pluginBungeeCord = false;
 
-        @Setting(value = MODULE_ENTITY_ACTIVATION_RANGE)
-        private boolean pluginEntityActivation = true;
+        @Setting(value = MODULE_ENTITY_ACTIVATION_RANGE, comment = "Lets entities far away from players skip most of their ticks. "
+                + "Off by default, since it changes how farms and mobs behave.")
+        private boolean pluginEntityActivation = false;
 
         @Setting("timings")
         private boolean pluginTimings = true;
@@ -859,6 +1063,19 @@ public static class WorldCategory extends Category {
         @Setting(value = WORLD_GEN_MODIFIERS, comment = "WorldGenerationModifiers to apply to the world")
         private List<String> worldModifiers = new ArrayList<>();
 
+        @Setting(value = WORLD_COMPACT_PLAYER_INDEX, comment = "Enable to free the ids of players that no saved chunk still tracks as block owner or notifier "
+                + "when this world loads. This reads every saved chunk of the world.")
+        private boolean compactPlayerIndexOnLoad = false;
+
+        @Setting(value = WORLD_PRE_GENERATE_THREADS, comment = "The number of threads that generate terrain ahead of chunk pre-generation, "
+                + "which then only loads and populates the generated chunks. Only used if every generator of the world is thread safe, "
+                + "which currently are the plain flat generator and the single biome generator. Set to 0 to generate on the main thread.")
+        private int preGenerateThreads = 1;
+
+        @Setting(value = WORLD_BIOME_CACHE_SIZE, comment = "The number of chunk columns whose generated biomes are kept, so that generation, "
+                + "population and spawning don't ask a custom biome generator for them again. Set to 0 to disable.")
+        private int biomeCacheSize = 1024;
+
         public boolean hasInfiniteWaterSource() {
             return this.infiniteWaterSource;
         }
@@ -910,6 +1127,30 @@ public void setPVPEnabled(boolean allow) {
         public List<String> getWorldGenModifiers() {
             return this.worldModifiers;
         }
+
+        public boolean compactPlayerIndexOnLoad() {
+            return this.compactPlayerIndexOnLoad;
+        }
+
+        public void setCompactPlayerIndexOnLoad(boolean compact) {
+            this.compactPlayerIndexOnLoad = compact;
+        }
+
+        public int getPreGenerateThreads() {
+            return this.preGenerateThreads;
+        }
+
+        public void setPreGenerateThreads(int threads) {
+            this.preGenerateThreads = Math.max(0, threads);
+        }
+
+        public int getBiomeCacheSize() {
+            return this.biomeCacheSize;
+        }
+
+        public void setBiomeCacheSize(int size) {
+            this.biomeCacheSize = Math.max(0, size);
+        }
     }
 
     @ConfigSerializable
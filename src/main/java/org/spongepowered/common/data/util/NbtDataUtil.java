@@ -115,7 +115,15 @@ private NbtDataUtil() {
     public static final String SPONGE_ENTITY_CREATOR = "Creator";
     public static final String SPONGE_ENTITY_NOTIFIER = "Notifier";
     public static final String SPONGE_BLOCK_POS_TABLE = "BlockPosTable";
+    public static final String SPONGE_SHORT_POS_TRACKERS = "ShortPosTrackers";
+    public static final String SPONGE_INT_POS_TRACKERS = "IntPosTrackers";
+    public static final String SPONGE_TRACKER_POSITIONS = "Positions";
+    public static final String SPONGE_TRACKER_OWNERS = "Owners";
+    public static final String SPONGE_TRACKER_NOTIFIERS = "Notifiers";
     public static final String SPONGE_PLAYER_UUID_TABLE = "PlayerIdTable";
+    public static final String SPONGE_PLAYER_UUID_INDEX = "PlayerIdIndex";
+    public static final String SPONGE_CHUNK_PRE_GENERATE = "ChunkPreGenerate";
+    public static final String SPONGE_CHUNK_TICKETS = "ChunkTickets";
     public static final String CUSTOM_MANIPULATOR_TAG_LIST = "CustomManipulators";
     public static final String PROJECTILE_DAMAGE_AMOUNT = "damageAmount";
     public static final String BOAT_MAX_SPEED = "maxSpeed";
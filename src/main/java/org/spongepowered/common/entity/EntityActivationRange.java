@@ -0,0 +1,292 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import co.aikar.timings.SpongeTimings;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityAgeable;
+import net.minecraft.entity.EntityCreature;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.boss.EntityDragon;
+import net.minecraft.entity.boss.EntityDragonPart;
+import net.minecraft.entity.boss.EntityWither;
+import net.minecraft.entity.effect.EntityWeatherEffect;
+import net.minecraft.entity.item.EntityEnderCrystal;
+import net.minecraft.entity.item.EntityFallingBlock;
+import net.minecraft.entity.item.EntityFireworkRocket;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.monster.EntityCreeper;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.EntityAmbientCreature;
+import net.minecraft.entity.passive.EntityAnimal;
+import net.minecraft.entity.passive.EntityVillager;
+import net.minecraft.entity.passive.EntityWaterMob;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.EntityFireball;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.IChunkProvider;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.interfaces.entity.IMixinEntity;
+import org.spongepowered.common.util.SpongeHooks;
+
+/**
+ * Decides which entities are close enough to a player to run a full tick.
+ *
+ * <p>Once per world tick, every entity within the activation range of its
+ * type around a player is marked active. Entities outside of it run only
+ * {@link IMixinEntity#inactiveTick()}, unless something they are doing makes
+ * them immune. Inactive entities still get a full tick every
+ * {@link #WAKE_UP_INTERVAL} ticks.</p>
+ */
+public final class EntityActivationRange {
+
+    public static final byte ACTIVATION_TYPE_CREATURE = 0;
+    public static final byte ACTIVATION_TYPE_MONSTER = 1;
+    public static final byte ACTIVATION_TYPE_AQUATIC = 2;
+    public static final byte ACTIVATION_TYPE_AMBIENT = 3;
+    public static final byte ACTIVATION_TYPE_MISC = 4;
+
+    public static final int ACTIVATION_TYPES = 5;
+    private static final int WAKE_UP_INTERVAL = 20;
+
+    // Read from the config once per activation pass rather than for every entity
+    private static boolean enabled;
+
+    private EntityActivationRange() {
+    }
+
+    private static int getCurrentTick() {
+        return MinecraftServer.getServer().getTickCounter();
+    }
+
+    /**
+     * Gets the activation type of an entity, which selects the range that is
+     * used for it.
+     *
+     * @param entity The entity
+     * @return The activation type
+     */
+    public static byte initializeEntityActivationType(Entity entity) {
+        if (entity instanceof IMob) {
+            return ACTIVATION_TYPE_MONSTER;
+        } else if (entity instanceof EntityWaterMob) {
+            return ACTIVATION_TYPE_AQUATIC;
+        } else if (entity instanceof EntityAmbientCreature) {
+            return ACTIVATION_TYPE_AMBIENT;
+        } else if (entity instanceof EntityCreature || entity instanceof EntityAgeable) {
+            return ACTIVATION_TYPE_CREATURE;
+        }
+        return ACTIVATION_TYPE_MISC;
+    }
+
+    /**
+     * Gets whether an entity is always active, no matter how far it is from
+     * any player.
+     *
+     * @param entity The entity
+     * @param activationType The activation type of the entity
+     * @return Whether the entity is always active
+     */
+    public static boolean initializeEntityActivationState(Entity entity, byte activationType) {
+        if (entity.worldObj == null || entity.worldObj.isRemote) {
+            return true;
+        }
+        if (getRange(getConfig(entity.worldObj), activationType) <= 0) {
+            return true;
+        }
+        return entity instanceof EntityPlayer
+                || entity instanceof IProjectile
+                || entity instanceof EntityFireball
+                || entity instanceof EntityDragon
+                || entity instanceof EntityDragonPart
+                || entity instanceof EntityWither
+                || entity instanceof EntityWeatherEffect
+                || entity instanceof EntityTNTPrimed
+                || entity instanceof EntityFallingBlock
+                || entity instanceof EntityEnderCrystal
+                || entity instanceof EntityFireworkRocket;
+    }
+
+    private static SpongeConfig.EntityActivationRangeCategory getConfig(World world) {
+        return SpongeHooks.getActiveConfig(world).getConfig().getEntityActivationRange();
+    }
+
+    private static int getRange(SpongeConfig.EntityActivationRangeCategory config, byte activationType) {
+        switch (activationType) {
+            case ACTIVATION_TYPE_CREATURE:
+                return config.getCreatureActivationRange();
+            case ACTIVATION_TYPE_MONSTER:
+                return config.getMonsterActivationRange();
+            case ACTIVATION_TYPE_AQUATIC:
+                return config.getAquaticActivationRange();
+            case ACTIVATION_TYPE_AMBIENT:
+                return config.getAmbientActivationRange();
+            default:
+                return config.getMiscActivationRange();
+        }
+    }
+
+    /**
+     * Marks every entity within range of a player in the given world as
+     * active for the current tick.
+     *
+     * @param world The world to activate entities in
+     */
+    public static void activateEntities(World world) {
+        if (world.isRemote) {
+            return;
+        }
+        enabled = SpongeImpl.getGlobalConfig().getConfig().getModules().usePluginEntityActivation();
+        if (!enabled) {
+            return;
+        }
+        SpongeTimings.entityActivationCheckTimer.startTiming();
+        final SpongeConfig.EntityActivationRangeCategory config = getConfig(world);
+        final int[] ranges = new int[ACTIVATION_TYPES];
+        int maxRange = 0;
+        for (byte type = 0; type < ACTIVATION_TYPES; type++) {
+            ranges[type] = getRange(config, type);
+            maxRange = Math.max(maxRange, ranges[type]);
+        }
+
+        final int currentTick = getCurrentTick();
+        final IChunkProvider chunkProvider = world.getChunkProvider();
+        final AxisAlignedBB[] boxes = new AxisAlignedBB[ACTIVATION_TYPES];
+        for (Object object : world.playerEntities) {
+            final EntityPlayer player = (EntityPlayer) object;
+            ((IMixinEntity) player).setActivatedTick(currentTick);
+            final AxisAlignedBB playerBox = player.getEntityBoundingBox();
+            for (int type = 0; type < ACTIVATION_TYPES; type++) {
+                boxes[type] = playerBox.expand(ranges[type], 256, ranges[type]);
+            }
+
+            final int minChunkX = MathHelper.floor_double((player.posX - maxRange) / 16.0D);
+            final int maxChunkX = MathHelper.floor_double((player.posX + maxRange) / 16.0D);
+            final int minChunkZ = MathHelper.floor_double((player.posZ - maxRange) / 16.0D);
+            final int maxChunkZ = MathHelper.floor_double((player.posZ + maxRange) / 16.0D);
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    if (chunkProvider.chunkExists(chunkX, chunkZ)) {
+                        activateChunkEntities(world.getChunkFromChunkCoords(chunkX, chunkZ).getEntityLists(), boxes, currentTick);
+                    }
+                }
+            }
+        }
+        SpongeTimings.entityActivationCheckTimer.stopTiming();
+    }
+
+    private static void activateChunkEntities(ClassInheritanceMultiMap[] entityLists, AxisAlignedBB[] boxes, int currentTick) {
+        for (ClassInheritanceMultiMap entities : entityLists) {
+            for (Object object : entities) {
+                final Entity entity = (Entity) object;
+                final IMixinEntity mixinEntity = (IMixinEntity) entity;
+                if (currentTick <= mixinEntity.getActivatedTick()) {
+                    continue;
+                }
+                if (mixinEntity.getDefaultActivationState()
+                        || boxes[mixinEntity.getActivationType()].intersectsWith(entity.getEntityBoundingBox())) {
+                    mixinEntity.setActivatedTick(currentTick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets whether an entity is busy with something that must not be slowed
+     * down, even when no player is near it.
+     *
+     * @param entity The entity
+     * @return Whether the entity is immune to being made inactive
+     */
+    public static boolean checkEntityImmunities(Entity entity) {
+        if (entity.isInWater() || entity.fire > 0) {
+            return true;
+        }
+        if (!entity.onGround || entity.riddenByEntity != null || entity.ridingEntity != null) {
+            return true;
+        }
+        if (entity instanceof EntityLivingBase) {
+            final EntityLivingBase living = (EntityLivingBase) entity;
+            if (living.hurtTime > 0 || !living.getActivePotionEffects().isEmpty()) {
+                return true;
+            }
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).getAttackTarget() != null) {
+                return true;
+            }
+            if (entity instanceof EntityVillager && ((EntityVillager) entity).isMating()) {
+                return true;
+            }
+            if (entity instanceof EntityAnimal) {
+                final EntityAnimal animal = (EntityAnimal) entity;
+                if (animal.isChild() || animal.isInLove()) {
+                    return true;
+                }
+            }
+            if (entity instanceof EntityCreeper && ((EntityCreeper) entity).hasIgnited()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets whether an entity should run a full tick this tick.
+     *
+     * @param entity The entity
+     * @return Whether the entity is active
+     */
+    public static boolean checkIfActive(Entity entity) {
+        // Entities not yet in a chunk were never seen by activateEntities
+        if (entity.worldObj.isRemote || !entity.addedToChunk || !enabled) {
+            return true;
+        }
+        final IMixinEntity mixinEntity = (IMixinEntity) entity;
+        if (mixinEntity.getDefaultActivationState()) {
+            return true;
+        }
+
+        SpongeTimings.checkIfActiveTimer.startTiming();
+        final int currentTick = getCurrentTick();
+        boolean isActive = mixinEntity.getActivatedTick() >= currentTick;
+        if (!isActive && (currentTick - mixinEntity.getActivatedTick() - 1) % WAKE_UP_INTERVAL == 0) {
+            // Wake up for a full tick, and stay awake for a while if the
+            // entity is busy
+            if (checkEntityImmunities(entity)) {
+                mixinEntity.setActivatedTick(currentTick + WAKE_UP_INTERVAL);
+            }
+            isActive = true;
+        }
+        SpongeTimings.checkIfActiveTimer.stopTiming();
+        return isActive;
+    }
+
+}
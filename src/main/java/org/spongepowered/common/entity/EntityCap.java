@@ -0,0 +1,161 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import com.google.common.base.Objects;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.interfaces.IMixinChunk;
+import org.spongepowered.common.interfaces.entity.IMixinEntity;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
+import org.spongepowered.common.util.SpongeHooks;
+
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * A configured limit on the number of entities of a type or category in a
+ * chunk or a world, which refused a spawn.
+ *
+ * <p>Refused spawns are reported with a cancelled spawn event whose cause
+ * contains the cap under the name {@link #CAUSE_NAME}, so plugins can tell
+ * why the entities didn't spawn.</p>
+ */
+public final class EntityCap {
+
+    public static final String CAUSE_NAME = "EntityCap";
+
+    private static final String[] CATEGORY_NAMES = {"creature", "monster", "aquatic", "ambient", "misc"};
+
+    private final String key;
+    private final int limit;
+    private final boolean perChunk;
+
+    private EntityCap(String key, int limit, boolean perChunk) {
+        this.key = key;
+        this.limit = limit;
+        this.perChunk = perChunk;
+    }
+
+    /**
+     * Gets the entity type id or category name the cap applies to.
+     *
+     * @return The entity type id or category name
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Gets the maximum number of entities.
+     *
+     * @return The maximum number of entities
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Gets whether the cap applies to each chunk, rather than the world.
+     *
+     * @return Whether the cap applies to each chunk
+     */
+    public boolean isPerChunk() {
+        return this.perChunk;
+    }
+
+    /**
+     * Gets the cap that the given entity would exceed if it were spawned
+     * into the world now. Players are never capped.
+     *
+     * @param world The world
+     * @param entity The entity
+     * @return The exceeded cap, if any
+     */
+    public static Optional<EntityCap> check(World world, Entity entity) {
+        if (entity instanceof EntityPlayer) {
+            return Optional.empty();
+        }
+        final SpongeConfig.EntityCategory config = SpongeHooks.getActiveConfig(world).getConfig().getEntity();
+        EntityCap cap = null;
+        if (!config.getChunkCaps().isEmpty()) {
+            final int chunkX = MathHelper.floor_double(entity.posX / 16.0D);
+            final int chunkZ = MathHelper.floor_double(entity.posZ / 16.0D);
+            final EntityCounts counts = ((IMixinChunk) world.getChunkFromChunkCoords(chunkX, chunkZ)).getEntityCounts();
+            cap = check(config.getChunkCaps(), counts, entity, true);
+        }
+        if (cap == null && !config.getWorldCaps().isEmpty()) {
+            cap = check(config.getWorldCaps(), ((IMixinWorld) world).getEntityCounts(), entity, false);
+        }
+        return Optional.ofNullable(cap);
+    }
+
+    @Nullable
+    private static EntityCap check(Map<String, Integer> caps, EntityCounts counts, Entity entity, boolean perChunk) {
+        final String typeId = EntityCounts.getTypeId(entity);
+        Integer limit = typeId == null ? null : caps.get(typeId);
+        if (limit != null && counts.get(typeId) >= limit) {
+            return new EntityCap(typeId, limit, perChunk);
+        }
+        final byte category = ((IMixinEntity) entity).getActivationType();
+        limit = caps.get(CATEGORY_NAMES[category]);
+        if (limit != null && counts.getCategory(category) >= limit) {
+            return new EntityCap(CATEGORY_NAMES[category], limit, perChunk);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EntityCap)) {
+            return false;
+        }
+        final EntityCap other = (EntityCap) obj;
+        return this.limit == other.limit && this.perChunk == other.perChunk && this.key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.key, this.limit, this.perChunk);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("key", this.key)
+                .add("limit", this.limit)
+                .add("scope", this.perChunk ? "chunk" : "world")
+                .toString();
+    }
+
+}
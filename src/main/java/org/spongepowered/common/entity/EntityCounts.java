@@ -0,0 +1,97 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import net.minecraft.entity.Entity;
+import org.spongepowered.api.entity.EntityType;
+import org.spongepowered.common.interfaces.entity.IMixinEntity;
+
+import javax.annotation.Nullable;
+
+/**
+ * Counts the entities of a chunk or a world by entity type and by category,
+ * kept up to date as entities are added and removed so that checking them
+ * never needs to walk the entity lists.
+ *
+ * <p>The categories are the activation types of
+ * {@link EntityActivationRange}.</p>
+ */
+public final class EntityCounts {
+
+    private final TObjectIntHashMap<String> types = new TObjectIntHashMap<>();
+    private final int[] categories = new int[EntityActivationRange.ACTIVATION_TYPES];
+
+    public void add(Entity entity) {
+        add(getTypeId(entity), ((IMixinEntity) entity).getActivationType());
+    }
+
+    public void remove(Entity entity) {
+        remove(getTypeId(entity), ((IMixinEntity) entity).getActivationType());
+    }
+
+    void add(@Nullable String typeId, byte category) {
+        if (typeId != null) {
+            this.types.adjustOrPutValue(typeId, 1, 1);
+        }
+        this.categories[category]++;
+    }
+
+    void remove(@Nullable String typeId, byte category) {
+        if (typeId != null && this.types.adjustOrPutValue(typeId, -1, 0) <= 0) {
+            this.types.remove(typeId);
+        }
+        if (this.categories[category] > 0) {
+            this.categories[category]--;
+        }
+    }
+
+    /**
+     * Gets the number of entities of an entity type.
+     *
+     * @param typeId The id of the entity type
+     * @return The number of entities
+     */
+    public int get(String typeId) {
+        return this.types.get(typeId);
+    }
+
+    /**
+     * Gets the number of entities of a category.
+     *
+     * @param category The activation type
+     * @return The number of entities
+     */
+    public int getCategory(byte category) {
+        return this.categories[category];
+    }
+
+    @Nullable
+    static String getTypeId(Entity entity) {
+        final EntityType type = ((org.spongepowered.api.entity.Entity) entity).getType();
+        return type == null ? null : type.getId();
+    }
+
+}
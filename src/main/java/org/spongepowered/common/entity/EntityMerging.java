@@ -0,0 +1,125 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.IChunkProvider;
+import org.spongepowered.common.interfaces.entity.IMixinEntityItem;
+
+import java.util.function.Predicate;
+
+/**
+ * Merges dropped items and experience orbs into the ones around them, to
+ * keep mass drops from farms and explosions from flooding the world with
+ * one entity per stack.
+ *
+ * <p>Nearby entities are found by walking only the entities of the wanted
+ * class in the chunk sections the merge radius overlaps, without collecting
+ * them into a list first.</p>
+ */
+public final class EntityMerging {
+
+    private EntityMerging() {
+    }
+
+    /**
+     * Merges an item with the items within the given radius.
+     *
+     * @param item The item
+     * @param radius The merge radius, 0 or less to not merge at all
+     * @return Whether the item was merged into another one and is now dead
+     */
+    public static boolean mergeItem(EntityItem item, double radius) {
+        if (radius <= 0 || item.isDead) {
+            return false;
+        }
+        final IMixinEntityItem mixinItem = (IMixinEntityItem) item;
+        // The item may absorb several smaller stacks before it is absorbed itself
+        forEachNearby(item, EntityItem.class, radius, other -> mixinItem.combineWith(other) && item.isDead);
+        return item.isDead;
+    }
+
+    /**
+     * Merges an experience orb into an orb within the given radius.
+     *
+     * @param orb The experience orb
+     * @param radius The merge radius, 0 or less to not merge at all
+     * @return Whether the orb was merged into another one and is now dead
+     */
+    public static boolean mergeXpOrb(EntityXPOrb orb, double radius) {
+        if (radius <= 0 || orb.isDead) {
+            return false;
+        }
+        forEachNearby(orb, EntityXPOrb.class, radius, other -> {
+            if (other.isDead) {
+                return false;
+            }
+            other.xpValue += orb.xpValue;
+            other.xpOrbAge = Math.min(other.xpOrbAge, orb.xpOrbAge);
+            orb.setDead();
+            return true;
+        });
+        return orb.isDead;
+    }
+
+    /**
+     * Calls the action for every other entity of a class within the radius
+     * of the entity, until it returns true.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Entity> void forEachNearby(Entity entity, Class<T> type, double radius, Predicate<T> action) {
+        final World world = entity.worldObj;
+        final IChunkProvider chunkProvider = world.getChunkProvider();
+        final double radiusSquared = radius * radius;
+        final int minChunkX = MathHelper.floor_double((entity.posX - radius) / 16.0D);
+        final int maxChunkX = MathHelper.floor_double((entity.posX + radius) / 16.0D);
+        final int minChunkZ = MathHelper.floor_double((entity.posZ - radius) / 16.0D);
+        final int maxChunkZ = MathHelper.floor_double((entity.posZ + radius) / 16.0D);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!chunkProvider.chunkExists(chunkX, chunkZ)) {
+                    continue;
+                }
+                final ClassInheritanceMultiMap[] entityLists = world.getChunkFromChunkCoords(chunkX, chunkZ).getEntityLists();
+                final int minSection = MathHelper.clamp_int(MathHelper.floor_double((entity.posY - radius) / 16.0D), 0, entityLists.length - 1);
+                final int maxSection = MathHelper.clamp_int(MathHelper.floor_double((entity.posY + radius) / 16.0D), 0, entityLists.length - 1);
+                for (int section = minSection; section <= maxSection; section++) {
+                    for (Object object : entityLists[section].getByClass(type)) {
+                        final T other = (T) object;
+                        if (other != entity && other.getDistanceSqToEntity(entity) <= radiusSquared && action.test(other)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
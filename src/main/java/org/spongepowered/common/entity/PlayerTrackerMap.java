@@ -0,0 +1,281 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from packed block positions to the owner and
+ * notifier indices of {@link PlayerTracker}, stored inline in primitive
+ * arrays instead of boxed keys and tracker objects.
+ *
+ * <p>Missing indices are {@code -1}, like in {@link PlayerTracker}.</p>
+ */
+public final class PlayerTrackerMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // Marks free slots, the entry for this key itself is stored separately
+    private static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private int[] owners;
+    private int[] notifiers;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private boolean hasFreeKey;
+    private int freeKeyOwner = -1;
+    private int freeKeyNotifier = -1;
+
+    public PlayerTrackerMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PlayerTrackerMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.owners = new int[capacity];
+        this.notifiers = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int slot(int key) {
+        int slot = mix(key) & this.mask;
+        while (this.keys[slot] != FREE_KEY && this.keys[slot] != key) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE_KEY) {
+            return this.hasFreeKey;
+        }
+        return this.keys[slot(key)] == key;
+    }
+
+    /**
+     * Gets the owner index of the given position.
+     *
+     * @param key The packed position
+     * @return The owner index, or -1 if there is none
+     */
+    public int getOwner(int key) {
+        if (key == FREE_KEY) {
+            return this.freeKeyOwner;
+        }
+        int slot = slot(key);
+        return this.keys[slot] == key ? this.owners[slot] : -1;
+    }
+
+    /**
+     * Gets the notifier index of the given position.
+     *
+     * @param key The packed position
+     * @return The notifier index, or -1 if there is none
+     */
+    public int getNotifier(int key) {
+        if (key == FREE_KEY) {
+            return this.freeKeyNotifier;
+        }
+        int slot = slot(key);
+        return this.keys[slot] == key ? this.notifiers[slot] : -1;
+    }
+
+    /**
+     * Sets the owner index of the given position, keeping its notifier.
+     *
+     * @param key The packed position
+     * @param owner The owner index
+     */
+    public void setOwner(int key, int owner) {
+        put(key, owner, getNotifier(key));
+    }
+
+    /**
+     * Sets the notifier index of the given position, keeping its owner.
+     *
+     * @param key The packed position
+     * @param notifier The notifier index
+     */
+    public void setNotifier(int key, int notifier) {
+        put(key, getOwner(key), notifier);
+    }
+
+    /**
+     * Sets both indices of the given position.
+     *
+     * @param key The packed position
+     * @param owner The owner index, or -1
+     * @param notifier The notifier index, or -1
+     */
+    public void put(int key, int owner, int notifier) {
+        if (key == FREE_KEY) {
+            if (!this.hasFreeKey) {
+                this.hasFreeKey = true;
+                this.size++;
+            }
+            this.freeKeyOwner = owner;
+            this.freeKeyNotifier = notifier;
+            return;
+        }
+
+        int slot = slot(key);
+        if (this.keys[slot] != key) {
+            this.keys[slot] = key;
+            if (++this.size > this.resizeThreshold) {
+                this.owners[slot] = owner;
+                this.notifiers[slot] = notifier;
+                rehash(this.keys.length << 1);
+                return;
+            }
+        }
+        this.owners[slot] = owner;
+        this.notifiers[slot] = notifier;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        int[] oldOwners = this.owners;
+        int[] oldNotifiers = this.notifiers;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int slot = slot(key);
+                this.keys[slot] = key;
+                this.owners[slot] = oldOwners[i];
+                this.notifiers[slot] = oldNotifiers[i];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, FREE_KEY);
+        this.hasFreeKey = false;
+        this.freeKeyOwner = -1;
+        this.freeKeyNotifier = -1;
+        this.size = 0;
+    }
+
+    /**
+     * Calls the visitor for every tracked position.
+     *
+     * @param visitor The visitor
+     */
+    public void forEach(Visitor visitor) {
+        if (this.hasFreeKey) {
+            visitor.visit(FREE_KEY, this.freeKeyOwner, this.freeKeyNotifier);
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != FREE_KEY) {
+                visitor.visit(this.keys[i], this.owners[i], this.notifiers[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies all tracked positions into the given parallel arrays, which
+     * must have a length of at least {@link #size()}.
+     *
+     * @param keys The array to copy the packed positions to
+     * @param owners The array to copy the owner indices to
+     * @param notifiers The array to copy the notifier indices to
+     */
+    public void toArrays(int[] keys, int[] owners, int[] notifiers) {
+        checkArgument(keys.length >= this.size && owners.length >= this.size && notifiers.length >= this.size, "arrays are too small");
+        int index = 0;
+        if (this.hasFreeKey) {
+            keys[index] = FREE_KEY;
+            owners[index] = this.freeKeyOwner;
+            notifiers[index] = this.freeKeyNotifier;
+            index++;
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != FREE_KEY) {
+                keys[index] = this.keys[i];
+                owners[index] = this.owners[i];
+                notifiers[index] = this.notifiers[i];
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Creates a map from parallel arrays, as written by
+     * {@link #toArrays(int[], int[], int[])}.
+     *
+     * @param keys The packed positions
+     * @param owners The owner indices
+     * @param notifiers The notifier indices
+     * @return The new map
+     */
+    public static PlayerTrackerMap fromArrays(int[] keys, int[] owners, int[] notifiers) {
+        checkArgument(keys.length == owners.length && keys.length == notifiers.length, "array lengths differ");
+        PlayerTrackerMap map = new PlayerTrackerMap(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], owners[i], notifiers[i]);
+        }
+        return map;
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+
+        void visit(int key, int owner, int notifier);
+
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the events posted to {@link AsyncListener asynchronous listeners}
+ * during a tick, and hands them to a bounded pool of worker threads as a
+ * single batch once the tick is over.
+ *
+ * <p>Listeners receive a read-only copy of each event, taken right after
+ * the synchronous listeners were called. Asynchronous listeners are never
+ * called on the posting thread.</p>
+ *
+ * <p>Events which can't be copied, events which don't fit into the batch of
+ * the current tick, and batches which don't fit into the queue of the
+ * workers, are dropped and counted instead of slowing down the server.</p>
+ */
+public final class AsyncEventQueue {
+
+    private final Object lock = new Object();
+    private List<Delivery> batch = Lists.newArrayList();
+    @Nullable private ThreadPoolExecutor executor;
+
+    // Updated whenever the global config is reloaded or changed
+    private volatile int maxBatchSize = 10000;
+    private volatile boolean recordMetrics = true;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    AsyncEventQueue() {
+    }
+
+    void updateConfig(SpongeConfig.EventsCategory config) {
+        this.maxBatchSize = config.getAsyncBatchSize();
+        this.recordMetrics = config.isListenerMetricsEnabled();
+    }
+
+    /**
+     * Queues a read-only copy of the given event for the asynchronous
+     * listeners of the given cache, see {@link EventFreezer}. Cancelled
+     * events are only queued for the listeners which don't ignore them.
+     *
+     * @param event The event
+     * @param cancelled Whether the event was cancelled
+     * @param cache The handler cache of the event
+     */
+    void enqueue(Event event, boolean cancelled, RegisteredListener.Cache cache) {
+        List<RegisteredListener<?>> listeners = cancelled ? cache.getCancelledAsyncListeners() : cache.getAsyncListeners();
+        if (listeners.isEmpty()) {
+            return;
+        }
+        synchronized (this.lock) {
+            if (this.batch.size() >= this.maxBatchSize) {
+                this.dropped.increment();
+                return;
+            }
+        }
+        Optional<Event> frozen = cache.getFrozenShape(event.getClass()).flatMap(shape -> EventFreezer.freeze(event, shape));
+        if (!frozen.isPresent()) {
+            this.dropped.increment();
+            return;
+        }
+        synchronized (this.lock) {
+            this.batch.add(new Delivery(frozen.get(), listeners));
+        }
+        this.queued.increment();
+    }
+
+    /**
+     * Hands the events queued since the last flush to the worker threads.
+     * Called at the end of every server tick.
+     */
+    public void flush() {
+        List<Delivery> batch;
+        ThreadPoolExecutor executor;
+        synchronized (this.lock) {
+            if (this.batch.isEmpty()) {
+                return;
+            }
+            batch = this.batch;
+            this.batch = Lists.newArrayList();
+            executor = getExecutor();
+        }
+
+        try {
+            executor.execute(() -> deliver(batch));
+            this.batches.increment();
+        } catch (RejectedExecutionException e) {
+            this.queued.add(-batch.size());
+            this.dropped.add(batch.size());
+        }
+    }
+
+    /**
+     * Flushes the pending events and stops the worker threads once they
+     * finished all queued batches, waiting at most the given time. The
+     * workers are started again by the next flush.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        flush();
+
+        ThreadPoolExecutor executor;
+        synchronized (this.lock) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(timeout, unit)) {
+                    SpongeImpl.getLogger().warn("Asynchronous event listeners did not finish within {} {}, {} events are still queued",
+                            timeout, unit.name().toLowerCase(), getQueuedEvents());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        if (this.executor == null) {
+            SpongeConfig.EventsCategory config = SpongeImpl.getGlobalConfig().getConfig().getEvents();
+            int threads = config.getAsyncThreads();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(config.getAsyncQueueSize()),
+                    new ThreadFactoryBuilder().setNameFormat("Sponge Async Event Thread #%d").setDaemon(true).build());
+        }
+        return this.executor;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void deliver(List<Delivery> batch) {
+        boolean recordMetrics = this.recordMetrics;
+        for (Delivery delivery : batch) {
+            for (RegisteredListener handler : delivery.listeners) {
+                long start = recordMetrics ? System.nanoTime() : 0;
+                try {
+                    handler.handle(delivery.event);
+                } catch (Throwable e) {
+                    SpongeImpl.getLogger().error("Could not pass {} to {}", EventFreezer.getEventType(delivery.event).getSimpleName(),
+                            handler.getPlugin(), e);
+                }
+                if (recordMetrics) {
+                    // No slow call budget, asynchronous listeners don't hold up the tick
+                    SpongeEventManager.recordListener(delivery.event, handler, System.nanoTime() - start, 0);
+                }
+            }
+            this.queued.decrement();
+            this.delivered.increment();
+        }
+    }
+
+    /**
+     * Gets the number of events which were queued but not yet delivered to
+     * all of their listeners.
+     *
+     * @return The number of queued events
+     */
+    public long getQueuedEvents() {
+        return this.queued.sum();
+    }
+
+    public long getDeliveredEvents() {
+        return this.delivered.sum();
+    }
+
+    /**
+     * Gets the number of events which were dropped because they couldn't be
+     * copied, or the batch of their tick or the queue of the workers was
+     * full.
+     *
+     * @return The number of dropped events
+     */
+    public long getDroppedEvents() {
+        return this.dropped.sum();
+    }
+
+    public long getBatches() {
+        return this.batches.sum();
+    }
+
+    /**
+     * Gets the number of batches waiting for a free worker thread.
+     *
+     * @return The number of waiting batches
+     */
+    public int getPendingBatches() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    private static final class Delivery {
+
+        final Event event;
+        final List<RegisteredListener<?>> listeners;
+
+        Delivery(Event event, List<RegisteredListener<?>> listeners) {
+            this.event = event;
+            this.listeners = listeners;
+        }
+
+    }
+
+}
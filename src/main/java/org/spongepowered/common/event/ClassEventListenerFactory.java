@@ -144,7 +144,7 @@ private static byte[] generateClass(String name, Class<?> handle, Method method,
 
         cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_HANDLER, null);
         {
-            fv = cw.visitField(ACC_PRIVATE + ACC_STATIC, "FILTER", "L" + filterName + ";", null, null);
+            fv = cw.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, "FILTER", "L" + filterName + ";", null, null);
             fv.visitEnd();
         }
         {
@@ -352,7 +352,10 @@ public static Location<World> findFirstMatchingBlock(Entity entity, AxisAlignedB
     }
 
     public static Cause generateCauseFor(DamageSource damageSource) {
-        if (damageSource instanceof EntityDamageSourceIndirect) {
+        if (!SpongeImpl.hasListeners(DamageEntityEvent.class)) {
+            // Nobody will inspect the cause, skip resolving owners and notifiers
+            return Cause.of(NamedCause.source(damageSource));
+        } else if (damageSource instanceof EntityDamageSourceIndirect) {
             net.minecraft.entity.Entity source = damageSource.getEntity();
             Optional<User> owner = source == null ? Optional.empty() : ((IMixinEntity) source).getTrackedPlayer(NbtDataUtil.SPONGE_ENTITY_CREATOR);
             if (owner.isPresent()) {
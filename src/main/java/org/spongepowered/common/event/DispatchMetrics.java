@@ -0,0 +1,154 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how often and for how long something was invoked during event
+ * dispatch. Used for both single listeners and whole event types.
+ *
+ * <p>Latencies are additionally recorded into a histogram of power-of-two
+ * microsecond buckets, where bucket {@code i} counts invocations which took
+ * less than {@code 2^i} microseconds (and at least {@code 2^(i-1)}).</p>
+ */
+public final class DispatchMetrics {
+
+    public static final int BUCKETS = 18;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder slowInvocations = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    public DispatchMetrics() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.histogram[i] = new LongAdder();
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000));
+    }
+
+    /**
+     * Records a single invocation.
+     *
+     * @param nanos The duration of the invocation in nanoseconds
+     */
+    public void record(long nanos) {
+        this.invocations.increment();
+        this.totalNanos.add(nanos);
+        this.histogram[bucketOf(nanos)].increment();
+
+        long max;
+        while (nanos > (max = this.maxNanos.get())) {
+            if (this.maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Records that an invocation exceeded its budget.
+     *
+     * @return The number of slow invocations including this one
+     */
+    public long recordSlow() {
+        this.slowInvocations.increment();
+        return this.slowInvocations.sum();
+    }
+
+    public long getInvocations() {
+        return this.invocations.sum();
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    public long getSlowInvocations() {
+        return this.slowInvocations.sum();
+    }
+
+    public double getAverageNanos() {
+        long invocations = getInvocations();
+        return invocations == 0 ? 0 : (double) getTotalNanos() / invocations;
+    }
+
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.histogram[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Gets an upper bound of the given percentile of the recorded latencies,
+     * as limited by the resolution of the histogram.
+     *
+     * @param percentile The percentile, between 0 and 1
+     * @return The upper bound in microseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= threshold) {
+                return 1L << i;
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMicros(getMaxNanos());
+    }
+
+    public void reset() {
+        this.invocations.reset();
+        this.totalNanos.reset();
+        this.maxNanos.set(0);
+        this.slowInvocations.reset();
+        for (LongAdder bucket : this.histogram) {
+            bucket.reset();
+        }
+    }
+
+}
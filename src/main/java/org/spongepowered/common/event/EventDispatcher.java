@@ -0,0 +1,64 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.SpongeImpl;
+
+/**
+ * The base class of the dispatchers generated by
+ * {@link EventDispatcherFactory}, each of which calls every listener of one
+ * baked {@link RegisteredListener.Cache} in order from its own call site.
+ */
+public abstract class EventDispatcher {
+
+    private final RegisteredListener<?>[] listeners;
+
+    protected EventDispatcher(RegisteredListener<?>[] listeners) {
+        this.listeners = checkNotNull(listeners, "listeners");
+    }
+
+    /**
+     * Passes the event to all listeners of this dispatcher.
+     *
+     * @param event The event
+     * @param recordMetrics Whether the listener metrics should be recorded
+     * @param budgetNanos The slow listener budget, 0 if disabled
+     */
+    protected abstract void dispatch(Event event, boolean recordMetrics, long budgetNanos);
+
+    protected final long record(Event event, int index, long start, long budgetNanos) {
+        long now = System.nanoTime();
+        SpongeEventManager.recordListener(event, this.listeners[index], now - start, budgetNanos);
+        return now;
+    }
+
+    protected final void handleException(Event event, int index, Throwable e) {
+        SpongeImpl.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), this.listeners[index].getPlugin(), e);
+    }
+
+}
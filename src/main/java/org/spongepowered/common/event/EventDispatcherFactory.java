@@ -0,0 +1,245 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.IFEQ;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates an {@link EventDispatcher} for a list of baked listeners.
+ *
+ * <p>The generated dispatcher stores each listener in a field typed with
+ * the exact class of the listener whenever that class is visible to the
+ * generated class, and invokes it from a dedicated call site. Every call
+ * site therefore only ever sees a single receiver type, which allows the
+ * JIT to inline the whole chain of listeners, including the generated
+ * filters of annotated listeners.</p>
+ *
+ * <p>Every dispatcher is defined in its own class loader so it can be
+ * unloaded again once its handler cache is re-baked.</p>
+ */
+public final class EventDispatcherFactory {
+
+    private static final String BASE_DISPATCHER = Type.getInternalName(EventDispatcher.class);
+    private static final String LISTENER_DESCRIPTOR = Type.getDescriptor(RegisteredListener.class);
+    private static final String EVENT_LISTENER = Type.getInternalName(EventListener.class);
+    private static final String HANDLE_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + ")V";
+    private static final String CONSTRUCTOR_DESCRIPTOR = "([" + LISTENER_DESCRIPTOR + ")V";
+    private static final String DISPATCH_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + "ZJ)V";
+    private static final String RECORD_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + "IJJ)J";
+    private static final String EXCEPTION_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + "ILjava/lang/Throwable;)V";
+
+    // Local variable indices of the generated dispatch method
+    private static final int LOCAL_EVENT = 1;
+    private static final int LOCAL_RECORD_METRICS = 2;
+    private static final int LOCAL_BUDGET = 3;
+    private static final int LOCAL_START = 5;
+    private static final int LOCAL_EXCEPTION = 7;
+
+    private final AtomicInteger id = new AtomicInteger();
+    private final ClassLoader parentLoader;
+    private final String targetPackage;
+
+    public EventDispatcherFactory(String targetPackage, ClassLoader parentLoader) {
+        checkNotNull(targetPackage, "targetPackage");
+        checkArgument(!targetPackage.isEmpty(), "targetPackage cannot be empty");
+        this.targetPackage = targetPackage + '.';
+        this.parentLoader = checkNotNull(parentLoader, "parentLoader");
+    }
+
+    public EventDispatcher create(Class<?> eventClass, List<RegisteredListener<?>> listeners) throws Exception {
+        RegisteredListener<?>[] array = listeners.toArray(new RegisteredListener<?>[listeners.size()]);
+        DefineableClassLoader classLoader = new DefineableClassLoader(this.parentLoader);
+
+        Class<?>[] listenerTypes = new Class<?>[array.length];
+        for (int i = 0; i < array.length; i++) {
+            listenerTypes[i] = getVisibleType(array[i].getListener().getClass(), classLoader);
+        }
+
+        String name = this.targetPackage + eventClass.getSimpleName() + "Dispatcher_" + this.id.incrementAndGet();
+        Class<? extends EventDispatcher> dispatcherClass = classLoader.defineClass(name, generateClass(name, listenerTypes));
+        return dispatcherClass.getConstructor(RegisteredListener[].class).newInstance((Object) array);
+    }
+
+    /**
+     * Gets the most specific type of a listener the generated class is able
+     * to reference, falling back to {@link EventListener}.
+     */
+    private static Class<?> getVisibleType(Class<?> type, ClassLoader classLoader) {
+        if (Modifier.isPublic(type.getModifiers()) && !type.isAnonymousClass() && !type.isLocalClass() && !type.isSynthetic()) {
+            try {
+                if (Class.forName(type.getName(), false, classLoader) == type) {
+                    return type;
+                }
+            } catch (ClassNotFoundException | LinkageError ignored) {
+                // Not visible from the dispatcher, use the interface instead
+            }
+        }
+        return EventListener.class;
+    }
+
+    private static byte[] generateClass(String name, Class<?>[] listenerTypes) {
+        name = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Only the caught exceptions are merged, which are never read afterwards
+                return "java/lang/Object";
+            }
+        };
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_DISPATCHER, null);
+
+        for (int i = 0; i < listenerTypes.length; i++) {
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "listener" + i, Type.getDescriptor(listenerTypes[i]), null, null).visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DISPATCHER, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+            for (int i = 0; i < listenerTypes.length; i++) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(RegisteredListener.class), "getListener",
+                        "()" + Type.getDescriptor(EventListener.class), false);
+                if (listenerTypes[i] != EventListener.class) {
+                    mv.visitTypeInsn(CHECKCAST, Type.getInternalName(listenerTypes[i]));
+                }
+                mv.visitFieldInsn(PUTFIELD, name, "listener" + i, Type.getDescriptor(listenerTypes[i]));
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PROTECTED, "dispatch", DISPATCH_METHOD_DESCRIPTOR, null, null);
+            mv.visitCode();
+
+            // long start = recordMetrics ? System.nanoTime() : 0;
+            Label body = new Label();
+            mv.visitInsn(LCONST_0);
+            mv.visitVarInsn(LSTORE, LOCAL_START);
+            mv.visitVarInsn(ILOAD, LOCAL_RECORD_METRICS);
+            mv.visitJumpInsn(IFEQ, body);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+            mv.visitVarInsn(LSTORE, LOCAL_START);
+            mv.visitLabel(body);
+
+            for (int i = 0; i < listenerTypes.length; i++) {
+                Label tryStart = new Label();
+                Label tryEnd = new Label();
+                Label handler = new Label();
+                Label afterCall = new Label();
+                Label next = new Label();
+                mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/Throwable");
+
+                // try { this.listenerN.handle(event); }
+                mv.visitLabel(tryStart);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, "listener" + i, Type.getDescriptor(listenerTypes[i]));
+                mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+                if (listenerTypes[i] == EventListener.class) {
+                    mv.visitMethodInsn(INVOKEINTERFACE, EVENT_LISTENER, "handle", HANDLE_METHOD_DESCRIPTOR, true);
+                } else {
+                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(listenerTypes[i]), "handle", HANDLE_METHOD_DESCRIPTOR, false);
+                }
+                mv.visitLabel(tryEnd);
+                mv.visitJumpInsn(GOTO, afterCall);
+
+                // catch (Throwable e) { handleException(event, N, e); }
+                mv.visitLabel(handler);
+                mv.visitVarInsn(ASTORE, LOCAL_EXCEPTION);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(ALOAD, LOCAL_EXCEPTION);
+                mv.visitMethodInsn(INVOKEVIRTUAL, name, "handleException", EXCEPTION_METHOD_DESCRIPTOR, false);
+
+                // if (recordMetrics) { start = record(event, N, start, budgetNanos); }
+                mv.visitLabel(afterCall);
+                mv.visitVarInsn(ILOAD, LOCAL_RECORD_METRICS);
+                mv.visitJumpInsn(IFEQ, next);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, LOCAL_EVENT);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(LLOAD, LOCAL_START);
+                mv.visitVarInsn(LLOAD, LOCAL_BUDGET);
+                mv.visitMethodInsn(INVOKEVIRTUAL, name, "record", RECORD_METHOD_DESCRIPTOR, false);
+                mv.visitVarInsn(LSTORE, LOCAL_START);
+                mv.visitLabel(next);
+            }
+
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+}
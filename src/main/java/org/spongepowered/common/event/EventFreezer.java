@@ -0,0 +1,246 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.spongepowered.api.data.DataSerializable;
+import org.spongepowered.api.data.Transaction;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.SpongeImpl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Creates read-only copies of events for {@link AsyncListener asynchronous
+ * listeners}, so they don't observe the posting thread changing the event
+ * after it was queued.
+ *
+ * <p>A frozen event implements the event types the listeners it is passed
+ * to are registered for. The values of the getters ({@code get*} and
+ * {@code is*} methods without parameters) of those types are read once when
+ * the event is frozen. Lists, sets and maps are copied into unmodifiable
+ * collections and transactions are copied, so neither side sees changes
+ * made by the other. Any other method, such as a setter or a filter, throws
+ * an {@link UnsupportedOperationException}.</p>
+ */
+final class EventFreezer {
+
+    private EventFreezer() {
+    }
+
+    /**
+     * Creates a frozen copy of the given event.
+     *
+     * @param event The event to freeze
+     * @param shape The shape of the copy, created for the class of the event
+     * @return The frozen copy, or {@link Optional#empty()} if the event can't
+     *     be frozen
+     */
+    static Optional<Event> freeze(Event event, Shape shape) {
+        if (shape.failed) {
+            return Optional.empty();
+        }
+        final Method[] getters = shape.getters;
+        final Map<String, Object> values = Maps.newHashMapWithExpectedSize(getters.length);
+        try {
+            for (Method getter : getters) {
+                values.put(getter.getName(), freezeValue(getter.invoke(event)));
+            }
+            return Optional.of((Event) shape.constructor.newInstance(new FrozenHandler(event.getClass(), values)));
+        } catch (Exception e) {
+            SpongeImpl.getLogger().warn("Could not freeze {} for asynchronous listeners, it will be dropped", event.getClass().getSimpleName(), e);
+            shape.failed = true;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the class of the event a frozen event was created from.
+     *
+     * @param event The event
+     * @return The class of the original event
+     */
+    static Class<?> getEventType(Event event) {
+        if (Proxy.isProxyClass(event.getClass()) && Proxy.getInvocationHandler(event) instanceof FrozenHandler) {
+            return ((FrozenHandler) Proxy.getInvocationHandler(event)).eventType;
+        }
+        return event.getClass();
+    }
+
+    /**
+     * Creates the shape of the frozen copies of an event class, which
+     * implement the event types the given listeners are registered for and
+     * only copy the properties of those types.
+     *
+     * @param eventType The event class
+     * @param listeners The asynchronous listeners of the event class
+     * @return The shape, or {@link Optional#empty()} if the events can't be
+     *     frozen
+     */
+    static Optional<Shape> createShape(Class<?> eventType, List<RegisteredListener<?>> listeners) {
+        final Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (RegisteredListener<?> listener : listeners) {
+            if (listener.getEventClass().isInterface()) {
+                interfaces.add(listener.getEventClass());
+            } else {
+                // Listening to a class, copy everything the event implements
+                collectInterfaces(eventType, interfaces);
+            }
+        }
+        final Map<String, Method> getters = Maps.newLinkedHashMap();
+        for (Class<?> type : interfaces) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                // Can't be implemented by a proxy from another package
+                SpongeImpl.getLogger().warn("{} can't be passed to asynchronous listeners, it implements the non-public {}",
+                        eventType.getSimpleName(), type.getName());
+                return Optional.empty();
+            }
+            for (Method method : type.getMethods()) {
+                if (isGetter(method)) {
+                    getters.putIfAbsent(method.getName(), method);
+                }
+            }
+        }
+        try {
+            final Class<?> proxyClass = Proxy.getProxyClass(eventType.getClassLoader(), interfaces.toArray(new Class<?>[interfaces.size()]));
+            return Optional.of(new Shape(proxyClass.getConstructor(InvocationHandler.class), getters.values()));
+        } catch (Exception e) {
+            SpongeImpl.getLogger().warn("Could not create a read-only view of {}, it won't be passed to asynchronous listeners",
+                    eventType.getSimpleName(), e);
+            return Optional.empty();
+        }
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> implemented : current.getInterfaces()) {
+                interfaces.add(implemented);
+            }
+        }
+    }
+
+    private static boolean isGetter(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return false;
+        }
+        final String name = method.getName();
+        return name.startsWith("get") && !name.equals("getClass") || name.startsWith("is") && method.getReturnType() == boolean.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Nullable
+    private static Object freezeValue(@Nullable Object value) {
+        if (value instanceof Transaction) {
+            return copyTransaction((Transaction) value);
+        } else if (value instanceof List) {
+            final List<Object> list = Lists.newArrayListWithCapacity(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                list.add(freezeValue(element));
+            }
+            return Collections.unmodifiableList(list);
+        } else if (value instanceof Set) {
+            final Set<Object> set = Sets.newLinkedHashSet();
+            for (Object element : (Set<?>) value) {
+                set.add(freezeValue(element));
+            }
+            return Collections.unmodifiableSet(set);
+        } else if (value instanceof Map && !(value instanceof ImmutableMap)) {
+            return Collections.unmodifiableMap(Maps.newLinkedHashMap((Map<?, ?>) value));
+        } else if (value instanceof Optional && ((Optional<?>) value).isPresent()) {
+            return Optional.of(freezeValue(((Optional<?>) value).get()));
+        }
+        return value;
+    }
+
+    private static <T extends DataSerializable> Transaction<T> copyTransaction(Transaction<T> transaction) {
+        final Transaction<T> copy = new Transaction<>(transaction.getOriginal(), transaction.getDefault());
+        if (transaction.getCustom().isPresent()) {
+            copy.setCustom(transaction.getCustom().get());
+        }
+        copy.setValid(transaction.isValid());
+        return copy;
+    }
+
+    static final class Shape {
+
+        final Constructor<?> constructor;
+        final Method[] getters;
+        // Set once a getter threw, the following events are dropped
+        volatile boolean failed;
+
+        Shape(Constructor<?> constructor, Collection<Method> getters) {
+            this.constructor = constructor;
+            this.getters = getters.toArray(new Method[getters.size()]);
+        }
+
+    }
+
+    private static final class FrozenHandler implements InvocationHandler {
+
+        final Class<?> eventType;
+        private final Map<String, Object> values;
+
+        FrozenHandler(Class<?> eventType, Map<String, Object> values) {
+            this.eventType = eventType;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Frozen" + this.eventType.getSimpleName() + this.values;
+                }
+            }
+            if (method.getParameterCount() == 0 && this.values.containsKey(method.getName())) {
+                return this.values.get(method.getName());
+            }
+            throw new UnsupportedOperationException(method.getName() + " is not supported by events passed to asynchronous listeners");
+        }
+
+    }
+
+}
@@ -26,7 +26,7 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
@@ -36,6 +36,9 @@
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
 
 public final class RegisteredListener<T extends Event> implements SpongeEventListener<T>, Comparable<RegisteredListener<?>> {
 
@@ -47,13 +50,20 @@
     private final EventListener<? super T> listener;
 
     private final boolean beforeModifications;
+    private final boolean async;
+    private final boolean ignoreCancelled;
+
+    private final DispatchMetrics metrics = new DispatchMetrics();
 
-    RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean beforeModifications) {
+    RegisteredListener(PluginContainer plugin, Class<T> eventClass, Order order, EventListener<? super T> listener, boolean beforeModifications,
+            boolean async, boolean ignoreCancelled) {
         this.plugin = checkNotNull(plugin, "plugin");
         this.eventClass = checkNotNull(eventClass, "eventClass");
         this.order = checkNotNull(order, "order");
         this.listener = checkNotNull(listener, "listener");
         this.beforeModifications = beforeModifications;
+        this.async = async;
+        this.ignoreCancelled = ignoreCancelled;
     }
 
     public PluginContainer getPlugin() {
@@ -72,6 +82,36 @@ public boolean isBeforeModifications() {
         return this.beforeModifications;
     }
 
+    /**
+     * Gets whether this listener only observes events, and is called on a
+     * worker thread after the event was posted.
+     *
+     * @return Whether this listener is asynchronous
+     * @see AsyncListener
+     */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    /**
+     * Gets whether this asynchronous listener skips events which were
+     * cancelled by a synchronous listener.
+     *
+     * @return Whether cancelled events are skipped
+     * @see AsyncListener#ignoreCancelled()
+     */
+    public boolean isIgnoreCancelled() {
+        return this.ignoreCancelled;
+    }
+
+    public EventListener<? super T> getListener() {
+        return this.listener;
+    }
+
+    public DispatchMetrics getMetrics() {
+        return this.metrics;
+    }
+
     @Override
     public Object getHandle() {
         if (this.listener instanceof SpongeEventListener) {
@@ -94,30 +134,103 @@ public int compareTo(RegisteredListener<?> handler) {
     public static final class Cache {
 
         private final List<RegisteredListener<?>> listeners;
+        private final List<RegisteredListener<?>> asyncListeners;
+        private final List<RegisteredListener<?>> cancelledAsyncListeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
+        private final DispatchMetrics metrics;
+        @Nullable private final EventDispatcher dispatcher;
+        // Created when the first event is queued for the asynchronous listeners
+        @Nullable private volatile Optional<EventFreezer.Shape> frozenShape;
 
         private static final Order[] ORDERS = Order.values();
 
-        Cache(List<RegisteredListener<?>> listeners) {
-            this.listeners = listeners;
-
-            this.listenersByOrder = Maps.newEnumMap(Order.class);
+        Cache(List<RegisteredListener<?>> listeners, List<RegisteredListener<?>> asyncListeners, DispatchMetrics metrics,
+                @Nullable EventDispatcher dispatcher) {
+            this.listeners = ImmutableList.copyOf(listeners);
+            this.asyncListeners = ImmutableList.copyOf(asyncListeners);
+            this.cancelledAsyncListeners = ImmutableList.copyOf(asyncListeners.stream()
+                    .filter(handler -> !handler.isIgnoreCancelled())
+                    .iterator());
+            this.metrics = checkNotNull(metrics, "metrics");
+            this.dispatcher = dispatcher;
+
+            EnumMap<Order, ImmutableList.Builder<RegisteredListener<?>>> builders = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
-                this.listenersByOrder.put(order, Lists.<RegisteredListener<?>>newArrayList());
+                builders.put(order, ImmutableList.builder());
             }
             for (RegisteredListener<?> handler : listeners) {
-                this.listenersByOrder.get(handler.getOrder()).add(handler);
+                builders.get(handler.getOrder()).add(handler);
+            }
+
+            this.listenersByOrder = Maps.newEnumMap(Order.class);
+            for (Order order : ORDERS) {
+                this.listenersByOrder.put(order, builders.get(order).build());
             }
         }
 
+        public boolean hasListeners() {
+            return !this.listeners.isEmpty() || !this.asyncListeners.isEmpty();
+        }
+
         public List<RegisteredListener<?>> getListeners() {
             return this.listeners;
         }
 
+        public List<RegisteredListener<?>> getAsyncListeners() {
+            return this.asyncListeners;
+        }
+
+        /**
+         * Gets the asynchronous listeners which are called for events that
+         * were cancelled by a synchronous listener.
+         *
+         * @return The asynchronous listeners of cancelled events
+         */
+        public List<RegisteredListener<?>> getCancelledAsyncListeners() {
+            return this.cancelledAsyncListeners;
+        }
+
+        /**
+         * Gets the shape of the read-only copies of the given event class
+         * passed to the asynchronous listeners of this cache, which only
+         * copy the properties of the event types they listen to.
+         *
+         * @param eventClass The event class this cache was baked for
+         * @return The shape, or {@link Optional#empty()} if the events can't
+         *     be copied
+         */
+        Optional<EventFreezer.Shape> getFrozenShape(Class<?> eventClass) {
+            Optional<EventFreezer.Shape> shape = this.frozenShape;
+            if (shape == null) {
+                this.frozenShape = shape = EventFreezer.createShape(eventClass, this.asyncListeners);
+            }
+            return shape;
+        }
+
         public List<RegisteredListener<?>> getListenersByOrder(Order order) {
             return this.listenersByOrder.get(checkNotNull(order, "order"));
         }
 
+        /**
+         * Gets the metrics of the event type this cache was baked for. These
+         * are shared by every cache baked for the same event type.
+         *
+         * @return The event type metrics
+         */
+        public DispatchMetrics getMetrics() {
+            return this.metrics;
+        }
+
+        /**
+         * Gets the generated dispatcher which calls all listeners of this
+         * cache, if one was generated.
+         *
+         * @return The dispatcher, if available
+         */
+        public Optional<EventDispatcher> getDispatcher() {
+            return Optional.ofNullable(this.dispatcher);
+        }
+
     }
 
 }
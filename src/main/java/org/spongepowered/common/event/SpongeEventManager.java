@@ -27,12 +27,13 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import org.spongepowered.api.event.Cancellable;
 import org.spongepowered.api.event.Event;
@@ -43,6 +44,7 @@
 import org.spongepowered.api.plugin.PluginManager;
 import org.spongepowered.api.event.EventManager;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.event.filter.FilterFactory;
 import org.spongepowered.common.event.gen.DefineableClassLoader;
 
@@ -51,57 +53,141 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 @Singleton
 public class SpongeEventManager implements EventManager {
 
+    /**
+     * The event settings of the global config, which are read on every post.
+     * <p>Updated whenever the global config is reloaded or changed.</p>
+     */
+    private volatile boolean recordListenerMetrics = true;
+    private volatile long slowListenerBudgetNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
     private final Object lock = new Object();
 
     private final PluginManager pluginManager;
     private final DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
     private final AnnotatedEventListener.Factory handlerFactory = new ClassEventListenerFactory("org.spongepowered.common.event.listener",
             new FilterFactory("org.spongepowered.common.event.filters", classLoader), classLoader);
+    private final EventDispatcherFactory dispatcherFactory = new EventDispatcherFactory("org.spongepowered.common.event.dispatchers", classLoader);
+    private final AsyncEventQueue asyncQueue = new AsyncEventQueue();
+
+    /**
+     * All registered handlers by the event class they were registered for.
+     * <p>Only accessed while holding {@link #lock}.</p>
+     */
     private final Multimap<Class<?>, RegisteredListener<?>> handlersByEvent = HashMultimap.create();
 
+    /**
+     * The event types (the class itself and all of its supertypes which are
+     * events) of each event class, computed once per class.
+     */
+    private final Map<Class<?>, Set<Class<?>>> eventTypes = new ConcurrentHashMap<>();
+
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or
-     * removed.</p>
+     * <p>The baked caches are immutable and may be read without locking.
+     * When handlers are added or removed, only the caches of the event types
+     * affected by the change are re-baked and replaced.</p>
      */
-    private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
-            CacheBuilder.newBuilder().build(new CacheLoader<Class<? extends Event>, RegisteredListener.Cache>() {
-                @Override
-                public RegisteredListener.Cache load(Class<? extends Event> eventClass) throws Exception {
-                    return bakeHandlers(eventClass);
-                }
-            });
+    private final Map<Class<? extends Event>, RegisteredListener.Cache> handlersCache = new ConcurrentHashMap<>();
+
+    /**
+     * The dispatch metrics of each event type a handler cache was baked for,
+     * including types without listeners, whose metrics stay empty. These
+     * survive re-baking the handler caches.
+     */
+    private final Map<Class<?>, DispatchMetrics> eventMetrics = new ConcurrentHashMap<>();
 
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
+        SpongeImpl.getGlobalConfig().addLoadListener(config -> updateConfig(config.getEvents()));
     }
 
-    private RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
-        List<RegisteredListener<?>> handlers = Lists.newArrayList();
-        @SuppressWarnings({"unchecked", "rawtypes"})
-        Set<Class<?>> types = (Set) TypeToken.of(rootEvent).getTypes().rawTypes();
-
-        synchronized (this.lock) {
-            for (Class<?> type : types) {
+    private Set<Class<?>> getEventTypes(Class<?> eventClass) {
+        return this.eventTypes.computeIfAbsent(eventClass, clazz -> {
+            ImmutableSet.Builder<Class<?>> builder = ImmutableSet.builder();
+            for (Class<?> type : TypeToken.of(clazz).getTypes().rawTypes()) {
                 if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
+                    builder.add(type);
                 }
             }
+            return builder.build();
+        });
+    }
+
+    private RegisteredListener.Cache bakeHandlers(Class<?> rootEvent) {
+        List<RegisteredListener<?>> handlers = Lists.newArrayList();
+        for (Class<?> type : getEventTypes(rootEvent)) {
+            handlers.addAll(this.handlersByEvent.get(type));
         }
 
         Collections.sort(handlers);
-        return new RegisteredListener.Cache(handlers);
+
+        List<RegisteredListener<?>> asyncHandlers = Lists.newArrayList();
+        Iterator<RegisteredListener<?>> itr = handlers.iterator();
+        while (itr.hasNext()) {
+            RegisteredListener<?> handler = itr.next();
+            if (handler.isAsync()) {
+                asyncHandlers.add(handler);
+                itr.remove();
+            }
+        }
+
+        EventDispatcher dispatcher = null;
+        if (!handlers.isEmpty() && useGeneratedDispatchers()) {
+            try {
+                dispatcher = this.dispatcherFactory.create(rootEvent, handlers);
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Failed to generate event dispatcher for {}", rootEvent.getName(), e);
+            }
+        }
+
+        return new RegisteredListener.Cache(handlers, asyncHandlers, this.eventMetrics.computeIfAbsent(rootEvent, type -> new DispatchMetrics()),
+                dispatcher);
+    }
+
+    /**
+     * Gets whether a dispatcher class should be generated for newly baked
+     * handler caches.
+     *
+     * @return Whether to generate dispatchers
+     */
+    protected boolean useGeneratedDispatchers() {
+        return SpongeImpl.getGlobalConfig().getConfig().getEvents().useGeneratedDispatchers();
+    }
+
+    /**
+     * Re-bakes the caches of all event classes which are a subtype of one of
+     * the given changed types. Must be called while holding {@link #lock}.
+     *
+     * @param changedTypes The event types whose handlers have changed
+     */
+    private void rebakeHandlers(Set<Class<?>> changedTypes) {
+        if (changedTypes.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<Class<? extends Event>, RegisteredListener.Cache> entry : this.handlersCache.entrySet()) {
+            for (Class<?> type : changedTypes) {
+                if (type.isAssignableFrom(entry.getKey())) {
+                    entry.setValue(bakeHandlers(entry.getKey()));
+                    break;
+                }
+            }
+        }
     }
 
     private static boolean isValidHandler(Method method) {
@@ -122,17 +208,15 @@ private void register(RegisteredListener<?> handler) {
 
     private void register(List<RegisteredListener<?>> handlers) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changed = Sets.newHashSet();
 
             for (RegisteredListener<?> handler : handlers) {
                 if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+                    changed.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
-            }
+            rebakeHandlers(changed);
         }
     }
 
@@ -157,7 +241,7 @@ public void registerListener(PluginContainer plugin, Object listenerObject) {
                         continue;
                     }
 
-                    handlers.add(createRegistration(plugin, eventClass, listener, handler));
+                    handlers.add(createRegistration(plugin, eventClass, listener, method.getAnnotation(AsyncListener.class), handler));
                 } else {
                     SpongeImpl.getLogger().warn("The method {} on {} has @{} but has the wrong signature", method, handle.getName(),
                             Listener.class.getName());
@@ -169,13 +253,14 @@ public void registerListener(PluginContainer plugin, Object listenerObject) {
     }
 
     private static <T extends Event> RegisteredListener<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Listener listener,
-            EventListener<? super T> handler) {
-        return createRegistration(plugin, eventClass, listener.order(), listener.beforeModifications(), handler);
+            @Nullable AsyncListener async, EventListener<? super T> handler) {
+        return createRegistration(plugin, eventClass, listener.order(), listener.beforeModifications(), async != null,
+                async != null && async.ignoreCancelled(), handler);
     }
 
     private static <T extends Event> RegisteredListener<T> createRegistration(PluginContainer plugin, Class<T> eventClass, Order order,
-            boolean beforeModifications, EventListener<? super T> handler) {
-        return new RegisteredListener<>(plugin, eventClass, order, handler, beforeModifications);
+            boolean beforeModifications, boolean async, boolean ignoreCancelled, EventListener<? super T> handler) {
+        return new RegisteredListener<>(plugin, eventClass, order, handler, beforeModifications, async, ignoreCancelled);
     }
 
     private PluginContainer getPlugin(Object plugin) {
@@ -196,31 +281,65 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
 
     @Override
     public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, Order order, EventListener<? super T> handler) {
-        register(createRegistration(getPlugin(plugin), eventClass, order, false, handler));
+        register(createRegistration(getPlugin(plugin), eventClass, order, false, false, false, handler));
     }
 
     @Override
     public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, Order order, boolean beforeModifications,
             EventListener<? super T> handler) {
-        register(createRegistration(getPlugin(plugin), eventClass, order, beforeModifications, handler));
+        register(createRegistration(getPlugin(plugin), eventClass, order, beforeModifications, false, false, handler));
+    }
+
+    /**
+     * Registers an observe-only listener which is called on a worker thread
+     * with the events of each tick, after all synchronous listeners. Events
+     * cancelled by a synchronous listener are skipped.
+     *
+     * @param plugin The plugin instance
+     * @param eventClass The event class to listen to
+     * @param handler The listener
+     * @param <T> The type of the event
+     * @see AsyncListener
+     */
+    public <T extends Event> void registerAsyncListener(Object plugin, Class<T> eventClass, EventListener<? super T> handler) {
+        registerAsyncListener(plugin, eventClass, true, handler);
+    }
+
+    /**
+     * Registers an observe-only listener which is called on a worker thread
+     * with the events of each tick, after all synchronous listeners.
+     *
+     * @param plugin The plugin instance
+     * @param eventClass The event class to listen to
+     * @param ignoreCancelled Whether to skip events cancelled by a
+     *     synchronous listener
+     * @param handler The listener
+     * @param <T> The type of the event
+     * @see AsyncListener
+     */
+    public <T extends Event> void registerAsyncListener(Object plugin, Class<T> eventClass, boolean ignoreCancelled,
+            EventListener<? super T> handler) {
+        register(createRegistration(getPlugin(plugin), eventClass, Order.POST, false, true, ignoreCancelled, handler));
+    }
+
+    public AsyncEventQueue getAsyncQueue() {
+        return this.asyncQueue;
     }
 
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
         synchronized (this.lock) {
-            boolean changed = false;
+            Set<Class<?>> changed = Sets.newHashSet();
 
             Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
             while (itr.hasNext()) {
                 RegisteredListener<?> handler = itr.next();
                 if (unregister.test(handler)) {
                     itr.remove();
-                    changed = true;
+                    changed.add(handler.getEventClass());
                 }
             }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
-            }
+            rebakeHandlers(changed);
         }
     }
 
@@ -236,26 +355,134 @@ public void unregisterPluginListeners(Object pluginObj) {
         unregister(handler -> plugin.equals(handler.getPlugin()));
     }
 
+    /**
+     * Gets whether any listeners would be called for events of the given
+     * class, including listeners registered for any of its supertypes.
+     *
+     * <p>This is backed by the baked handler cache and is cheap enough to be
+     * used on hot paths to avoid constructing events nobody listens to.</p>
+     *
+     * @param eventClass The event class
+     * @return Whether any listeners are registered
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        return getHandlerCache(checkNotNull(eventClass, "eventClass")).hasListeners();
+    }
+
     protected RegisteredListener.Cache getHandlerCache(Event event) {
-        return this.handlersCache.getUnchecked(checkNotNull(event, "event").getClass());
+        return getHandlerCache(checkNotNull(event, "event").getClass());
+    }
+
+    protected RegisteredListener.Cache getHandlerCache(Class<? extends Event> eventClass) {
+        RegisteredListener.Cache cache = this.handlersCache.get(eventClass);
+        if (cache == null) {
+            // Bake while holding the lock so a concurrent registration can't
+            // be missed between baking and publishing the cache
+            synchronized (this.lock) {
+                cache = this.handlersCache.computeIfAbsent(eventClass, this::bakeHandlers);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets a snapshot of all currently registered listeners.
+     *
+     * @return The registered listeners
+     */
+    public List<RegisteredListener<?>> getRegisteredListeners() {
+        synchronized (this.lock) {
+            return ImmutableList.copyOf(this.handlersByEvent.values());
+        }
+    }
+
+    /**
+     * Gets a snapshot of the dispatch metrics of every event type which has
+     * been posted since the server started.
+     *
+     * @return The metrics by event type
+     */
+    public Map<Class<?>, DispatchMetrics> getEventMetrics() {
+        return ImmutableMap.copyOf(this.eventMetrics);
+    }
+
+    public void resetMetrics() {
+        for (DispatchMetrics metrics : this.eventMetrics.values()) {
+            metrics.reset();
+        }
+        for (RegisteredListener<?> handler : getRegisteredListeners()) {
+            handler.getMetrics().reset();
+        }
+    }
+
+    static void recordListener(Event event, RegisteredListener<?> handler, long nanos, long budgetNanos) {
+        handler.getMetrics().record(nanos);
+        if (budgetNanos > 0 && nanos > budgetNanos) {
+            long slowCalls = handler.getMetrics().recordSlow();
+            // Only log the 1st, 2nd, 4th, 8th... slow call to avoid flooding the log
+            if ((slowCalls & (slowCalls - 1)) == 0) {
+                SpongeImpl.getLogger().warn("Listener {} of {} took {}us to handle {}, exceeding the budget of {}us ({} slow calls so far)",
+                        handler.getHandle().getClass().getName(), handler.getPlugin().getId(), TimeUnit.NANOSECONDS.toMicros(nanos),
+                        event.getClass().getSimpleName(), TimeUnit.NANOSECONDS.toMicros(budgetNanos), slowCalls);
+            }
+        }
+    }
+
+    private void updateConfig(SpongeConfig.EventsCategory config) {
+        this.recordListenerMetrics = config.isListenerMetricsEnabled();
+        this.slowListenerBudgetNanos = TimeUnit.MICROSECONDS.toNanos(config.getSlowListenerBudget());
+        this.asyncQueue.updateConfig(config);
+    }
+
+    protected boolean post(Event event, List<RegisteredListener<?>> handlers) {
+        return post(event, handlers, null, null);
     }
 
     @SuppressWarnings("unchecked")
-    protected static boolean post(Event event, List<RegisteredListener<?>> handlers) {
-        for (@SuppressWarnings("rawtypes") RegisteredListener handler : handlers) {
-            try {
-                handler.handle(event);
-            } catch (Throwable e) {
-                SpongeImpl.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+    protected boolean post(Event event, List<RegisteredListener<?>> handlers, @Nullable DispatchMetrics eventMetrics,
+            @Nullable EventDispatcher dispatcher) {
+        if (handlers.isEmpty()) {
+            return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+        }
+
+        boolean recordMetrics = this.recordListenerMetrics;
+        long budgetNanos = this.slowListenerBudgetNanos;
+
+        long postStart = recordMetrics ? System.nanoTime() : 0;
+        if (dispatcher != null) {
+            dispatcher.dispatch(event, recordMetrics, budgetNanos);
+        } else {
+            long last = postStart;
+            for (@SuppressWarnings("rawtypes") RegisteredListener handler : handlers) {
+                try {
+                    handler.handle(event);
+                } catch (Throwable e) {
+                    SpongeImpl.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), handler.getPlugin(), e);
+                }
+
+                if (recordMetrics) {
+                    long now = System.nanoTime();
+                    recordListener(event, handler, now - last, budgetNanos);
+                    last = now;
+                }
             }
         }
 
+        if (recordMetrics && eventMetrics != null) {
+            eventMetrics.record(System.nanoTime() - postStart);
+        }
+
         return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getListeners());
+        RegisteredListener.Cache cache = getHandlerCache(event);
+        boolean cancelled = post(event, cache.getListeners(), cache.getMetrics(), cache.getDispatcher().orElse(null));
+        if (!cache.getAsyncListeners().isEmpty()) {
+            this.asyncQueue.enqueue(event, cancelled, cache);
+        }
+        return cancelled;
     }
 
     public boolean post(Event event, Order order) {
@@ -30,18 +30,19 @@
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.common.entity.EntityCounts;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 
-import java.util.Map;
 import java.util.Optional;
 
 public interface IMixinChunk {
 
     Cause getCurrentPopulateCause();
 
-    Map<Short, PlayerTracker> getTrackedShortPlayerPositions();
+    PlayerTrackerMap getTrackedShortPlayerPositions();
 
-    Map<Integer, PlayerTracker> getTrackedIntPlayerPositions();
+    PlayerTrackerMap getTrackedIntPlayerPositions();
 
     Optional<User> getBlockOwner(BlockPos pos);
 
@@ -51,8 +52,10 @@ public interface IMixinChunk {
 
     void addTrackedBlockPosition(Block block, BlockPos pos, User user, PlayerTracker.Type trackerType);
 
-    void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPlayerPositions);
+    void setTrackedIntPlayerPositions(PlayerTrackerMap trackedPlayerPositions);
 
-    void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPlayerPositions);
+    void setTrackedShortPlayerPositions(PlayerTrackerMap trackedPlayerPositions);
+
+    EntityCounts getEntityCounts();
 
 }
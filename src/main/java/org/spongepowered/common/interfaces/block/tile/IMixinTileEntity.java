@@ -65,4 +65,15 @@ public interface IMixinTileEntity {
      * @param dataView The data view to set all data api related data
      */
     void sendDataToContainer(DataView dataView);
+
+    /**
+     * Gets for how many ticks this tile entity has nothing to do, checked
+     * right after it ticked. An idle tile entity is put to sleep for that
+     * long, unless a neighbour or its inventory changes first.
+     *
+     * @return The number of ticks to sleep for, or 0 to keep ticking
+     */
+    default int getIdleTicks() {
+        return 0;
+    }
 }
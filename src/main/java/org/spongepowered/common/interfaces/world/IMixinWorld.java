@@ -36,7 +36,9 @@
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.world.gen.PopulatorType;
 import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.entity.EntityCounts;
 import org.spongepowered.common.world.CaptureType;
+import org.spongepowered.common.world.SleepingTileEntities;
 import org.spongepowered.common.world.gen.SpongeChunkProvider;
 
 import java.util.LinkedHashMap;
@@ -56,6 +58,19 @@ public interface IMixinWorld {
 
     BlockSnapshot createSpongeBlockSnapshot(IBlockState state, IBlockState extended, BlockPos pos, int updateFlag);
 
+    /**
+     * Creates a snapshot of a block which is only used as the source of a
+     * cause, such as the currently ticking block. The data of its tile
+     * entity is captured on first access instead of eagerly.
+     *
+     * @param state The block state
+     * @param extended The extended block state
+     * @param pos The block position
+     * @param updateFlag The update flag
+     * @return The snapshot
+     */
+    BlockSnapshot createSpongeSourceSnapshot(IBlockState state, IBlockState extended, BlockPos pos, int updateFlag);
+
     boolean isWorldSpawnerRunning();
 
     boolean isChunkSpawnerRunning();
@@ -96,6 +111,10 @@ public interface IMixinWorld {
 
     long getWeatherStartTime();
 
+    SleepingTileEntities getSleepingTileEntities();
+
+    EntityCounts getEntityCounts();
+
     void setWeatherStartTime(long weatherStartTime);
 
     void notifyBlockOfStateChange(BlockPos notifyPos, Block sourceBlock, BlockPos sourcePos);
@@ -29,6 +29,7 @@
 import org.spongepowered.api.world.DimensionType;
 import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.config.SpongeConfig.WorldConfig;
+import org.spongepowered.common.world.storage.PlayerUniqueIdIndex;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -43,6 +44,8 @@ public interface IMixinWorldInfo {
 
     Optional<UUID> getUniqueIdForIndex(int index);
 
+    PlayerUniqueIdIndex getPlayerUniqueIdIndex();
+
     int getDimensionId();
 
     boolean getIsMod();
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.interfaces.world.gen;
+
+/**
+ * Marks a {@link org.spongepowered.api.world.gen.BiomeGenerator} or
+ * {@link org.spongepowered.api.world.gen.GenerationPopulator} that may
+ * generate several chunks at once from different threads. Its output must
+ * only depend on the world seed and the chunk being generated.
+ *
+ * <p>Chunks are only generated off the main thread if every generator of a
+ * world has this marker, see
+ * {@link org.spongepowered.common.world.gen.SpongeChunkProvider#isThreadSafe()}.
+ * Vanilla generators keep noise arrays and structure maps in fields, so only
+ * the flat generator, the single biome generator and the End stone, mesa and
+ * swamp lily populators are marked. In practice that means only flat worlds
+ * without structures generate on several threads.</p>
+ *
+ * <p>The vanilla generators that are not marked:</p>
+ * <ul>
+ * <li>The overworld biome generator, its biome layers share the static
+ * IntCache.</li>
+ * <li>The overworld, nether and end terrain generators, they reuse their
+ * random and noise arrays for every chunk.</li>
+ * <li>Caves, ravines and structures, they share one random and the
+ * structure data is saved on the main thread.</li>
+ * </ul>
+ */
+public interface IThreadSafeGenerator {
+
+}
@@ -77,6 +77,7 @@ public abstract class MixinTileEntity implements TileEntity, IMixinTileEntity {
 
     @Shadow public abstract BlockPos getPos();
     @Shadow public abstract Block getBlockType();
+    @Shadow public abstract int getBlockMetadata();
     @Shadow public abstract void writeToNBT(NBTTagCompound compound);
     @Shadow public abstract void markDirty();
 
@@ -84,6 +85,8 @@ public abstract class MixinTileEntity implements TileEntity, IMixinTileEntity {
     public void onMarkDirty(CallbackInfo ci) {
         if (this.worldObj != null && !this.worldObj.isRemote) {
             IMixinWorld world = (IMixinWorld) this.worldObj;
+            // The inventory changed, so there may be something to do again
+            world.getSleepingTileEntities().wake(this.pos);
             // This handles transfers to this TE from a source such as a Hopper
             if (world.getCurrentTickTileEntity().isPresent() && this != world.getCurrentTickTileEntity().get()) {
                 net.minecraft.tileentity.TileEntity te = (net.minecraft.tileentity.TileEntity) world.getCurrentTickTileEntity().get();
@@ -92,6 +95,13 @@ public void onMarkDirty(CallbackInfo ci) {
         }
     }
 
+    @Inject(method = "invalidate", at = @At(value = "HEAD"))
+    public void onInvalidate(CallbackInfo ci) {
+        if (this.worldObj != null && !this.worldObj.isRemote) {
+            ((IMixinWorld) this.worldObj).getSleepingTileEntities().invalidate((net.minecraft.tileentity.TileEntity) (Object) this);
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     @Inject(method = "addMapping(Ljava/lang/Class;Ljava/lang/String;)V", at = @At(value = "RETURN"))
     private static void onRegister(Class clazz, String name, CallbackInfo callbackInfo) {
@@ -32,6 +32,7 @@
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.data.util.DataQueries;
 import org.spongepowered.common.interfaces.data.IMixinCustomNameable;
+import org.spongepowered.common.world.SleepingTileEntities;
 
 @NonnullByDefault
 @Mixin(TileEntityBrewingStand.class)
@@ -47,6 +48,15 @@ public void sendDataToContainer(DataView dataView) {
         }
     }
 
+    @Override
+    public int getIdleTicks() {
+        // Not brewing and no ingredient to start with
+        if (this.getField(0) == 0 && this.getStackInSlot(3) == null) {
+            return SleepingTileEntities.MAX_SLEEP_TICKS;
+        }
+        return 0;
+    }
+
     @Override
     public void setCustomDisplayName(String customName) {
         ((TileEntityBrewingStand) (Object) this).setName(customName);
@@ -33,6 +33,7 @@
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.common.interfaces.data.IMixinCustomNameable;
+import org.spongepowered.common.world.SleepingTileEntities;
 
 @NonnullByDefault
 @Mixin(TileEntityFurnace.class)
@@ -53,6 +54,16 @@ public DataContainer toContainer() {
         return container;
     }
 
+    @Override
+    public int getIdleTicks() {
+        // Not burning and nothing left to cool down, and there is either
+        // nothing to smelt or no fuel until the inventory changes
+        if (this.getField(0) <= 0 && this.getField(2) == 0 && (this.getStackInSlot(0) == null || this.getStackInSlot(1) == null)) {
+            return SleepingTileEntities.MAX_SLEEP_TICKS;
+        }
+        return 0;
+    }
+
     @Override
     public void setCustomDisplayName(String customName) {
         ((TileEntityFurnace) (Object) this).setCustomInventoryName(customName);
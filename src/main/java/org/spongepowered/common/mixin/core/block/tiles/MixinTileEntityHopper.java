@@ -26,6 +26,7 @@
 
 import static org.spongepowered.api.data.DataQuery.of;
 
+import net.minecraft.block.BlockHopper;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
@@ -47,6 +48,7 @@
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.data.IMixinCustomNameable;
 import org.spongepowered.common.interfaces.entity.IMixinEntity;
+import org.spongepowered.common.world.SleepingTileEntities;
 
 import java.util.List;
 import java.util.Optional;
@@ -116,6 +118,19 @@ public void supplyVanillaManipulators(List<DataManipulator<?, ?>> manipulators)
         }
     }
 
+    @Override
+    public int getIdleTicks() {
+        if (this.transferCooldown > 0) {
+            return 0;
+        }
+        // A hopper disabled by redstone is woken by the redstone change. An
+        // enabled one stays awake, since nothing notifies it of items to pull in
+        if (!BlockHopper.isEnabled(this.getBlockMetadata())) {
+            return SleepingTileEntities.MAX_SLEEP_TICKS;
+        }
+        return 0;
+    }
+
     @Override
     public void setCustomDisplayName(String customName) {
         ((TileEntityHopper) (Object) this).setCustomName(customName);
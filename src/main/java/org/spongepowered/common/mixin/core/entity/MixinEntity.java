@@ -86,6 +86,7 @@
 import org.spongepowered.common.data.util.DataUtil;
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.data.value.immutable.ImmutableSpongeValue;
+import org.spongepowered.common.entity.EntityActivationRange;
 import org.spongepowered.common.entity.SpongeEntitySnapshotBuilder;
 import org.spongepowered.common.event.DamageEventHandler;
 import org.spongepowered.common.event.MinecraftBlockDamageSource;
@@ -123,6 +124,9 @@ public abstract class MixinEntity implements Entity, IMixinEntity {
     private float origWidth;
     private float origHeight;
     @Nullable private DamageSource originalLava;
+    private byte activationType;
+    private long activatedTick = Integer.MIN_VALUE;
+    private boolean defaultActivationState = true;
 
     @Shadow private UUID entityUniqueID;
     @Shadow public net.minecraft.world.World worldObj;
@@ -176,6 +180,13 @@ public abstract class MixinEntity implements Entity, IMixinEntity {
 
     // @formatter:on
 
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void onConstructed(CallbackInfo ci) {
+        this.activationType = EntityActivationRange.initializeEntityActivationType((net.minecraft.entity.Entity) (Object) this);
+        this.defaultActivationState = EntityActivationRange.initializeEntityActivationState((net.minecraft.entity.Entity) (Object) this,
+                this.activationType);
+    }
+
     @Inject(method = "setSize", at = @At("RETURN"))
     public void onSetSize(float width, float height, CallbackInfo ci) {
         if (this.origWidth == 0 || this.origHeight == 0) {
@@ -567,6 +578,35 @@ public void setTeleportVehicle(net.minecraft.entity.Entity vehicle) {
         this.teleportVehicle = vehicle;
     }
 
+    @Override
+    public byte getActivationType() {
+        return this.activationType;
+    }
+
+    @Override
+    public long getActivatedTick() {
+        return this.activatedTick;
+    }
+
+    @Override
+    public boolean getDefaultActivationState() {
+        return this.defaultActivationState;
+    }
+
+    @Override
+    public void setActivatedTick(long tick) {
+        this.activatedTick = tick;
+    }
+
+    @Override
+    public void inactiveTick() {
+        // Burning entities are immune, but the fire keeps burning down until
+        // the next immunity check
+        if (this.fire > 0) {
+            this.fire = this.isImmuneToFire ? Math.max(0, this.fire - 4) : this.fire - 1;
+        }
+    }
+
     @Override
     public EntityType getType() {
         return this.entityType;
@@ -926,10 +966,9 @@ public void onEntityCollideWithBlock(Block block, net.minecraft.world.World worl
         }
 
         // TODO: Add target side support
-        CollideBlockEvent event = SpongeEventFactory.createCollideBlockEvent(Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) world.getBlockState(pos), new Location<World>((World) world, VecHelper.toVector(pos)), Direction.NONE);
-        SpongeImpl.postEvent(event);
-
-        if (!event.isCancelled()) {
+        if (!SpongeImpl.hasListeners(CollideBlockEvent.class) || !SpongeImpl.postEvent(SpongeEventFactory.createCollideBlockEvent(
+                Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) world.getBlockState(pos),
+                new Location<World>((World) world, VecHelper.toVector(pos)), Direction.NONE))) {
             block.onEntityCollidedWithBlock(world, pos, entity);
         }
         StaticMixinHelper.collidePlayer = null;
@@ -949,10 +988,9 @@ public void onEntityCollideWithBlockState(Block block, net.minecraft.world.World
         }
 
         // TODO: Add target side support
-        CollideBlockEvent event = SpongeEventFactory.createCollideBlockEvent( Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) state, new Location<World>((World) world, VecHelper.toVector(pos)), Direction.NONE);
-        SpongeImpl.postEvent(event);
-
-        if (!event.isCancelled()) {
+        if (!SpongeImpl.hasListeners(CollideBlockEvent.class) || !SpongeImpl.postEvent(SpongeEventFactory.createCollideBlockEvent(
+                Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) state,
+                new Location<World>((World) world, VecHelper.toVector(pos)), Direction.NONE))) {
             block.onEntityCollidedWithBlock(world, pos, state, entity);
         }
 
@@ -972,10 +1010,9 @@ public void onBlockFallenUpon(Block block, net.minecraft.world.World world, Bloc
             StaticMixinHelper.collidePlayer = (EntityPlayerMP) entity;
         }
 
-        CollideBlockEvent event = SpongeEventFactory.createCollideBlockEvent(Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) world.getBlockState(pos), new Location<World>((World) world, VecHelper.toVector(pos)), Direction.UP);
-        SpongeImpl.postEvent(event);
-
-        if (!event.isCancelled()) {
+        if (!SpongeImpl.hasListeners(CollideBlockEvent.class) || !SpongeImpl.postEvent(SpongeEventFactory.createCollideBlockEvent(
+                Cause.of(NamedCause.of(NamedCause.PHYSICAL, entity)), (BlockState) world.getBlockState(pos),
+                new Location<World>((World) world, VecHelper.toVector(pos)), Direction.UP))) {
             block.onFallenUpon(world, pos, entity, fallDistance);
         }
 
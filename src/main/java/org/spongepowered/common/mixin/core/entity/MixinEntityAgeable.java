@@ -27,8 +27,25 @@
 import net.minecraft.entity.EntityAgeable;
 import org.spongepowered.api.entity.living.Ageable;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 
 @Mixin(EntityAgeable.class)
 public abstract class MixinEntityAgeable extends MixinEntityCreature implements Ageable {
 
+    @Shadow public abstract int getGrowingAge();
+    @Shadow public abstract void setGrowingAge(int age);
+
+    @Override
+    public void inactiveTick() {
+        super.inactiveTick();
+        // Children keep growing up and adults keep cooling down from
+        // breeding, as in onLivingUpdate
+        int age = getGrowingAge();
+        if (age < 0) {
+            setGrowingAge(age + 1);
+        } else if (age > 0) {
+            setGrowingAge(age - 1);
+        }
+    }
+
 }
@@ -101,6 +101,13 @@ public void setCanPickupItems(boolean canPickupItems) {
         this.canPickUpLoot = canPickupItems;
     }
 
+    @Override
+    public void inactiveTick() {
+        super.inactiveTick();
+        // Keeps counting towards despawning
+        ++this.entityAge;
+    }
+
     @Inject(method = "<init>", at = @At(value = "RETURN"))
     public void onConstruct(CallbackInfo ci) {
         ((IMixinEntityAITasks) this.tasks).setOwner((EntityLiving) (Object) this);
@@ -33,19 +33,26 @@
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.entity.EntityMerging;
+import org.spongepowered.common.interfaces.entity.IMixinEntityItem;
 import org.spongepowered.common.mixin.core.entity.MixinEntity;
+import org.spongepowered.common.util.SpongeHooks;
 
 @Mixin(EntityItem.class)
-public abstract class MixinEntityItem extends MixinEntity implements Item {
+public abstract class MixinEntityItem extends MixinEntity implements Item, IMixinEntityItem {
 
     private static final short MAGIC_INFINITE_PICKUP_DELAY = 32767;
     private static final short MAGIC_INFINITE_DESPAWN_TIME = -32768;
     private static final int MAGIC_INFINITE = -1;
+    // The age at which vanilla despawns items
+    private static final int DEFAULT_LIFESPAN = 6000;
 
     @Shadow private int delayBeforeCanPickup;
     @Shadow private int age;
 
-    public int lifespan;
+    @Shadow protected abstract boolean combineItems(EntityItem other);
+
+    public int lifespan = DEFAULT_LIFESPAN;
     public float dropChance = 1.0f;
 
     //
@@ -77,6 +84,35 @@ private void onOnUpdateAge(CallbackInfo ci) {
         }
     }
 
+    @Inject(method = "searchForOtherItemsNearby", at = @At("HEAD"), cancellable = true)
+    private void onSearchForOtherItemsNearby(CallbackInfo ci) {
+        final double radius = SpongeHooks.getActiveConfig(this.worldObj).getConfig().getEntity().getItemMergeRadius();
+        if (radius > 0) {
+            EntityMerging.mergeItem((EntityItem) (Object) this, radius);
+            ci.cancel();
+        }
+    }
+
+    @Override
+    public boolean combineWith(EntityItem other) {
+        return this.combineItems(other);
+    }
+
+    @Override
+    public void inactiveTick() {
+        super.inactiveTick();
+        if (this.delayBeforeCanPickup > 0 && this.delayBeforeCanPickup != MAGIC_INFINITE_PICKUP_DELAY) {
+            --this.delayBeforeCanPickup;
+        }
+        if (this.age != MAGIC_INFINITE_DESPAWN_TIME) {
+            ++this.age;
+        }
+        // Despawn on time, including a despawn time set by a plugin
+        if (this.age >= this.lifespan) {
+            setDead();
+        }
+    }
+
     public int getPickupDelay() {
         if (this.delayBeforeCanPickup == MAGIC_INFINITE_PICKUP_DELAY) {
             // There are two cases when -1 should be returned:
@@ -30,16 +30,32 @@
 import org.spongepowered.api.entity.ExperienceOrb;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.entity.EntityMerging;
 import org.spongepowered.common.interfaces.entity.IMixinEntityXPOrb;
 import org.spongepowered.common.mixin.core.entity.MixinEntity;
+import org.spongepowered.common.util.SpongeHooks;
 
 import java.util.List;
 
 @Mixin(EntityXPOrb.class)
 public abstract class MixinEntityXPOrb extends MixinEntity implements ExperienceOrb, IMixinEntityXPOrb {
 
+    private static final int MERGE_INTERVAL = 20;
+
     @Shadow public int xpValue;
 
+    @Inject(method = "onUpdate", at = @At("RETURN"))
+    private void onUpdateMerge(CallbackInfo ci) {
+        // Orbs resting next to each other are merged now and then, like items
+        if (!this.worldObj.isRemote && !this.isDead && ((EntityXPOrb) (Object) this).ticksExisted % MERGE_INTERVAL == 0) {
+            final double radius = SpongeHooks.getActiveConfig(this.worldObj).getConfig().getEntity().getXpOrbMergeRadius();
+            EntityMerging.mergeXpOrb((EntityXPOrb) (Object) this, radius);
+        }
+    }
+
     @Override
     public int getExperience() {
         return this.xpValue;
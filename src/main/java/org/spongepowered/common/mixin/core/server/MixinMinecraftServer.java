@@ -54,6 +54,7 @@
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.command.source.ConsoleSource;
 import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.EventManager;
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
@@ -69,6 +70,7 @@
 import org.spongepowered.api.world.Dimension;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.WorldCreationSettings;
+import org.spongepowered.api.world.gen.WorldGenerator;
 import org.spongepowered.api.world.storage.ChunkLayout;
 import org.spongepowered.api.world.storage.WorldProperties;
 import org.spongepowered.asm.mixin.Mixin;
@@ -80,10 +82,12 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.SpongeImplFactory;
 import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.interfaces.IMixinCommandSender;
 import org.spongepowered.common.interfaces.IMixinCommandSource;
 import org.spongepowered.common.interfaces.IMixinMinecraftServer;
 import org.spongepowered.common.interfaces.IMixinSubject;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.interfaces.world.IMixinWorldProvider;
 import org.spongepowered.common.interfaces.world.IMixinWorldSettings;
@@ -96,7 +100,9 @@
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.common.world.SpongeChunkTicketManager;
 import org.spongepowered.common.world.SpongeDimensionType;
+import org.spongepowered.common.world.gen.SpongeChunkProvider;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
 import java.io.File;
@@ -110,6 +116,7 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Mixin(MinecraftServer.class)
 public abstract class MixinMinecraftServer implements Server, ConsoleSource, IMixinSubject, IMixinCommandSource, IMixinCommandSender,
@@ -296,6 +303,20 @@ public void shutdown(Text kickMessage) {
     @Inject(method = "stopServer()V", at = @At("HEAD"))
     public void onServerStopping(CallbackInfo ci) {
         ((MinecraftServer) (Object) this).getPlayerProfileCache().save();
+
+        EventManager eventManager = SpongeImpl.getGame().getEventManager();
+        if (eventManager instanceof SpongeEventManager) {
+            ((SpongeEventManager) eventManager).getAsyncQueue().shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Inject(method = "tick()V", at = @At("RETURN"))
+    public void onTickEnd(CallbackInfo ci) {
+        SpongeChunkTicketManager.getInstance().saveTickets();
+        EventManager eventManager = SpongeImpl.getGame().getEventManager();
+        if (eventManager instanceof SpongeEventManager) {
+            ((SpongeEventManager) eventManager).getAsyncQueue().flush();
+        }
     }
 
     @Overwrite
@@ -408,6 +429,7 @@ protected void loadAllWorlds(String overworldFolder, String worldName, long seed
             }
 
             SpongeImpl.postEvent(SpongeImplFactory.createLoadWorldEvent((World) world));
+            SpongeChunkTicketManager.getInstance().loadWorld(world);
         }
 
         this.serverConfigManager.setPlayerManager(new WorldServer[]{DimensionManager.getWorldFromDimId(0)});
@@ -531,6 +553,7 @@ public Optional<World> loadWorld(String worldName) {
 
         world.addWorldAccess(new WorldManager((MinecraftServer) (Object) this, world));
         SpongeImpl.postEvent(SpongeImplFactory.createLoadWorldEvent((World) world));
+        SpongeChunkTicketManager.getInstance().loadWorld(world);
         if (!isSinglePlayer()) {
             world.getWorldInfo().setGameType(getGameType());
         }
@@ -621,6 +644,13 @@ public boolean unloadWorld(World world) {
             }
 
             Sponge.getEventManager().post(SpongeEventFactory.createUnloadWorldEvent(Cause.of(NamedCause.source(this)), world));
+            // Let the chunks of the world unload
+            SpongeChunkTicketManager.getInstance().unloadWorld(world);
+            // Drop the chunks a pre-generation task generated ahead of time
+            final WorldGenerator worldGenerator = ((IMixinWorld) world).getWorldGenerator();
+            if (worldGenerator instanceof SpongeChunkProvider) {
+                ((SpongeChunkProvider) worldGenerator).clearPregeneratedChunks();
+            }
 
             try {
                 worldServer.saveAllChunks(true, null);
@@ -744,7 +774,7 @@ public boolean saveWorldProperties(WorldProperties properties) {
 
     @Override
     public ChunkTicketManager getChunkTicketManager() {
-        throw new UnsupportedOperationException();
+        return SpongeChunkTicketManager.getInstance();
     }
 
     @Override
@@ -799,7 +829,9 @@ public void setSaveEnabled(boolean enabled) {
     private void onSaveWorlds(boolean dontLog, CallbackInfo ci) {
         if (!this.enableSaving) {
             ci.cancel();
+            return;
         }
+        SpongeChunkTicketManager.getInstance().saveTickets();
     }
 
     @SuppressWarnings("unchecked")
@@ -28,7 +28,6 @@
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
 import com.google.common.base.Predicate;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -72,10 +71,13 @@
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.SpongeImplFactory;
+import org.spongepowered.common.entity.EntityCounts;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.event.SpongeCommonEventFactory;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.world.IMixinWorld;
@@ -98,8 +100,8 @@
 @Mixin(net.minecraft.world.chunk.Chunk.class)
 public abstract class MixinChunk implements Chunk, IMixinChunk {
 
-    public Map<Integer, PlayerTracker> trackedIntBlockPositions = Maps.newHashMap();
-    public Map<Short, PlayerTracker> trackedShortBlockPositions = Maps.newHashMap();
+    public PlayerTrackerMap trackedIntBlockPositions = new PlayerTrackerMap();
+    public PlayerTrackerMap trackedShortBlockPositions = new PlayerTrackerMap();
     private Cause populateCause;
     private org.spongepowered.api.world.World world;
     private UUID uuid;
@@ -120,6 +122,7 @@ public abstract class MixinChunk implements Chunk, IMixinChunk {
     private Vector3i blockMax;
     private Vector2i biomeMin;
     private Vector2i biomeMax;
+    private final EntityCounts entityCounts = new EntityCounts();
 
     @Shadow private World worldObj;
     @Shadow public int xPosition;
@@ -174,6 +177,30 @@ public void onChunkUnloadInject(CallbackInfo ci) {
         }
     }
 
+    @Redirect(method = "addEntity", at = @At(value = "INVOKE", target = "Lnet/minecraft/util/ClassInheritanceMultiMap;add(Ljava/lang/Object;)Z"))
+    private boolean onAddEntity(ClassInheritanceMultiMap entityList, Object entity) {
+        if (entityList.add(entity)) {
+            this.entityCounts.add((Entity) entity);
+            return true;
+        }
+        return false;
+    }
+
+    @Redirect(method = "removeEntityAtIndex", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/util/ClassInheritanceMultiMap;remove(Ljava/lang/Object;)Z"))
+    private boolean onRemoveEntity(ClassInheritanceMultiMap entityList, Object entity) {
+        if (entityList.remove(entity)) {
+            this.entityCounts.remove((Entity) entity);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public EntityCounts getEntityCounts() {
+        return this.entityCounts;
+    }
+
     @Override
     public UUID getUniqueId() {
         return this.uuid;
@@ -376,7 +403,7 @@ public void onGetEntitiesWithinAABBForEntity(Entity entityIn, AxisAlignedBB aabb
             return;
         }
 
-        if (listToFill.size() == 0) {
+        if (listToFill.size() == 0 || !SpongeImpl.hasListeners(CollideEntityEvent.class)) {
             return;
         }
 
@@ -397,7 +424,7 @@ public void onGetEntitiesOfTypeWithinAAAB(Class<? extends Entity> entityClass, A
             return;
         }
 
-        if (listToFill.size() == 0) {
+        if (listToFill.size() == 0 || !SpongeImpl.hasListeners(CollideEntityEvent.class)) {
             return;
         }
 
@@ -549,111 +576,77 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, User user, Player
             SpongeHooks.logBlockTrack(this.worldObj, block, pos, user, false);
         }
 
+        int index = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
         if (pos.getY() <= 255) {
-            short blockPos = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(blockPos) != null) {
-                if (trackerType == PlayerTracker.Type.OWNER) {
-                    this.trackedShortBlockPositions.get(blockPos).ownerIndex = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
-                    this.trackedShortBlockPositions.get(blockPos).notifierIndex = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
-                } else {
-                    this.trackedShortBlockPositions.get(blockPos).notifierIndex = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
-                }
+            int blockPos = blockPosToShort(pos);
+            if (!this.trackedShortBlockPositions.contains(blockPos)) {
+                this.trackedShortBlockPositions.put(blockPos, trackerType == PlayerTracker.Type.OWNER ? index : -1,
+                        trackerType == PlayerTracker.Type.NOTIFIER ? index : -1);
+            } else if (trackerType == PlayerTracker.Type.OWNER) {
+                this.trackedShortBlockPositions.put(blockPos, index, index);
             } else {
-                this.trackedShortBlockPositions.put(blockPos, new PlayerTracker(((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId()), trackerType));
+                this.trackedShortBlockPositions.setNotifier(blockPos, index);
             }
         } else {
             int blockPos = blockPosToInt(pos);
-            if (this.trackedIntBlockPositions.get(blockPos) != null) {
-                if (trackerType == PlayerTracker.Type.OWNER) {
-                    this.trackedIntBlockPositions.get(blockPos).ownerIndex = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
-                } else {
-                    this.trackedIntBlockPositions.get(blockPos).notifierIndex = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId());
-                }
+            if (trackerType == PlayerTracker.Type.OWNER) {
+                this.trackedIntBlockPositions.setOwner(blockPos, index);
             } else {
-                this.trackedIntBlockPositions.put(blockPos, new PlayerTracker(((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(user.getUniqueId()), trackerType));
+                this.trackedIntBlockPositions.setNotifier(blockPos, index);
             }
         }
     }
 
     @Override
-    public Map<Integer, PlayerTracker> getTrackedIntPlayerPositions() {
+    public PlayerTrackerMap getTrackedIntPlayerPositions() {
         return this.trackedIntBlockPositions;
     }
 
     @Override
-    public Map<Short, PlayerTracker> getTrackedShortPlayerPositions() {
+    public PlayerTrackerMap getTrackedShortPlayerPositions() {
         return this.trackedShortBlockPositions;
     }
 
     @Override
     public Optional<User> getBlockOwner(BlockPos pos) {
-        if (this.trackedIntBlockPositions.get(blockPosToInt(pos)) != null) {
-            PlayerTracker tracker = this.trackedIntBlockPositions.get(blockPosToInt(pos));
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(tracker.ownerIndex));
-            if (uuid.isPresent()) {
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                // player is not online, get user from storage if one exists
-                return SpongeImpl.getGame().getServiceManager().provide(UserStorageService.class).get().get(uuid.get());
-            }
-        } else if (this.trackedShortBlockPositions.get(blockPosToShort(pos)) != null) {
-            PlayerTracker tracker = this.trackedShortBlockPositions.get(blockPosToShort(pos));
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(tracker.ownerIndex));
-            if (uuid.isPresent()) {
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                // player is not online, get user from storage if one exists
-                return SpongeImpl.getGame().getServiceManager().provide(UserStorageService.class).get().get(uuid.get());
-            }
+        if (pos.getY() <= 255) {
+            return getTrackedUser(this.trackedShortBlockPositions.getOwner(blockPosToShort(pos)));
         }
-
-        return Optional.empty();
+        return getTrackedUser(this.trackedIntBlockPositions.getOwner(blockPosToInt(pos)));
     }
 
     @Override
     public Optional<User> getBlockNotifier(BlockPos pos) {
-        if (this.trackedIntBlockPositions.get(blockPosToInt(pos)) != null) {
-            PlayerTracker tracker = this.trackedIntBlockPositions.get(blockPosToInt(pos));
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(tracker.notifierIndex));
-            if (uuid.isPresent()) {
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                // player is not online, get user from storage if one exists
-                return SpongeImpl.getGame().getServiceManager().provide(UserStorageService.class).get().get(uuid.get());
-            }
-        } else if (this.trackedShortBlockPositions.get(blockPosToShort(pos)) != null) {
-            PlayerTracker tracker = this.trackedShortBlockPositions.get(blockPosToShort(pos));
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(tracker.notifierIndex));
-            if (uuid.isPresent()) {
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                // player is not online, get user from storage if one exists
-                return SpongeImpl.getGame().getServiceManager().provide(UserStorageService.class).get().get(uuid.get());
-            }
+        if (pos.getY() <= 255) {
+            return getTrackedUser(this.trackedShortBlockPositions.getNotifier(blockPosToShort(pos)));
         }
+        return getTrackedUser(this.trackedIntBlockPositions.getNotifier(blockPosToInt(pos)));
+    }
 
+    private Optional<User> getTrackedUser(int index) {
+        if (index == -1) {
+            return Optional.empty();
+        }
+        Optional<UUID> uuid = ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(index);
+        if (uuid.isPresent()) {
+            // get player if online
+            EntityPlayer player = this.worldObj.getPlayerEntityByUUID(uuid.get());
+            if (player != null) {
+                return Optional.of((User) player);
+            }
+            // player is not online, get user from storage if one exists
+            return SpongeImpl.getGame().getServiceManager().provide(UserStorageService.class).get().get(uuid.get());
+        }
         return Optional.empty();
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPositions) {
+    public void setTrackedIntPlayerPositions(PlayerTrackerMap trackedPositions) {
         this.trackedIntBlockPositions = trackedPositions;
     }
 
     @Override
-    public void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPositions) {
+    public void setTrackedShortPlayerPositions(PlayerTrackerMap trackedPositions) {
         this.trackedShortBlockPositions = trackedPositions;
     }
 
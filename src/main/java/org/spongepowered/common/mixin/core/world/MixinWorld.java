@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import co.aikar.timings.TimingHistory;
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
@@ -53,6 +54,7 @@
 import net.minecraft.entity.item.EntityPainting;
 import net.minecraft.entity.item.EntityPainting.EnumArt;
 import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.item.EntityXPOrb;
 import net.minecraft.entity.passive.EntityTameable;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -189,11 +191,16 @@
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.effect.particle.SpongeParticleEffect;
 import org.spongepowered.common.effect.particle.SpongeParticleHelper;
+import org.spongepowered.common.entity.EntityActivationRange;
+import org.spongepowered.common.entity.EntityCap;
+import org.spongepowered.common.entity.EntityCounts;
+import org.spongepowered.common.entity.EntityMerging;
 import org.spongepowered.common.entity.PlayerTracker;
 import org.spongepowered.common.event.SpongeCommonEventFactory;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.IMixinEntityPlayer;
 import org.spongepowered.common.interfaces.block.IMixinBlock;
+import org.spongepowered.common.interfaces.block.tile.IMixinTileEntity;
 import org.spongepowered.common.interfaces.entity.IMixinEntity;
 import org.spongepowered.common.interfaces.entity.IMixinEntityLightningBolt;
 import org.spongepowered.common.interfaces.world.IMixinWorld;
@@ -207,7 +214,9 @@
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.VecHelper;
 import org.spongepowered.common.world.CaptureType;
+import org.spongepowered.common.world.CapturedBlocks;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.common.world.SleepingTileEntities;
 import org.spongepowered.common.world.SpongeChunkPreGenerate;
 import org.spongepowered.common.world.border.PlayerBorderListener;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
@@ -261,7 +270,7 @@ public abstract class MixinWorld implements World, IMixinWorld {
     public Entity currentTickEntity = null;
     public TileEntity currentTickTileEntity = null;
     public SpongeBlockSnapshotBuilder builder = new SpongeBlockSnapshotBuilder();
-    public List<BlockSnapshot> capturedSpongeBlockSnapshots = new ArrayList<>();
+    public CapturedBlocks capturedSpongeBlockSnapshots = new CapturedBlocks();
     public Map<PopulatorType, LinkedHashMap<Vector3i, Transaction<BlockSnapshot>>> capturedSpongePopulators = Maps.newHashMap();
     private boolean keepSpawnLoaded;
     private boolean worldSpawnerRunning;
@@ -270,6 +279,8 @@ public abstract class MixinWorld implements World, IMixinWorld {
     private SpongeChunkProvider spongegen;
     private Weather prevWeather;
     private long weatherStartTime;
+    private SleepingTileEntities sleepingTileEntities;
+    private final EntityCounts entityCounts = new EntityCounts();
 
     // @formatter:off
     @Shadow public Profiler theProfiler;
@@ -281,6 +292,7 @@ public abstract class MixinWorld implements World, IMixinWorld {
     @Shadow public List<net.minecraft.entity.Entity> loadedEntityList;
     @Shadow public Scoreboard worldScoreboard;
     @Shadow public List<net.minecraft.tileentity.TileEntity> loadedTileEntityList;
+    @Shadow public List<net.minecraft.tileentity.TileEntity> tickableTileEntities;
     @Shadow private net.minecraft.world.border.WorldBorder worldBorder;
     @Shadow public List<EntityPlayer> playerEntities;
 
@@ -327,6 +339,7 @@ public void onConstructed(ISaveHandler saveHandlerIn, WorldInfo info, WorldProvi
         this.captureEntitySpawns = true;
         this.prevWeather = getWeather();
         this.weatherStartTime = this.worldInfo.getWorldTotalTime();
+        this.sleepingTileEntities = new SleepingTileEntities(this.tickableTileEntities);
     }
 
     /**
@@ -349,6 +362,8 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
             }
 
             Block block = newState.getBlock();
+            boolean capturing = false;
+            boolean captured = false;
             BlockSnapshot originalBlockSnapshot = null;
             BlockSnapshot newBlockSnapshot = null;
             Transaction<BlockSnapshot> transaction = null;
@@ -356,9 +371,10 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
 
             // Don't capture if we are restoring blocks
             if (!this.isRemote && !this.restoringBlocks) {
-                originalBlockSnapshot = createSpongeBlockSnapshot(currentState, currentState.getBlock().getActualState(currentState, (IBlockAccess) this, pos), pos, flags);
-
+                capturing = true;
                 if (StaticMixinHelper.runningGenerator != null) {
+                    originalBlockSnapshot = createSpongeBlockSnapshot(currentState, currentState.getBlock().getActualState(currentState,
+                            (IBlockAccess) this, pos), pos, flags);
                     if (this.capturedSpongePopulators.get(StaticMixinHelper.runningGenerator) == null) {
                         this.capturedSpongePopulators.put(StaticMixinHelper.runningGenerator, new LinkedHashMap<>());
                     }
@@ -367,18 +383,20 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
                     transaction = new Transaction<>(originalBlockSnapshot, originalBlockSnapshot.withState((BlockState) newState));
                     populatorSnapshotList = this.capturedSpongePopulators.get(StaticMixinHelper.runningGenerator);
                     populatorSnapshotList.put(transaction.getOriginal().getPosition(), transaction);
-                } else if (this.captureBlockDecay) {
-                    ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.DECAY;
-                    this.capturedSpongeBlockSnapshots.add(originalBlockSnapshot);
-                } else if (block == Blocks.air) {
-                    ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.BREAK;
-                    this.capturedSpongeBlockSnapshots.add(originalBlockSnapshot);
-                } else if (block != currentState.getBlock()) {
-                    ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.PLACE;
-                    this.capturedSpongeBlockSnapshots.add(originalBlockSnapshot);
-                } else {
-                    ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.MODIFY;
-                    this.capturedSpongeBlockSnapshots.add(originalBlockSnapshot);
+                } else if (!this.capturedSpongeBlockSnapshots.contains(pos)) {
+                    // Only the first change of a position is captured, the final state is read from the world later on
+                    originalBlockSnapshot = createSpongeBlockSnapshot(currentState, currentState.getBlock().getActualState(currentState,
+                            (IBlockAccess) this, pos), pos, flags);
+                    if (this.captureBlockDecay) {
+                        ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.DECAY;
+                    } else if (block == Blocks.air) {
+                        ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.BREAK;
+                    } else if (block != currentState.getBlock()) {
+                        ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.PLACE;
+                    } else {
+                        ((SpongeBlockSnapshot) originalBlockSnapshot).captureType = CaptureType.MODIFY;
+                    }
+                    captured = this.capturedSpongeBlockSnapshots.add(pos, (SpongeBlockSnapshot) originalBlockSnapshot);
                 }
             }
 
@@ -387,14 +405,18 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
             IBlockState iblockstate1 = ((IMixinChunk) chunk).setBlockState(pos, newState, currentState, newBlockSnapshot);
 
             if (iblockstate1 == null) {
-                if (originalBlockSnapshot != null) {
-                    this.capturedSpongeBlockSnapshots.remove(originalBlockSnapshot);
-                    if (populatorSnapshotList != null) {
-                        populatorSnapshotList.remove(transaction);
-                    }
+                if (captured) {
+                    this.capturedSpongeBlockSnapshots.remove(pos);
+                }
+                if (populatorSnapshotList != null) {
+                    populatorSnapshotList.remove(transaction.getOriginal().getPosition());
                 }
                 return false;
             } else {
+                if (capturing && !captured && populatorSnapshotList == null) {
+                    // Later changes of a captured position must still update the block as they requested
+                    this.capturedSpongeBlockSnapshots.addUpdateFlag(pos, flags);
+                }
                 Block block1 = iblockstate1.getBlock();
 
                 if (block.getLightOpacity() != block1.getLightOpacity() || block.getLightValue() != oldLight) {
@@ -404,7 +426,7 @@ public boolean setBlockState(BlockPos pos, IBlockState newState, int flags) {
                 }
 
                 // Don't notify clients or update physics while capturing blockstates
-                if (originalBlockSnapshot == null) {
+                if (!capturing) {
                     // Modularize client and physic updates
                     markAndNotifyNeighbors(pos, chunk, iblockstate1, newState, flags);
                 }
@@ -436,13 +458,20 @@ public void onForceBlockUpdateTick(Block block, net.minecraft.world.World worldI
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
+        this.currentTickBlock = createSpongeSourceSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        }
         this.currentTickBlock = null;
         this.processingCaptureCause = false;
     }
 
+    @Inject(method = "updateEntities", at = @At("HEAD"))
+    private void onUpdateEntitiesHead(CallbackInfo ci) {
+        EntityActivationRange.activateEntities((net.minecraft.world.World) (Object) this);
+    }
+
     @Redirect(method = "updateEntities", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;onUpdate()V") )
     public void onUpdateEntities(net.minecraft.entity.Entity entityIn) {
         if (this.isRemote || this.currentTickEntity != null) {
@@ -453,11 +482,21 @@ public void onUpdateEntities(net.minecraft.entity.Entity entityIn) {
         this.processingCaptureCause = true;
         this.currentTickEntity = (Entity) entityIn;
         entityIn.onUpdate();
-        handlePostTickCaptures(Cause.of(NamedCause.source(entityIn)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(entityIn)));
+        }
         this.currentTickEntity = null;
         this.processingCaptureCause = false;
     }
 
+    @Inject(method = "updateEntities", at = @At(value = "INVOKE_STRING",
+            target = "Lnet/minecraft/profiler/Profiler;endStartSection(Ljava/lang/String;)V", args = "ldc=blockEntities", shift = At.Shift.AFTER) )
+    private void onUpdateTileEntitiesBegin(CallbackInfo ci) {
+        if (!this.isRemote) {
+            this.sleepingTileEntities.update(this.worldInfo.getWorldTotalTime());
+        }
+    }
+
     @Redirect(method = "updateEntities", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/gui/IUpdatePlayerListBox;update()V") )
     public void onUpdateTileEntities(IUpdatePlayerListBox tile) {
         if (this.isRemote || this.currentTickTileEntity != null) {
@@ -468,13 +507,28 @@ public void onUpdateTileEntities(IUpdatePlayerListBox tile) {
         this.processingCaptureCause = true;
         this.currentTickTileEntity = (TileEntity) tile;
         tile.update();
-        handlePostTickCaptures(Cause.of(NamedCause.source(tile)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(tile)));
+        }
         this.currentTickTileEntity = null;
         this.processingCaptureCause = false;
+
+        final int idleTicks = ((IMixinTileEntity) tile).getIdleTicks();
+        if (idleTicks > 0) {
+            this.sleepingTileEntities.sleep((net.minecraft.tileentity.TileEntity) tile, this.worldInfo.getWorldTotalTime() + idleTicks);
+        }
     }
 
     @Redirect(method = "updateEntityWithOptionalForce", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;onUpdate()V") )
     public void onCallEntityUpdate(net.minecraft.entity.Entity entity) {
+        if (!this.isRemote) {
+            if (!EntityActivationRange.checkIfActive(entity)) {
+                ((IMixinEntity) entity).inactiveTick();
+                return;
+            }
+            TimingHistory.activatedEntityTicks++;
+        }
+
         if (this.isRemote || this.currentTickEntity != null || StaticMixinHelper.packetPlayer != null) {
             entity.onUpdate();
             return;
@@ -483,11 +537,43 @@ public void onCallEntityUpdate(net.minecraft.entity.Entity entity) {
         this.processingCaptureCause = true;
         this.currentTickEntity = (Entity) entity;
         entity.onUpdate();
-        handlePostTickCaptures(Cause.of(NamedCause.source(entity)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(entity)));
+        }
         this.currentTickEntity = null;
         this.processingCaptureCause = false;
     }
 
+    @Redirect(method = "updateEntityWithOptionalForce", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;updateRidden()V") )
+    public void onCallEntityRidingUpdate(net.minecraft.entity.Entity entity) {
+        // Riding entities are immune, so they are always active
+        if (!this.isRemote) {
+            TimingHistory.activatedEntityTicks++;
+        }
+        entity.updateRidden();
+    }
+
+    @Inject(method = "markTileEntityForRemoval", at = @At("HEAD"))
+    private void onMarkTileEntityForRemoval(net.minecraft.tileentity.TileEntity tileEntity, CallbackInfo ci) {
+        if (!this.isRemote) {
+            this.sleepingTileEntities.remove(tileEntity);
+        }
+    }
+
+    @Inject(method = "onEntityAdded", at = @At("HEAD"))
+    private void onEntityAddedCount(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
+        if (!this.isRemote) {
+            this.entityCounts.add(entityIn);
+        }
+    }
+
+    @Inject(method = "onEntityRemoved", at = @At("HEAD"))
+    private void onEntityRemovedCount(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
+        if (!this.isRemote) {
+            this.entityCounts.remove(entityIn);
+        }
+    }
+
     @Inject(method = "onEntityRemoved", at = @At(value = "HEAD"))
     public void onEntityRemoval(net.minecraft.entity.Entity entityIn, CallbackInfo ci) {
         MessageSink sink = MessageSinks.toNone();
@@ -637,6 +723,15 @@ else if (!(entityIn instanceof EntityPlayer) && entityIn instanceof EntityTameab
                     }
                 }
 
+                // Weather effects are never capped, like in the capture path
+                if (!(entityIn instanceof EntityWeatherEffect)) {
+                    Optional<EntityCap> cap = EntityCap.check(this.nmsWorld, entityIn);
+                    if (cap.isPresent()) {
+                        postEntityCapRejection(cause, cap.get(), Lists.newArrayList(entity));
+                        return false;
+                    }
+                }
+
                 org.spongepowered.api.event.Event event = null;
                 ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<>();
                 entitySnapshotBuilder.add(((Entity) entityIn).createSnapshot());
@@ -675,13 +770,24 @@ else if (!(entityIn instanceof EntityPlayer) && entityIn instanceof EntityTameab
         }
     }
 
+    /**
+     * Gets whether anything was captured that {@link #handlePostTickCaptures}
+     * would need to process. Callers use this to avoid building a
+     * {@link Cause} for the vast majority of ticks that change nothing.
+     *
+     * @return Whether there are captures to process
+     */
+    protected boolean hasTickCaptures() {
+        return this.capturedEntities.size() != 0 || this.capturedEntityItems.size() != 0 || !this.capturedSpongeBlockSnapshots.isEmpty()
+                || this.capturedSpongePopulators.size() != 0 || StaticMixinHelper.packetPlayer != null;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void handlePostTickCaptures(Cause cause) {
         if (this.isRemote || this.restoringBlocks || cause == null) {
             return;
-        } else if (this.capturedEntities.size() == 0 && this.capturedEntityItems.size() == 0 && this.capturedSpongeBlockSnapshots.size() == 0
-                && this.capturedSpongePopulators.size() == 0 && StaticMixinHelper.packetPlayer == null) {
+        } else if (!hasTickCaptures()) {
             return; // nothing was captured, return
         }
 
@@ -749,12 +855,13 @@ public void handlePostTickCaptures(Cause cause) {
         ChangeBlockEvent.Place placeEvent = null;
         List<ChangeBlockEvent> blockEvents = new ArrayList<>();
 
-        Iterator<BlockSnapshot> iterator = this.capturedSpongeBlockSnapshots.iterator();
-        while (iterator.hasNext()) {
-            SpongeBlockSnapshot blockSnapshot = (SpongeBlockSnapshot) iterator.next();
-            CaptureType captureType = blockSnapshot.captureType;
+        for (SpongeBlockSnapshot blockSnapshot : this.capturedSpongeBlockSnapshots.getSnapshots()) {
             BlockPos pos = VecHelper.toBlockPos(blockSnapshot.getPosition());
             IBlockState currentState = getBlockState(pos);
+            if (CapturedBlocks.isUnchanged(blockSnapshot, currentState)) {
+                continue;
+            }
+            CaptureType captureType = CapturedBlocks.getCaptureType(blockSnapshot, currentState);
             Transaction<BlockSnapshot> transaction = new Transaction<>(blockSnapshot, createSpongeBlockSnapshot(currentState, currentState.getBlock()
                 .getActualState(currentState, (IBlockAccess) this, pos), pos, 0));
             if (captureType == CaptureType.BREAK) {
@@ -767,8 +874,8 @@ public void handlePostTickCaptures(Cause cause) {
                 modifyBuilder.add(transaction);
             }
             multiBuilder.add(transaction);
-            iterator.remove();
         }
+        this.capturedSpongeBlockSnapshots.clear();
 
         blockBreakTransactions = breakBuilder.build();
         blockDecayTransactions = decayBuilder.build();
@@ -1084,6 +1191,8 @@ public void handleDroppedItems(Cause cause, List<Entity> entities, List<Transact
             Iterator<Entity> iterator =
                 event instanceof DropItemEvent.Destruct ? ((DropItemEvent.Destruct) event).getEntities().iterator()
                                                         : ((DropItemEvent.Dispense) event).getEntities().iterator();
+            final double itemMergeRadius = SpongeHooks.getActiveConfig(this.nmsWorld).getConfig().getEntity().getItemMergeRadius();
+            Map<EntityCap, List<Entity>> rejectedEntities = null;
             while (iterator.hasNext()) {
                 Entity entity = iterator.next();
                 boolean invalidSpawn = false;
@@ -1102,6 +1211,17 @@ public void handleDroppedItems(Cause cause, List<Entity> entities, List<Transact
                 }
 
                 net.minecraft.entity.Entity nmsEntity = (net.minecraft.entity.Entity) entity;
+                // Stacks merged into items already in the world never spawn
+                if (nmsEntity instanceof EntityItem && EntityMerging.mergeItem((EntityItem) nmsEntity, itemMergeRadius)) {
+                    iterator.remove();
+                    continue;
+                }
+                Optional<EntityCap> cap = EntityCap.check(this.nmsWorld, nmsEntity);
+                if (cap.isPresent()) {
+                    rejectedEntities = addEntityCapRejection(rejectedEntities, cap.get(), entity);
+                    iterator.remove();
+                    continue;
+                }
                 int x = MathHelper.floor_double(nmsEntity.posX / 16.0D);
                 int z = MathHelper.floor_double(nmsEntity.posZ / 16.0D);
                 this.getChunkFromChunkCoords(x, z).addEntity(nmsEntity);
@@ -1110,6 +1230,7 @@ public void handleDroppedItems(Cause cause, List<Entity> entities, List<Transact
                 SpongeHooks.logEntitySpawn(cause, nmsEntity);
                 iterator.remove();
             }
+            postEntityCapRejections(cause, rejectedEntities);
         } else {
             if (cause.root() == StaticMixinHelper.packetPlayer) {
                 sendItemChangeToPlayer(StaticMixinHelper.packetPlayer);
@@ -1158,6 +1279,8 @@ private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transac
 
         if (!(SpongeImpl.postEvent(event))) {
             Iterator<Entity> iterator = event.getEntities().iterator();
+            final double xpOrbMergeRadius = SpongeHooks.getActiveConfig(this.nmsWorld).getConfig().getEntity().getXpOrbMergeRadius();
+            Map<EntityCap, List<Entity>> rejectedEntities = null;
             while (iterator.hasNext()) {
                 Entity entity = iterator.next();
                 boolean invalidSpawn = false;
@@ -1178,6 +1301,17 @@ private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transac
                 if (nmsEntity instanceof EntityWeatherEffect) {
                     addWeatherEffect(nmsEntity, cause);
                 } else {
+                    // Orbs merged into orbs already in the world never spawn
+                    if (nmsEntity instanceof EntityXPOrb && EntityMerging.mergeXpOrb((EntityXPOrb) nmsEntity, xpOrbMergeRadius)) {
+                        iterator.remove();
+                        continue;
+                    }
+                    Optional<EntityCap> cap = EntityCap.check(this.nmsWorld, nmsEntity);
+                    if (cap.isPresent()) {
+                        rejectedEntities = addEntityCapRejection(rejectedEntities, cap.get(), entity);
+                        iterator.remove();
+                        continue;
+                    }
                     int x = MathHelper.floor_double(nmsEntity.posX / 16.0D);
                     int z = MathHelper.floor_double(nmsEntity.posZ / 16.0D);
                     this.getChunkFromChunkCoords(x, z).addEntity(nmsEntity);
@@ -1187,11 +1321,49 @@ private void handleEntitySpawns(Cause cause, List<Entity> entities, List<Transac
                 }
                 iterator.remove();
             }
+            postEntityCapRejections(cause, rejectedEntities);
         } else {
             this.capturedEntities.clear();
         }
     }
 
+    private static Map<EntityCap, List<Entity>> addEntityCapRejection(@Nullable Map<EntityCap, List<Entity>> rejectedEntities, EntityCap cap,
+            Entity entity) {
+        if (rejectedEntities == null) {
+            rejectedEntities = new LinkedHashMap<>();
+        }
+        rejectedEntities.computeIfAbsent(cap, key -> new ArrayList<>()).add(entity);
+        return rejectedEntities;
+    }
+
+    private void postEntityCapRejections(Cause cause, @Nullable Map<EntityCap, List<Entity>> rejectedEntities) {
+        if (rejectedEntities != null) {
+            for (Map.Entry<EntityCap, List<Entity>> entry : rejectedEntities.entrySet()) {
+                postEntityCapRejection(cause, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reports entities that were refused because of an {@link EntityCap}
+     * with an already cancelled spawn event, whose cause contains the cap.
+     * Nothing is built when no plugin listens, since caps usually refuse
+     * natural spawns over and over.
+     */
+    private void postEntityCapRejection(Cause cause, EntityCap cap, List<Entity> entities) {
+        if (!SpongeImpl.hasListeners(SpawnEntityEvent.Custom.class)) {
+            return;
+        }
+        ImmutableList.Builder<EntitySnapshot> entitySnapshotBuilder = new ImmutableList.Builder<>();
+        for (Entity entity : entities) {
+            entitySnapshotBuilder.add(entity.createSnapshot());
+        }
+        SpawnEntityEvent event = SpongeEventFactory.createSpawnEntityEventCustom(cause.with(NamedCause.of(EntityCap.CAUSE_NAME, cap)), entities,
+                entitySnapshotBuilder.build(), (World) (Object) this);
+        event.setCancelled(true);
+        SpongeImpl.postEvent(event);
+    }
+
     @Override
     public void markAndNotifyBlockPost(List<Transaction<BlockSnapshot>> transactions, CaptureType type, Cause cause) {
         for (Transaction<BlockSnapshot> transaction : transactions) {
@@ -1211,7 +1383,7 @@ public void markAndNotifyBlockPost(List<Transaction<BlockSnapshot>> transactions
             IBlockState newState = (IBlockState) newBlockSnapshot.getState();
             // Containers get placed automatically
             if (newState != null && !SpongeImplFactory.blockHasTileEntity(newState.getBlock(), newState)) {
-                this.currentTickOnBlockAdded = this.createSpongeBlockSnapshot(newState, newState.getBlock().getActualState(newState, (IBlockAccess) this, pos), pos, updateFlag);
+                this.currentTickOnBlockAdded = createSpongeSourceSnapshot(newState, newState.getBlock().getActualState(newState, (IBlockAccess) this, pos), pos, updateFlag);
                 newState.getBlock().onBlockAdded((net.minecraft.world.World) (Object) this, pos, newState);
                 if (this.capturedOnBlockAddedItems.size() > 0) {
                     Cause blockCause = Cause.of(NamedCause.source(this.currentTickOnBlockAdded));
@@ -1333,6 +1505,7 @@ public void notifyBlockOfStateChange(BlockPos notifyPos, final Block blockIn) {
     @Override
     public void notifyBlockOfStateChange(BlockPos notifyPos, final Block sourceBlock, BlockPos sourcePos) {
         if (!this.isRemote) {
+            this.sleepingTileEntities.wake(notifyPos);
             IBlockState iblockstate = this.getBlockState(notifyPos);
 
             try {
@@ -1407,11 +1580,10 @@ public void updateComparatorOutputLevel(BlockPos pos, Block blockIn) {
     @Override
     public SpongeBlockSnapshot createSpongeBlockSnapshot(IBlockState state, IBlockState extended, BlockPos pos, int updateFlag) {
         this.builder.reset();
-        Location<World> location = new Location<>((World) this, VecHelper.toVector(pos));
         this.builder.blockState((BlockState) state)
                 .extendedState((BlockState) extended)
-                .worldId(location.getExtent().getUniqueId())
-                .position(location.getBlockPosition());
+                .worldId(getUniqueId())
+                .position(VecHelper.toVector(pos));
         if (state.getBlock() instanceof ITileEntityProvider) {
             net.minecraft.tileentity.TileEntity te = getTileEntity(pos);
             if (te != null) {
@@ -1427,6 +1599,12 @@ public SpongeBlockSnapshot createSpongeBlockSnapshot(IBlockState state, IBlockSt
         return new SpongeBlockSnapshot(this.builder, updateFlag);
     }
 
+    @Override
+    public SpongeBlockSnapshot createSpongeSourceSnapshot(IBlockState state, IBlockState extended, BlockPos pos, int updateFlag) {
+        net.minecraft.tileentity.TileEntity te = state.getBlock() instanceof ITileEntityProvider ? getTileEntity(pos) : null;
+        return new SpongeBlockSnapshot((BlockState) state, (BlockState) extended, getUniqueId(), VecHelper.toVector(pos), updateFlag, te);
+    }
+
     @Override
     public Optional<BlockSnapshot> getCurrentTickBlock() {
         return Optional.ofNullable(this.currentTickBlock);
@@ -2497,6 +2675,16 @@ public void setRawData(int x, int y, int z, DataView container) throws InvalidDa
         // todo
     }
 
+    @Override
+    public EntityCounts getEntityCounts() {
+        return this.entityCounts;
+    }
+
+    @Override
+    public SleepingTileEntities getSleepingTileEntities() {
+        return this.sleepingTileEntities;
+    }
+
     @Override
     public long getWeatherStartTime() {
         return this.weatherStartTime;
@@ -53,13 +53,17 @@
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.entity.PlayerTracker;
 import org.spongepowered.common.interfaces.IMixinBlockUpdate;
 import org.spongepowered.common.interfaces.IMixinChunk;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.world.storage.PlayerUniqueIdCompactor;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
@@ -90,6 +94,16 @@ public void onCreateSpawnPosition(WorldSettings settings, CallbackInfo ci) {
     @Inject(method = "init", at = @At("HEAD"))
     public void beforeInit(CallbackInfoReturnable<World> cir) {
         updateWorldGenerator();
+        if (SpongeHooks.getActiveConfig((WorldServer) (Object) this).getConfig().getWorld().compactPlayerIndexOnLoad()) {
+            // No chunks are loaded yet, so the saved chunks are all there is
+            try {
+                int freed = PlayerUniqueIdCompactor.compactOffline(((WorldServer) (Object) this).getSaveHandler().getWorldDirectory(),
+                        ((IMixinWorldInfo) this.worldInfo).getPlayerUniqueIdIndex());
+                SpongeImpl.getLogger().info("Freed {} unreferenced player ids of world {}", freed, this.worldInfo.getWorldName());
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to compact the player ids of world " + this.worldInfo.getWorldName(), e);
+            }
+        }
     }
 
     @Redirect(method = "updateBlocks", at = @At(value = "INVOKE", target = "Lnet/minecraft/block/Block;randomTick(Lnet/minecraft/world/World;Lnet/minecraft/util/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V"))
@@ -100,9 +114,11 @@ public void onUpdateBlocks(Block block, net.minecraft.world.World worldIn, Block
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
+        this.currentTickBlock = createSpongeSourceSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
         block.randomTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        }
         this.currentTickBlock = null;
         this.processingCaptureCause = false;
     }
@@ -115,9 +131,11 @@ public void onUpdateBlockTick(Block block, net.minecraft.world.World worldIn, Bl
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
+        this.currentTickBlock = createSpongeSourceSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        }
         this.currentTickBlock = null;
         this.processingCaptureCause = false;
     }
@@ -131,9 +149,11 @@ public void onUpdateTick(Block block, net.minecraft.world.World worldIn, BlockPo
         }
 
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
+        this.currentTickBlock = createSpongeSourceSnapshot(state, state.getBlock().getActualState(state, (IBlockAccess) this, pos), pos, 0);
         block.updateTick(worldIn, pos, state, rand);
-        handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        if (hasTickCaptures()) {
+            handlePostTickCaptures(Cause.of(NamedCause.source(this.currentTickBlock)));
+        }
         this.currentTickBlock = null;
         this.processingCaptureCause = false;
     }
@@ -183,7 +203,7 @@ public void onAddBlockEvent(BlockPos pos, Block blockIn, int eventID, int eventP
     public boolean onFireBlockEvent(net.minecraft.world.WorldServer worldIn, BlockEventData event) {
         IBlockState currentState = worldIn.getBlockState(event.getPosition());
         this.processingCaptureCause = true;
-        this.currentTickBlock = createSpongeBlockSnapshot(currentState, currentState.getBlock().getActualState(currentState, (IBlockAccess) this, event.getPosition()), event.getPosition(), 3);
+        this.currentTickBlock = createSpongeSourceSnapshot(currentState, currentState.getBlock().getActualState(currentState, (IBlockAccess) this, event.getPosition()), event.getPosition(), 3);
         Cause cause = Cause.of(NamedCause.source(this.currentTickBlock));
         if (this.trackedBlockEvents.get(event.getPosition()) != null) {
             User user = this.trackedBlockEvents.get(event.getPosition());
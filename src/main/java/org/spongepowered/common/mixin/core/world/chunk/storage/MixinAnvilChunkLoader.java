@@ -24,7 +24,6 @@
  */
 package org.spongepowered.common.mixin.core.world.chunk.storage;
 
-import com.google.common.collect.Maps;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.world.World;
@@ -35,11 +34,12 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.data.util.NbtDataUtil;
-import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.interfaces.IMixinChunk;
 
-import java.util.Map;
+import javax.annotation.Nullable;
 
 @Mixin(AnvilChunkLoader.class)
 public class MixinAnvilChunkLoader {
@@ -49,74 +49,95 @@ public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World wor
         IMixinChunk chunk = (IMixinChunk) chunkIn;
 
         // Add tracked block positions
-        if (chunk.getTrackedShortPlayerPositions().size() > 0 || chunk.getTrackedIntPlayerPositions().size() > 0) {
+        if (!chunk.getTrackedShortPlayerPositions().isEmpty() || !chunk.getTrackedIntPlayerPositions().isEmpty()) {
             NBTTagCompound trackedNbt = new NBTTagCompound();
-            NBTTagList positions = new NBTTagList();
-            trackedNbt.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
+            writeTrackers(trackedNbt, NbtDataUtil.SPONGE_SHORT_POS_TRACKERS, chunk.getTrackedShortPlayerPositions());
+            writeTrackers(trackedNbt, NbtDataUtil.SPONGE_INT_POS_TRACKERS, chunk.getTrackedIntPlayerPositions());
             compound.setTag(NbtDataUtil.SPONGE_DATA, trackedNbt);
+        }
+    }
 
-            for (Map.Entry<Short, PlayerTracker> mapEntry : chunk.getTrackedShortPlayerPositions().entrySet()) {
-                Short pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                if (ownerUniqueIdIndex != -1) {
-                    valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                }
-                if (notifierUniqueIdIndex != -1) {
-                    valueNbt.setInteger("notifier", notifierUniqueIdIndex);
-                }
-                valueNbt.setShort("pos", pos);
-                positions.appendTag(valueNbt);
-            }
+    private static void writeTrackers(NBTTagCompound trackedNbt, String key, PlayerTrackerMap trackers) {
+        if (trackers.isEmpty()) {
+            return;
+        }
+        int size = trackers.size();
+        int[] positions = new int[size];
+        int[] owners = new int[size];
+        int[] notifiers = new int[size];
+        trackers.toArrays(positions, owners, notifiers);
 
-            for (Map.Entry<Integer, PlayerTracker> mapEntry : chunk.getTrackedIntPlayerPositions().entrySet()) {
-                Integer pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
-                NBTTagCompound valueNbt = new NBTTagCompound();
-                if (ownerUniqueIdIndex != -1) {
-                    valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                }
-                if (notifierUniqueIdIndex != -1) {
-                    valueNbt.setInteger("notifier", notifierUniqueIdIndex);
-                }
-                valueNbt.setInteger("ipos", pos);
-                positions.appendTag(valueNbt);
-            }
+        NBTTagCompound trackersNbt = new NBTTagCompound();
+        trackersNbt.setIntArray(NbtDataUtil.SPONGE_TRACKER_POSITIONS, positions);
+        trackersNbt.setIntArray(NbtDataUtil.SPONGE_TRACKER_OWNERS, owners);
+        trackersNbt.setIntArray(NbtDataUtil.SPONGE_TRACKER_NOTIFIERS, notifiers);
+        trackedNbt.setTag(key, trackersNbt);
+    }
+
+    @Nullable
+    private static PlayerTrackerMap readTrackers(NBTTagCompound trackedNbt, String key) {
+        if (!trackedNbt.hasKey(key, NbtDataUtil.TAG_COMPOUND)) {
+            return null;
         }
+        NBTTagCompound trackersNbt = trackedNbt.getCompoundTag(key);
+        int[] positions = trackersNbt.getIntArray(NbtDataUtil.SPONGE_TRACKER_POSITIONS);
+        int[] owners = trackersNbt.getIntArray(NbtDataUtil.SPONGE_TRACKER_OWNERS);
+        int[] notifiers = trackersNbt.getIntArray(NbtDataUtil.SPONGE_TRACKER_NOTIFIERS);
+        if (positions.length != owners.length || positions.length != notifiers.length) {
+            SpongeImpl.getLogger().warn("Discarding corrupt block tracker table {}: {} positions, {} owners, {} notifiers", key,
+                    positions.length, owners.length, notifiers.length);
+            return null;
+        }
+        return PlayerTrackerMap.fromArrays(positions, owners, notifiers);
     }
 
     @Inject(method = "readChunkFromNBT", at = @At(value = "INVOKE", target = "Lnet/minecraft/nbt/NBTTagCompound;getIntArray(Ljava/lang/String;)[I", shift = At.Shift.BEFORE), locals = LocalCapture.CAPTURE_FAILHARD)
     public void onReadChunkFromNBT(World worldIn, NBTTagCompound compound, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> ci, int chunkX, int chunkZ, net.minecraft.world.chunk.Chunk chunkIn) {
         if (compound.hasKey(NbtDataUtil.SPONGE_DATA)) {
-            Map<Integer, PlayerTracker> trackedIntPlayerPositions = Maps.newHashMap();
-            Map<Short, PlayerTracker> trackedShortPlayerPositions = Maps.newHashMap();
-            NBTTagList positions = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA).getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, 10);
             IMixinChunk chunk = (IMixinChunk) chunkIn;
-            for (int i = 0; i < positions.tagCount(); i++) {
-                NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
-                boolean isShortPos = valueNbt.hasKey("pos");
-                PlayerTracker tracker = new PlayerTracker();
-                if (valueNbt.hasKey("owner")) {
-                    tracker.ownerIndex = valueNbt.getInteger("owner");
-                } else if (valueNbt.hasKey("uuid")) { // Migrate old data, remove in future
-                    tracker.ownerIndex = valueNbt.getInteger("uuid");
-                }
-                if (valueNbt.hasKey("notifier")) {
-                    tracker.notifierIndex = valueNbt.getInteger("notifier");
-                }
+            NBTTagCompound trackedNbt = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA);
+            if (trackedNbt.hasKey(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, NbtDataUtil.TAG_LIST)) {
+                // Migrate the old list format, it is written back packed on the next save
+                readLegacyTrackers(chunk, trackedNbt.getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, NbtDataUtil.TAG_COMPOUND));
+                return;
+            }
+            PlayerTrackerMap trackedShortPlayerPositions = readTrackers(trackedNbt, NbtDataUtil.SPONGE_SHORT_POS_TRACKERS);
+            if (trackedShortPlayerPositions != null) {
+                chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
+            }
+            PlayerTrackerMap trackedIntPlayerPositions = readTrackers(trackedNbt, NbtDataUtil.SPONGE_INT_POS_TRACKERS);
+            if (trackedIntPlayerPositions != null) {
+                chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
+            }
+        }
+    }
+
+    private static void readLegacyTrackers(IMixinChunk chunk, NBTTagList positions) {
+        PlayerTrackerMap trackedIntPlayerPositions = new PlayerTrackerMap();
+        PlayerTrackerMap trackedShortPlayerPositions = new PlayerTrackerMap(positions.tagCount());
+        for (int i = 0; i < positions.tagCount(); i++) {
+            NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
+            boolean isShortPos = valueNbt.hasKey("pos");
+            int owner = -1;
+            int notifier = -1;
+            if (valueNbt.hasKey("owner")) {
+                owner = valueNbt.getInteger("owner");
+            } else if (valueNbt.hasKey("uuid")) { // Migrate old data, remove in future
+                owner = valueNbt.getInteger("uuid");
+            }
+            if (valueNbt.hasKey("notifier")) {
+                notifier = valueNbt.getInteger("notifier");
+            }
 
-                if (tracker.notifierIndex != -1 || tracker.ownerIndex != -1) {
-                    if (isShortPos) {
-                        trackedShortPlayerPositions.put(valueNbt.getShort("pos"), tracker);
-                    } else {
-                        trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), tracker);
-                    }
+            if (notifier != -1 || owner != -1) {
+                if (isShortPos) {
+                    trackedShortPlayerPositions.put(valueNbt.getShort("pos"), owner, notifier);
+                } else {
+                    trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), owner, notifier);
                 }
             }
-            chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
-            chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
         }
+        chunk.setTrackedIntPlayerPositions(trackedIntPlayerPositions);
+        chunk.setTrackedShortPlayerPositions(trackedShortPlayerPositions);
     }
 }
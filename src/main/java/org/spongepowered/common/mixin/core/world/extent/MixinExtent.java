@@ -46,10 +46,10 @@
 import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
 import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.common.util.gen.AtomicByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.AtomicShortArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
-import org.spongepowered.common.util.gen.ShortArrayImmutableBlockBuffer;
-import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
 import org.spongepowered.common.world.extent.ExtentBufferUtil;
 import org.spongepowered.common.world.extent.ExtentViewDownsize;
 import org.spongepowered.common.world.extent.ExtentViewTransform;
@@ -194,6 +194,8 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
                 return new ByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, getBiomeMin(), getBiomeMax(), getBiomeSize()),
                     getBiomeMin(), getBiomeSize());
             case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, getBiomeMin(), getBiomeMax(), getBiomeSize()),
+                    getBiomeMin(), getBiomeSize());
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -240,9 +242,10 @@ public MutableBlockVolume getBlockCopy() {
     public MutableBlockVolume getBlockCopy(StorageType type) {
         switch (type) {
             case STANDARD:
-                return new ShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, getBlockMin(), getBlockMax(), getBlockSize()),
-                    getBlockMin(), getBlockSize());
+                return ExtentBufferUtil.newBlockCopy(this, getBlockMin(), getBlockMax(), getBlockSize());
             case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, getBlockMin(), getBlockMax(), getBlockSize()),
+                    getBlockMin(), getBlockSize());
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -250,8 +253,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
 
     @Override
     public ImmutableBlockVolume getImmutableBlockCopy() {
-        return ShortArrayImmutableBlockBuffer.newWithoutArrayClone(ExtentBufferUtil.copyToArray(this, getBlockMin(), getBlockMax(), getBlockSize()),
-            getBlockMin(), getBlockSize());
+        return ExtentBufferUtil.newImmutableBlockCopy(this, getBlockMin(), getBlockMax(), getBlockSize());
     }
 
 }
@@ -28,8 +28,6 @@
 
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableMap;
 import net.minecraft.nbt.JsonToNBT;
 import net.minecraft.nbt.NBTException;
@@ -73,11 +71,9 @@
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.persistence.NbtTranslator;
+import org.spongepowered.common.world.storage.PlayerUniqueIdIndex;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -92,10 +88,7 @@ public abstract class MixinWorldInfo implements WorldProperties, IMixinWorldInfo
     private boolean isMod;
     private NBTTagCompound spongeRootLevelNbt;
     private NBTTagCompound spongeNbt;
-    private NBTTagList playerUniqueIdNbt;
-    private BiMap<Integer, UUID> playerUniqueIdMap = HashBiMap.create();
-    private List<UUID> pendingUniqueIds = new ArrayList<>();
-    private int trackedUniqueIdCount = 0;
+    private PlayerUniqueIdIndex playerUniqueIdIndex = new PlayerUniqueIdIndex();
     private SpongeConfig<SpongeConfig.WorldConfig> worldConfig;
 
     private ServerScoreboard scoreboard;
@@ -144,8 +137,6 @@ public abstract class MixinWorldInfo implements WorldProperties, IMixinWorldInfo
     public void onConstruction(CallbackInfo ci) {
         this.spongeRootLevelNbt = new NBTTagCompound();
         this.spongeNbt = new NBTTagCompound();
-        this.playerUniqueIdNbt = new NBTTagList();
-        this.spongeNbt.setTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, this.playerUniqueIdNbt);
         this.spongeRootLevelNbt.setTag(NbtDataUtil.SPONGE_DATA, this.spongeNbt);
         if (this.dimensionType == null) {
             this.dimensionType = DimensionTypes.OVERWORLD;
@@ -615,18 +606,17 @@ public void setPropertySection(DataQuery path, DataView data) {
 
     @Override
     public int getIndexForUniqueId(UUID uuid) {
-        if (this.playerUniqueIdMap.inverse().get(uuid) == null) {
-            this.playerUniqueIdMap.put(this.trackedUniqueIdCount, uuid);
-            this.pendingUniqueIds.add(uuid);
-            return this.trackedUniqueIdCount++;
-        } else {
-            return this.playerUniqueIdMap.inverse().get(uuid);
-        }
+        return this.playerUniqueIdIndex.getOrAdd(uuid);
     }
 
     @Override
     public Optional<UUID> getUniqueIdForIndex(int index) {
-        return Optional.ofNullable(this.playerUniqueIdMap.get(index));
+        return Optional.ofNullable(this.playerUniqueIdIndex.get(index));
+    }
+
+    @Override
+    public PlayerUniqueIdIndex getPlayerUniqueIdIndex() {
+        return this.playerUniqueIdIndex;
     }
 
     @Override
@@ -646,11 +636,6 @@ public void setSpongeRootLevelNBT(NBTTagCompound nbt) {
         this.spongeRootLevelNbt = nbt;
         if (nbt.hasKey(NbtDataUtil.SPONGE_DATA)) {
             this.spongeNbt = nbt.getCompoundTag(NbtDataUtil.SPONGE_DATA);
-            if (this.spongeNbt.hasKey(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE)) {
-                this.playerUniqueIdNbt = this.spongeNbt.getTagList(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, 10);
-            } else {
-                this.spongeNbt.setTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, this.playerUniqueIdNbt);
-            }
         } else {
             // Migrate old NBT data to new location
             // Note: this should be removed soon
@@ -671,12 +656,16 @@ public void readSpongeNbt(NBTTagCompound nbt) {
                 this.dimensionType = type;
             }
         }
-        this.trackedUniqueIdCount = 0;
-        for (int i = 0; i < this.playerUniqueIdNbt.tagCount(); i++) {
-            NBTTagCompound valueNbt = this.playerUniqueIdNbt.getCompoundTagAt(i);
-            UUID uuid = new UUID(valueNbt.getLong("uuid_most"), valueNbt.getLong("uuid_least"));
-            this.playerUniqueIdMap.put(this.trackedUniqueIdCount, uuid);
-            this.trackedUniqueIdCount++;
+        if (nbt.hasKey(NbtDataUtil.SPONGE_PLAYER_UUID_INDEX, NbtDataUtil.TAG_INT_ARRAY)) {
+            this.playerUniqueIdIndex = PlayerUniqueIdIndex.fromIntArray(nbt.getIntArray(NbtDataUtil.SPONGE_PLAYER_UUID_INDEX));
+        } else {
+            // Migrate the old list format, it is replaced on the next save
+            this.playerUniqueIdIndex = new PlayerUniqueIdIndex();
+            NBTTagList playerUniqueIdNbt = nbt.getTagList(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, NbtDataUtil.TAG_COMPOUND);
+            for (int i = 0; i < playerUniqueIdNbt.tagCount(); i++) {
+                NBTTagCompound valueNbt = playerUniqueIdNbt.getCompoundTagAt(i);
+                this.playerUniqueIdIndex.getOrAdd(new UUID(valueNbt.getLong("uuid_most"), valueNbt.getLong("uuid_least")));
+            }
         }
     }
 
@@ -697,14 +686,10 @@ private void writeSpongeNbt() {
             this.spongeNbt.setBoolean("isMod", this.isMod);
         }
 
-        Iterator<UUID> iterator = this.pendingUniqueIds.iterator();
-        while (iterator.hasNext()) {
-            UUID uuidToAdd = iterator.next();
-            NBTTagCompound valueNbt = new NBTTagCompound();
-            valueNbt.setLong("uuid_most", uuidToAdd.getMostSignificantBits());
-            valueNbt.setLong("uuid_least", uuidToAdd.getLeastSignificantBits());
-            this.playerUniqueIdNbt.appendTag(valueNbt);
-            iterator.remove();
+        // Only rewrite the index if it changed
+        if (this.playerUniqueIdIndex.isDirty() || !this.spongeNbt.hasKey(NbtDataUtil.SPONGE_PLAYER_UUID_INDEX)) {
+            this.spongeNbt.setIntArray(NbtDataUtil.SPONGE_PLAYER_UUID_INDEX, this.playerUniqueIdIndex.toIntArray());
+            this.spongeNbt.removeTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE);
         }
 
         //this.scoreboard.fie
@@ -30,12 +30,12 @@
 import net.minecraft.entity.Entity;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.world.World;
-import org.spongepowered.asm.lib.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
 
 import java.util.List;
 
@@ -47,7 +47,7 @@ public class MixinWorld {
 
     @Shadow public boolean isRemote;
     @Shadow public List<Entity> loadedEntityList;
-    @Shadow public List<TileEntity> loadedTileEntityList;
+    @Shadow public List<TileEntity> tickableTileEntities;
 
     protected WorldTimingsHandler timings;
 
@@ -101,14 +101,8 @@ private void onTileEntityTickBegin(CallbackInfo ci) {
     @Inject(method = "updateEntities", at = @At("RETURN") )
     private void addTileEntityTicks(CallbackInfo ci) {
         if (!this.isRemote) {
-            TimingHistory.tileEntityTicks += this.loadedTileEntityList.size();
-        }
-    }
-
-    @Inject(method = "updateEntityWithOptionalForce", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/Entity;ticksExisted:I", opcode = Opcodes.GETFIELD) )
-    private void incrementActivatedEntityTicks(CallbackInfo ci) {
-        if (!this.isRemote) {
-            TimingHistory.activatedEntityTicks++;
+            TimingHistory.tileEntityTicks += this.tickableTileEntities.size();
+            TimingHistory.sleepingTileEntityTicks += ((IMixinWorld) this).getSleepingTileEntities().size();
         }
     }
 }
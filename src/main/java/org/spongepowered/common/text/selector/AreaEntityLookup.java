@@ -0,0 +1,87 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.selector;
+
+import com.flowpowered.math.GenericMath;
+import com.flowpowered.math.vector.Vector3d;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.world.Chunk;
+import org.spongepowered.api.world.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Collects the entities of a world that may be inside an area by visiting
+ * only the loaded chunks overlapping it, like vanilla's
+ * {@code World.getEntitiesWithinAABB} which the selectors of command blocks
+ * use.
+ *
+ * <p>The result may contain entities outside of the area, but never misses
+ * one inside of it.</p>
+ */
+final class AreaEntityLookup {
+
+    // Entities can be slightly outside of the chunk they are listed in, as in vanilla's entity lookups
+    static final double CHUNK_SEARCH_MARGIN = 2;
+    // Beyond this many chunks, scanning the entity list of the world is cheaper
+    static final int MAX_SEARCHED_CHUNKS = 1024;
+
+    private AreaEntityLookup() {
+    }
+
+    /**
+     * Gets the entities that pass the filter and may be inside the area.
+     *
+     * @param world The world
+     * @param min The lowest corner of the area
+     * @param max The highest corner of the area
+     * @param filter The filter the entities have to pass
+     * @return The entities
+     */
+    static Collection<Entity> getEntities(World world, Vector3d min, Vector3d max, Predicate<Entity> filter) {
+        final int minChunkX = GenericMath.floor(min.getX() - CHUNK_SEARCH_MARGIN) >> 4;
+        final int minChunkZ = GenericMath.floor(min.getZ() - CHUNK_SEARCH_MARGIN) >> 4;
+        final int maxChunkX = GenericMath.floor(max.getX() + CHUNK_SEARCH_MARGIN) >> 4;
+        final int maxChunkZ = GenericMath.floor(max.getZ() + CHUNK_SEARCH_MARGIN) >> 4;
+        if ((long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) > MAX_SEARCHED_CHUNKS) {
+            return world.getEntities(filter);
+        }
+        final List<Entity> entities = new ArrayList<>();
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Optional<Chunk> chunk = world.getChunk(chunkX, 0, chunkZ);
+                if (chunk.isPresent()) {
+                    entities.addAll(chunk.get().getEntities(filter));
+                }
+            }
+        }
+        return entities;
+    }
+
+}
@@ -56,7 +56,6 @@
 import org.spongepowered.api.util.Functional;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.command.source.LocatedSource;
-import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.extent.Extent;
@@ -72,8 +71,16 @@
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 /**
  * A resolver that acts like Vanilla Minecraft in many regards.
+ *
+ * <p>Selectors limited to an area by their radius or volume arguments only
+ * look at the entities of the chunks in that area, through
+ * {@link AreaEntityLookup}. Command blocks resolve selectors through
+ * vanilla's {@code PlayerSelector} instead, which bounds those searches the
+ * same way with {@code World.getEntitiesWithinAABB}.</p>
  */
 // TODO decide if we want selector resolvers as part of the API, ask @kenzierocks for details
 public class SelectorResolver {
@@ -116,7 +123,10 @@ private static <I, R> Predicate<I> requireTypePredicate(Class<I> inputType, fina
     private final Vector3d position;
     private final Optional<CommandSource> original;
     private final Selector selector;
+    private final Predicate<Entity> typeFilter;
     private final Predicate<Entity> selectorFilter;
+    @Nullable private final Vector3d searchMin;
+    @Nullable private final Vector3d searchMax;
     private final boolean alwaysUsePosition;
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
@@ -137,16 +147,25 @@ private SelectorResolver(Collection<? extends Extent> extents, Vector3d position
         this.position = position == null ? ORIGIN : position;
         this.original = Optional.ofNullable(original);
         this.selector = checkNotNull(selector);
+        this.typeFilter = makeTypeFilter();
         this.selectorFilter = makeFilter();
         this.alwaysUsePosition = force;
+        Vector3d center = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        Vector3d searchMin = getSearchMin(center);
+        Vector3d searchMax = getSearchMax(center);
+        if (Double.isInfinite(searchMin.getX()) || Double.isInfinite(searchMin.getZ())
+                || Double.isInfinite(searchMax.getX()) || Double.isInfinite(searchMax.getZ())) {
+            this.searchMin = null;
+            this.searchMax = null;
+        } else {
+            this.searchMin = searchMin;
+            this.searchMax = searchMax;
+        }
     }
 
     private Predicate<Entity> makeFilter() {
-        // for easier reading
-        final Selector sel = this.selector;
         Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
         List<Predicate<Entity>> filters = Lists.newArrayList();
-        addTypeFilters(filters);
         addDimensionFilters(position, filters);
         addRadiusFilters(position, filters);
         addLevelFilters(filters);
@@ -155,6 +174,18 @@ private Predicate<Entity> makeFilter() {
         addRotationFilters(filters);
         addTeamFilters(filters);
         addScoreFilters(filters);
+        return Functional.predicateAnd(filters);
+    }
+
+    /**
+     * Makes the filters on the type of entities, which are applied while the
+     * entities are collected from the extents, before all other filters.
+     */
+    private Predicate<Entity> makeTypeFilter() {
+        // for easier reading
+        final Selector sel = this.selector;
+        List<Predicate<Entity>> filters = Lists.newArrayList();
+        addTypeFilters(filters);
         SelectorType selectorType = sel.getType();
         Optional<Invertible<EntityType>> type = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
         // isn't an ALL_ENTITIES selector or it is a RANDOM selector for only players
@@ -169,6 +200,62 @@ private Predicate<Entity> makeFilter() {
         return Functional.predicateAnd(filters);
     }
 
+    /**
+     * Gets the lowest corner of the area that the radius and volume
+     * arguments limit the selected entities to. Unlimited axes are infinite.
+     */
+    private Vector3d getSearchMin(Vector3d position) {
+        double x = Double.NEGATIVE_INFINITY;
+        double y = Double.NEGATIVE_INFINITY;
+        double z = Double.NEGATIVE_INFINITY;
+        Optional<Integer> radiusMax = this.selector.get(ArgumentTypes.RADIUS.maximum());
+        if (radiusMax.isPresent()) {
+            Vector3d min = position.sub(radiusMax.get(), radiusMax.get(), radiusMax.get());
+            x = min.getX();
+            y = min.getY();
+            z = min.getZ();
+        }
+        Vector3d boxMin = position.min(position.add(getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION)));
+        if (this.selector.has(ArgumentTypes.DIMENSION.x())) {
+            x = Math.max(x, boxMin.getX());
+        }
+        if (this.selector.has(ArgumentTypes.DIMENSION.y())) {
+            y = Math.max(y, boxMin.getY());
+        }
+        if (this.selector.has(ArgumentTypes.DIMENSION.z())) {
+            z = Math.max(z, boxMin.getZ());
+        }
+        return new Vector3d(x, y, z);
+    }
+
+    /**
+     * Gets the highest corner of the area that the radius and volume
+     * arguments limit the selected entities to. Unlimited axes are infinite.
+     */
+    private Vector3d getSearchMax(Vector3d position) {
+        double x = Double.POSITIVE_INFINITY;
+        double y = Double.POSITIVE_INFINITY;
+        double z = Double.POSITIVE_INFINITY;
+        Optional<Integer> radiusMax = this.selector.get(ArgumentTypes.RADIUS.maximum());
+        if (radiusMax.isPresent()) {
+            Vector3d max = position.add(radiusMax.get(), radiusMax.get(), radiusMax.get());
+            x = max.getX();
+            y = max.getY();
+            z = max.getZ();
+        }
+        Vector3d boxMax = position.max(position.add(getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION)));
+        if (this.selector.has(ArgumentTypes.DIMENSION.x())) {
+            x = Math.min(x, boxMax.getX());
+        }
+        if (this.selector.has(ArgumentTypes.DIMENSION.y())) {
+            y = Math.min(y, boxMax.getY());
+        }
+        if (this.selector.has(ArgumentTypes.DIMENSION.z())) {
+            z = Math.min(z, boxMax.getZ());
+        }
+        return new Vector3d(x, y, z);
+    }
+
     private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>> filters) {
         Selector sel = this.selector;
         Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
@@ -352,7 +439,7 @@ public Set<Entity> resolve() {
         int count = 0;
         ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
         for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
+            Collection<Entity> allEntities = getCandidates(extent);
             if (selectorType == SelectorTypes.RANDOM) {
                 List<Entity> entityList = new ArrayList<>(allEntities);
                 Collections.shuffle(entityList);
@@ -373,6 +460,18 @@ public Set<Entity> resolve() {
         return entities.build();
     }
 
+    /**
+     * Gets the entities of an extent that pass the type filters. When the
+     * arguments limit the selected entities to an area, only the entities of
+     * the chunks in that area are looked at.
+     */
+    private Collection<Entity> getCandidates(Extent extent) {
+        if (this.searchMin == null || this.searchMax == null || !(extent instanceof World)) {
+            return extent.getEntities(this.typeFilter);
+        }
+        return AreaEntityLookup.getEntities((World) extent, this.searchMin, this.searchMax, this.typeFilter);
+    }
+
     private Set<? extends Extent> getExtentSet() {
         if (!this.alwaysUsePosition && Collections.disjoint(getArgumentTypes(this.selector.getArguments()), LOCATION_BASED_ARGUMENTS)) {
             return ImmutableSet.copyOf(SpongeImpl.getGame().getServer().getWorlds());
@@ -27,6 +27,8 @@
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -117,15 +119,29 @@ private static <T> Optional<T> recast(Optional<?> source) {
             Maps.newLinkedHashMap();
     private final Map<String, ArgumentType<?>> argumentLookupMap = Maps
             .newLinkedHashMap();
+    // Selectors are immutable, and the same ones are parsed over and over
+    // again by repeating commands
+    private final Cache<String, Selector> selectorCache = CacheBuilder.newBuilder()
+            .maximumSize(512)
+            .build();
 
     @Override
     public SelectorBuilder createBuilder(SelectorType type) {
         return new SpongeSelectorBuilder(type);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Selector parseRawSelector(String selector) {
+        Selector parsed = this.selectorCache.getIfPresent(selector);
+        if (parsed == null) {
+            parsed = parseSelector(selector);
+            this.selectorCache.put(selector, parsed);
+        }
+        return parsed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Selector parseSelector(String selector) {
         checkArgument(selector.startsWith("@"), "Invalid selector %s",
                 selector);
         // If multi-character types are possible, this handles it
@@ -67,6 +67,10 @@ protected int getIndex(int x, int y, int z) {
         return (x - this.start.getX()) * this.yzSlice + (z - this.start.getZ()) * this.yLine + (y - this.start.getY());
     }
 
+    protected long getLongIndex(int x, int y, int z) {
+        return ((long) (x - this.start.getX()) * this.size.getZ() + (z - this.start.getZ())) * this.yLine + (y - this.start.getY());
+    }
+
     @Override
     public Vector3i getBlockMax() {
         return this.end;
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A byte array in which elements may be updated atomically. Four bytes are
+ * packed into every int of a backing {@link AtomicIntegerArray}, and writes
+ * compare-and-set the containing int until they succeed, so concurrent writes
+ * to neighbouring elements never lose each other's updates.
+ */
+public final class AtomicByteArray {
+
+    private final int length;
+    private final AtomicIntegerArray words;
+
+    public AtomicByteArray(int length) {
+        checkArgument(length >= 0, "length must not be negative");
+        this.length = length;
+        this.words = new AtomicIntegerArray((length + 3) >>> 2);
+    }
+
+    public AtomicByteArray(byte[] array) {
+        final int[] words = new int[(array.length + 3) >>> 2];
+        for (int i = 0; i < array.length; i++) {
+            words[i >>> 2] = pack(words[i >>> 2], i, array[i]);
+        }
+        this.length = array.length;
+        this.words = new AtomicIntegerArray(words);
+    }
+
+    private static int shift(int index) {
+        return (index & 3) << 3;
+    }
+
+    private static int pack(int word, int index, byte value) {
+        final int shift = shift(index);
+        return (word & ~(0xff << shift)) | ((value & 0xff) << shift);
+    }
+
+    private static byte unpack(int word, int index) {
+        return (byte) (word >>> shift(index));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    public byte get(int index) {
+        checkIndex(index);
+        return unpack(this.words.get(index >>> 2), index);
+    }
+
+    public void set(int index, byte value) {
+        getAndSet(index, value);
+    }
+
+    public byte getAndSet(int index, byte value) {
+        checkIndex(index);
+        final int word = index >>> 2;
+        int current;
+        do {
+            current = this.words.get(word);
+        } while (!this.words.compareAndSet(word, current, pack(current, index, value)));
+        return unpack(current, index);
+    }
+
+    public boolean compareAndSet(int index, byte expect, byte update) {
+        checkIndex(index);
+        final int word = index >>> 2;
+        int current;
+        do {
+            current = this.words.get(word);
+            if (unpack(current, index) != expect) {
+                return false;
+            }
+        } while (!this.words.compareAndSet(word, current, pack(current, index, update)));
+        return true;
+    }
+
+    /**
+     * Copies the elements into a new array. Each element is read atomically,
+     * but the copy as a whole is not a snapshot if writes happen concurrently.
+     *
+     * @return A new array holding the elements
+     */
+    public byte[] toArray() {
+        final byte[] array = new byte[this.length];
+        for (int i = 0; i < this.length; i++) {
+            array[i] = unpack(this.words.get(i >>> 2), i);
+        }
+        return array;
+    }
+
+}
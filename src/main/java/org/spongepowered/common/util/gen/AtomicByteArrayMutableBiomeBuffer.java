@@ -0,0 +1,127 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector2i;
+import net.minecraft.world.biome.BiomeGenBase;
+import org.spongepowered.api.util.DiscreteTransform2;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.BiomeTypes;
+import org.spongepowered.api.world.extent.ImmutableBiomeArea;
+import org.spongepowered.api.world.extent.MutableBiomeArea;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
+import org.spongepowered.common.world.extent.MutableBiomeViewDownsize;
+import org.spongepowered.common.world.extent.MutableBiomeViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBiomeAreaWrapper;
+
+/**
+ * Mutable biome area backed by an {@link AtomicByteArray}. Biomes may be
+ * read and written from several threads at once without external locking.
+ */
+@NonnullByDefault
+public final class AtomicByteArrayMutableBiomeBuffer extends AbstractBiomeBuffer implements MutableBiomeArea {
+
+    private final AtomicByteArray biomes;
+    private final BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
+
+    public AtomicByteArrayMutableBiomeBuffer(Vector2i start, Vector2i size) {
+        this(new AtomicByteArray(size.getX() * size.getY()), start, size);
+    }
+
+    public AtomicByteArrayMutableBiomeBuffer(byte[] biomes, Vector2i start, Vector2i size) {
+        this(new AtomicByteArray(biomes), start, size);
+    }
+
+    private AtomicByteArrayMutableBiomeBuffer(AtomicByteArray biomes, Vector2i start, Vector2i size) {
+        super(start, size);
+        this.biomes = biomes;
+    }
+
+    @Override
+    public void setBiome(Vector2i position, BiomeType biome) {
+        setBiome(position.getX(), position.getY(), biome);
+    }
+
+    @Override
+    public void setBiome(int x, int z, BiomeType biome) {
+        checkRange(x, z);
+        this.biomes.set(getIndex(x, z), (byte) ((BiomeGenBase) biome).biomeID);
+    }
+
+    @Override
+    public BiomeType getBiome(Vector2i position) {
+        return getBiome(position.getX(), position.getY());
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Override
+    public BiomeType getBiome(int x, int z) {
+        checkRange(x, z);
+        byte biomeId = this.biomes.get(getIndex(x, z));
+        BiomeType biomeType = (BiomeType) this.biomeById[biomeId & 0xff];
+        return biomeType == null ? BiomeTypes.OCEAN : biomeType;
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(Vector2i newMin, Vector2i newMax) {
+        checkRange(newMin.getX(), newMin.getY());
+        checkRange(newMax.getX(), newMax.getY());
+        return new MutableBiomeViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeView(DiscreteTransform2 transform) {
+        return new MutableBiomeViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBiomeArea getRelativeBiomeView() {
+        return getBiomeView(DiscreteTransform2.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBiomeArea getUnmodifiableBiomeView() {
+        return new UnmodifiableBiomeAreaWrapper(this);
+    }
+
+    @Override
+    public MutableBiomeArea getBiomeCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new ByteArrayMutableBiomeBuffer(this.biomes.toArray(), this.start, this.size);
+            case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(this.biomes.toArray(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBiomeArea getImmutableBiomeCopy() {
+        return ByteArrayImmutableBiomeBuffer.newWithoutArrayClone(this.biomes.toArray(), this.start, this.size);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A short array in which elements may be updated atomically. Two shorts are
+ * packed into every int of a backing {@link AtomicIntegerArray}, and writes
+ * compare-and-set the containing int until they succeed, so concurrent writes
+ * to neighbouring elements never lose each other's updates.
+ */
+public final class AtomicShortArray {
+
+    private final int length;
+    private final AtomicIntegerArray words;
+
+    public AtomicShortArray(int length) {
+        checkArgument(length >= 0, "length must not be negative");
+        this.length = length;
+        this.words = new AtomicIntegerArray((length + 1) >>> 1);
+    }
+
+    public AtomicShortArray(short[] array) {
+        final int[] words = new int[(array.length + 1) >>> 1];
+        for (int i = 0; i < array.length; i++) {
+            words[i >>> 1] = pack(words[i >>> 1], i, array[i]);
+        }
+        this.length = array.length;
+        this.words = new AtomicIntegerArray(words);
+    }
+
+    private static int shift(int index) {
+        return (index & 1) << 4;
+    }
+
+    private static int pack(int word, int index, short value) {
+        final int shift = shift(index);
+        return (word & ~(0xffff << shift)) | ((value & 0xffff) << shift);
+    }
+
+    private static short unpack(int word, int index) {
+        return (short) (word >>> shift(index));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    public short get(int index) {
+        checkIndex(index);
+        return unpack(this.words.get(index >>> 1), index);
+    }
+
+    public void set(int index, short value) {
+        getAndSet(index, value);
+    }
+
+    public short getAndSet(int index, short value) {
+        checkIndex(index);
+        final int word = index >>> 1;
+        int current;
+        do {
+            current = this.words.get(word);
+        } while (!this.words.compareAndSet(word, current, pack(current, index, value)));
+        return unpack(current, index);
+    }
+
+    public boolean compareAndSet(int index, short expect, short update) {
+        checkIndex(index);
+        final int word = index >>> 1;
+        int current;
+        do {
+            current = this.words.get(word);
+            if (unpack(current, index) != expect) {
+                return false;
+            }
+        } while (!this.words.compareAndSet(word, current, pack(current, index, update)));
+        return true;
+    }
+
+    /**
+     * Copies the elements into a new array. Each element is read atomically,
+     * but the copy as a whole is not a snapshot if writes happen concurrently.
+     *
+     * @return A new array holding the elements
+     */
+    public short[] toArray() {
+        final short[] array = new short[this.length];
+        for (int i = 0; i < this.length; i += 2) {
+            final int word = this.words.get(i >>> 1);
+            array[i] = unpack(word, i);
+            if (i + 1 < this.length) {
+                array[i + 1] = unpack(word, i + 1);
+            }
+        }
+        return array;
+    }
+
+}
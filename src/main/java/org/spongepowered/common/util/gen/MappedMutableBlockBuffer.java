@@ -0,0 +1,157 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
+import org.spongepowered.common.world.extent.MutableBlockViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
+
+/**
+ * Mutable block volume backed by a {@link MappedShortArray}, so the blocks
+ * are kept off the heap and the volume may have more blocks than fit into
+ * an array.
+ *
+ * <p>Copies share the mapped blocks with this buffer. A buffer that writes
+ * to shared blocks makes its own copy of them first, the other holders keep
+ * using the original without copying.</p>
+ *
+ * <p>{@link #close() Closing} the buffer releases its blocks, and the file
+ * mapping goes away once no other buffer shares them. Otherwise the mapping
+ * stays until the garbage collector gets to it.</p>
+ */
+@NonnullByDefault
+public class MappedMutableBlockBuffer extends AbstractBlockBuffer implements MutableBlockVolume, AutoCloseable {
+
+    @SuppressWarnings("ConstantConditions")
+    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+    private MappedShortArray blocks;
+    private boolean closed;
+
+    public MappedMutableBlockBuffer(Vector3i start, Vector3i size) {
+        this(new MappedShortArray((long) size.getX() * size.getY() * size.getZ()), start, size);
+    }
+
+    public MappedMutableBlockBuffer(MappedShortArray blocks, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public void setBlock(Vector3i position, BlockState block) {
+        setBlock(position.getX(), position.getY(), position.getZ(), block);
+    }
+
+    @Override
+    public void setBlockType(Vector3i position, BlockType type) {
+        setBlockType(position.getX(), position.getY(), position.getZ(), type);
+    }
+
+    @Override
+    public void setBlockType(int x, int y, int z, BlockType type) {
+        setBlock(x, y, z, type.getDefaultState());
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, BlockState block) {
+        checkRange(x, y, z);
+        checkState(!this.closed, "The buffer was closed");
+        this.blocks = this.blocks.forWriting();
+        this.blocks.set(getLongIndex(x, y, z), (short) Block.BLOCK_STATE_IDS.get(block));
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        checkState(!this.closed, "The buffer was closed");
+        BlockState block = (BlockState) Block.BLOCK_STATE_IDS.getByValue(this.blocks.get(getLongIndex(x, y, z)));
+        return block == null ? AIR : block;
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
+        checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
+        checkRange(newMax.getX(), newMax.getY(), newMax.getZ());
+        return new MutableBlockViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockView(DiscreteTransform3 transform) {
+        return new MutableBlockViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBlockVolume getRelativeBlockView() {
+        return getBlockView(DiscreteTransform3.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBlockVolume getUnmodifiableBlockView() {
+        return new UnmodifiableBlockVolumeWrapper(this);
+    }
+
+    @Override
+    public MutableBlockVolume getBlockCopy(StorageType type) {
+        checkState(!this.closed, "The buffer was closed");
+        switch (type) {
+            case STANDARD:
+                return new MappedMutableBlockBuffer(this.blocks.share(), this.start, this.size);
+            case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(this.blocks.toArray(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBlockVolume getImmutableBlockCopy() {
+        checkState(!this.closed, "The buffer was closed");
+        return new MappedImmutableBlockBuffer(this.blocks.share(), this.start, this.size);
+    }
+
+    /**
+     * Releases the blocks of this buffer. The buffer must not be used
+     * afterwards, copies made from it are unaffected.
+     */
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.blocks.close();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import org.apache.logging.log4j.LogManager;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A short array of up to {@link Long#MAX_VALUE} entries that lives in
+ * memory-mapped temporary files instead of on the heap. The array is split
+ * into fixed-size pages, each mapped separately since a single mapping is
+ * limited to 2GB.
+ *
+ * <p>Block buffers share an array through {@link #share()} and get an array
+ * of their own from {@link #forWriting()} before they write. The pages are
+ * shared between copies of an array, and a page is only copied once one of
+ * them writes to it. A page is unmapped once no array uses it anymore, or
+ * otherwise when it is garbage collected. Temporary files are deleted as
+ * soon as they are mapped where the OS allows it, and otherwise when the JVM
+ * exits.</p>
+ *
+ * <p>Several threads may write to an array at once as long as it doesn't
+ * share the pages they write to.</p>
+ */
+public final class MappedShortArray implements AutoCloseable {
+
+    // 1M entries, 2MB per page. Smaller pages are cheaper to copy on write,
+    // but every page is a mapping of its own
+    private static final int PAGE_SHIFT = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static boolean loggedUnmapFailure;
+
+    private final long length;
+    // Null once the array is closed
+    private Page[] pages;
+    // Number of holders besides the first one
+    private final AtomicInteger shares = new AtomicInteger();
+
+    public MappedShortArray(long length) {
+        checkArgument(length >= 0, "length must not be negative");
+        this.length = length;
+        this.pages = new Page[(int) ((length + PAGE_MASK) >>> PAGE_SHIFT)];
+        try {
+            final File file = createTempFile();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                // The file stays sparse until the pages are written to
+                raf.setLength(length * 2);
+                final FileChannel channel = raf.getChannel();
+                for (int i = 0; i < this.pages.length; i++) {
+                    final long pageStart = (long) i << PAGE_SHIFT;
+                    final long pageLength = Math.min(PAGE_SIZE, length - pageStart);
+                    this.pages[i] = new Page(channel.map(FileChannel.MapMode.READ_WRITE, pageStart * 2, pageLength * 2));
+                }
+            } finally {
+                deleteTempFile(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to map a temporary file for " + length + " blocks", e);
+        }
+    }
+
+    private MappedShortArray(long length, Page[] pages) {
+        this.length = length;
+        this.pages = pages;
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    private void checkIndex(long index) {
+        checkState(this.pages != null, "The array was closed");
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+    }
+
+    public short get(long index) {
+        checkIndex(index);
+        return this.pages[(int) (index >>> PAGE_SHIFT)].buffer.get((int) (index & PAGE_MASK));
+    }
+
+    public void set(long index, short value) {
+        checkIndex(index);
+        getWritablePage((int) (index >>> PAGE_SHIFT)).put((int) (index & PAGE_MASK), value);
+    }
+
+    /**
+     * Copies a whole array into this one, starting at the given index.
+     *
+     * @param index The index to copy the first element to
+     * @param values The values to copy
+     */
+    public void set(long index, short[] values) {
+        checkState(this.pages != null, "The array was closed");
+        checkArgument(index >= 0 && index + values.length <= this.length, "Values don't fit at index %s", index);
+        int copied = 0;
+        while (copied < values.length) {
+            final long position = index + copied;
+            // Duplicate so concurrent bulk copies don't share a position
+            final ShortBuffer page = getWritablePage((int) (position >>> PAGE_SHIFT)).duplicate();
+            page.position((int) (position & PAGE_MASK));
+            final int count = Math.min(values.length - copied, page.remaining());
+            page.put(values, copied, count);
+            copied += count;
+        }
+    }
+
+    /**
+     * Gets a page this array may write to, copying it first if it is shared
+     * with another array.
+     */
+    private ShortBuffer getWritablePage(int pageIndex) {
+        Page page = this.pages[pageIndex];
+        if (page.users.get() == 1) {
+            return page.buffer;
+        }
+        synchronized (this) {
+            page = this.pages[pageIndex];
+            if (page.users.get() > 1) {
+                final Page copy = page.copy();
+                this.pages[pageIndex] = copy;
+                page.release();
+                page = copy;
+            }
+            return page.buffer;
+        }
+    }
+
+    /**
+     * Creates a copy of this array. The copy shares the pages of this array
+     * until either of them writes to a page.
+     *
+     * @return The copy
+     */
+    public MappedShortArray copy() {
+        final Page[] pages = this.pages;
+        checkState(pages != null, "The array was closed");
+        final Page[] copy = new Page[pages.length];
+        for (int i = 0; i < pages.length; i++) {
+            copy[i] = pages[i];
+            copy[i].users.incrementAndGet();
+        }
+        return new MappedShortArray(this.length, copy);
+    }
+
+    /**
+     * Copies the entries onto the heap.
+     *
+     * @return A new array holding the entries
+     */
+    public short[] toArray() {
+        checkState(this.pages != null, "The array was closed");
+        // Leave 8 bytes for a header used in some JVMs
+        if (this.length > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Cannot copy the blocks to an array because the size limit was reached");
+        }
+        final short[] array = new short[(int) this.length];
+        for (int i = 0; i < this.pages.length; i++) {
+            final ShortBuffer page = this.pages[i].buffer.duplicate();
+            page.get(array, i << PAGE_SHIFT, page.remaining());
+        }
+        return array;
+    }
+
+    /**
+     * Registers another holder of this array. Holders must not write to
+     * the array they hold, only to the one {@link #forWriting()} returns,
+     * and must close it once they are done with it.
+     *
+     * @return This array
+     */
+    MappedShortArray share() {
+        this.shares.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Gets an array the calling holder can write to. This is the array
+     * itself if no one else holds it. Otherwise the caller stops holding
+     * it and gets a copy of its own, see {@link #copy()}.
+     *
+     * @return The array to write to
+     */
+    MappedShortArray forWriting() {
+        while (true) {
+            final int shares = this.shares.get();
+            if (shares == 0) {
+                return this;
+            }
+            // Share the pages before giving up the share, so the last holder
+            // copies the pages it writes to rather than writing in place
+            final MappedShortArray copy = copy();
+            if (this.shares.compareAndSet(shares, shares - 1)) {
+                return copy;
+            }
+            copy.close();
+        }
+    }
+
+    /**
+     * Releases the caller's hold on this array, and releases the pages if it
+     * was the last holder. The caller must not use the array afterwards.
+     */
+    @Override
+    public void close() {
+        if (this.shares.getAndDecrement() == 0) {
+            final Page[] pages = this.pages;
+            this.pages = null;
+            for (Page page : pages) {
+                page.release();
+            }
+        }
+    }
+
+    private static File createTempFile() throws IOException {
+        return File.createTempFile("sponge-blocks", ".dat");
+    }
+
+    private static void deleteTempFile(File file) {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static void unmap(MappedByteBuffer mapping) {
+        // There is no public API to unmap a buffer
+        try {
+            // Java 9 and later
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), mapping);
+            return;
+        } catch (NoSuchMethodException e) {
+            // Java 8, the buffer has a cleaner instead
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logUnmapFailure(e);
+            return;
+        }
+        try {
+            final Method cleanerMethod = mapping.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(mapping);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logUnmapFailure(e);
+        }
+    }
+
+    private static synchronized void logUnmapFailure(Exception e) {
+        // Once is enough, it fails the same way for every buffer
+        if (loggedUnmapFailure) {
+            return;
+        }
+        loggedUnmapFailure = true;
+        final String message = "Failed to unmap a block buffer, its memory is only released once it is garbage collected";
+        try {
+            SpongeImpl.getLogger().warn(message, e);
+        } catch (ExceptionInInitializerError | IllegalStateException e2) {
+            LogManager.getLogger("Sponge").warn(message, e); // Running test suite
+        }
+    }
+
+    /**
+     * A mapped page, counting the arrays that use it.
+     */
+    private static final class Page {
+
+        final MappedByteBuffer mapping;
+        final ShortBuffer buffer;
+        final AtomicInteger users = new AtomicInteger(1);
+
+        Page(MappedByteBuffer mapping) {
+            this.mapping = mapping;
+            this.buffer = mapping.asShortBuffer();
+        }
+
+        Page copy() {
+            try {
+                final File file = createTempFile();
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    final Page copy = new Page(raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, this.mapping.capacity()));
+                    copy.buffer.duplicate().put(this.buffer.duplicate());
+                    return copy;
+                } finally {
+                    deleteTempFile(file);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to map a temporary file to copy " + this.buffer.capacity() + " blocks", e);
+            }
+        }
+
+        void release() {
+            if (this.users.decrementAndGet() == 0) {
+                unmap(this.mapping);
+            }
+        }
+    }
+
+}
@@ -33,6 +33,7 @@
 import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
+import org.spongepowered.common.world.extent.ExtentBufferUtil;
 import org.spongepowered.common.world.extent.ImmutableBiomeViewDownsize;
 import org.spongepowered.common.world.extent.ImmutableBiomeViewTransform;
 
@@ -101,6 +102,8 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
             case STANDARD:
                 return new ObjectArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, this.start, this.end, this.size),
+                    this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
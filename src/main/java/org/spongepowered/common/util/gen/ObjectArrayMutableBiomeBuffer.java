@@ -35,6 +35,7 @@
 import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.api.world.extent.UnmodifiableBiomeArea;
+import org.spongepowered.common.world.extent.ExtentBufferUtil;
 import org.spongepowered.common.world.extent.MutableBiomeViewDownsize;
 import org.spongepowered.common.world.extent.MutableBiomeViewTransform;
 import org.spongepowered.common.world.extent.UnmodifiableBiomeAreaWrapper;
@@ -116,6 +117,8 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
             case STANDARD:
                 return new ObjectArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
             case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, this.start, this.end, this.size),
+                    this.start, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -0,0 +1,290 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores block state ids as indices into a palette, bit-packed into a long
+ * array. Entries start out 1 bit wide and are widened to 2, 4, 8 and finally
+ * 16 bits when the palette outgrows them, so a volume with only a handful of
+ * different blocks takes a fraction of the 2 bytes per block of a short
+ * array. Entries never straddle two longs.
+ *
+ * <p>Indices are longs, which allows more entries than a Java array can
+ * hold as long as the packed longs themselves fit into one.</p>
+ *
+ * <p>Block buffers share an array through {@link #share()} and get a private
+ * copy from {@link #forWriting()} before they write, so only the buffer that
+ * writes to shared blocks pays for cloning them.</p>
+ */
+public final class PalettedBlockArray {
+
+    private final long length;
+    private int bitsLog;
+    private long[] words;
+    private int[] palette;
+    private int paletteSize;
+    // Open addressing table from state id + 1 to palette index
+    private int[] lookupKeys;
+    private int[] lookupValues;
+    // Number of holders besides the first one
+    private final AtomicInteger shares = new AtomicInteger();
+
+    /**
+     * Creates a new array where every entry is state id 0, which is air.
+     *
+     * @param length The number of entries
+     */
+    public PalettedBlockArray(long length) {
+        checkArgument(length >= 0, "length must not be negative");
+        this.length = length;
+        this.words = new long[wordCount(length, 0)];
+        this.palette = new int[2];
+        this.lookupKeys = new int[4];
+        this.lookupValues = new int[4];
+        addToPalette(0);
+    }
+
+    private PalettedBlockArray(PalettedBlockArray other) {
+        this.length = other.length;
+        this.bitsLog = other.bitsLog;
+        this.words = other.words.clone();
+        this.palette = other.palette.clone();
+        this.paletteSize = other.paletteSize;
+        this.lookupKeys = other.lookupKeys.clone();
+        this.lookupValues = other.lookupValues.clone();
+    }
+
+    private static int wordCount(long length, int bitsLog) {
+        final int entriesPerWordLog = 6 - bitsLog;
+        final long words = (length + (1L << entriesPerWordLog) - 1) >>> entriesPerWordLog;
+        // Leave 8 bytes for a header used in some JVMs
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Cannot store the blocks because the size limit was reached");
+        }
+        return (int) words;
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * Gets the number of bits currently used to store each entry.
+     *
+     * @return The bits per entry
+     */
+    public int getBitsPerEntry() {
+        return 1 << this.bitsLog;
+    }
+
+    public int getPaletteSize() {
+        return this.paletteSize;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+    }
+
+    public int get(long index) {
+        checkIndex(index);
+        return this.palette[getPaletteIndex(this.words, this.bitsLog, index)];
+    }
+
+    public void set(long index, int stateId) {
+        checkIndex(index);
+        checkArgument(stateId >= 0 && stateId <= 0xffff, "Invalid state id %s", stateId);
+        int paletteIndex = lookup(stateId);
+        if (paletteIndex < 0) {
+            paletteIndex = addToPalette(stateId);
+        }
+        setPaletteIndex(this.words, this.bitsLog, index, paletteIndex);
+    }
+
+    private static int getPaletteIndex(long[] words, int bitsLog, long index) {
+        final int entriesPerWordLog = 6 - bitsLog;
+        final int shift = (int) (index & ((1 << entriesPerWordLog) - 1)) << bitsLog;
+        return (int) (words[(int) (index >>> entriesPerWordLog)] >>> shift) & ((1 << (1 << bitsLog)) - 1);
+    }
+
+    private static void setPaletteIndex(long[] words, int bitsLog, long index, int paletteIndex) {
+        final int entriesPerWordLog = 6 - bitsLog;
+        final int shift = (int) (index & ((1 << entriesPerWordLog) - 1)) << bitsLog;
+        final long mask = ((1L << (1 << bitsLog)) - 1) << shift;
+        final int word = (int) (index >>> entriesPerWordLog);
+        words[word] = words[word] & ~mask | (long) paletteIndex << shift;
+    }
+
+    private int lookup(int stateId) {
+        final int mask = this.lookupKeys.length - 1;
+        for (int slot = mix(stateId) & mask; ; slot = slot + 1 & mask) {
+            final int key = this.lookupKeys[slot];
+            if (key == stateId + 1) {
+                return this.lookupValues[slot];
+            } else if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private static int mix(int stateId) {
+        final int hash = stateId * 0x9E3779B9;
+        return hash ^ hash >>> 16;
+    }
+
+    private int addToPalette(int stateId) {
+        final int paletteIndex = this.paletteSize++;
+        if (paletteIndex == this.palette.length) {
+            this.palette = Arrays.copyOf(this.palette, paletteIndex * 2);
+        }
+        this.palette[paletteIndex] = stateId;
+        if (this.paletteSize * 2 > this.lookupKeys.length) {
+            rehash(this.lookupKeys.length * 2);
+        } else {
+            insert(this.lookupKeys, this.lookupValues, stateId, paletteIndex);
+        }
+        if (paletteIndex >= 1 << (1 << this.bitsLog)) {
+            widen(this.bitsLog + 1);
+        }
+        return paletteIndex;
+    }
+
+    private void rehash(int capacity) {
+        final int[] keys = new int[capacity];
+        final int[] values = new int[capacity];
+        for (int i = 0; i < this.paletteSize; i++) {
+            insert(keys, values, this.palette[i], i);
+        }
+        this.lookupKeys = keys;
+        this.lookupValues = values;
+    }
+
+    private static void insert(int[] keys, int[] values, int stateId, int paletteIndex) {
+        final int mask = keys.length - 1;
+        int slot = mix(stateId) & mask;
+        while (keys[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        keys[slot] = stateId + 1;
+        values[slot] = paletteIndex;
+    }
+
+    private void widen(int bitsLog) {
+        final long[] words = new long[wordCount(this.length, bitsLog)];
+        for (long i = 0; i < this.length; i++) {
+            setPaletteIndex(words, bitsLog, i, getPaletteIndex(this.words, this.bitsLog, i));
+        }
+        this.words = words;
+        this.bitsLog = bitsLog;
+    }
+
+    public PalettedBlockArray copy() {
+        return new PalettedBlockArray(this);
+    }
+
+    /**
+     * Registers another holder of this array. Holders must not write to
+     * the array they hold, only to the one {@link #forWriting()} returns.
+     *
+     * @return This array
+     */
+    PalettedBlockArray share() {
+        this.shares.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * Gets an array the calling holder can write to. This is the array
+     * itself if no one else holds it. Otherwise the caller stops holding
+     * it and gets a copy of its own.
+     *
+     * @return The array to write to
+     */
+    PalettedBlockArray forWriting() {
+        while (true) {
+            final int shares = this.shares.get();
+            if (shares == 0) {
+                return this;
+            }
+            // Copy before giving up the share, so the last holder can't
+            // start writing in place while the copy is being made
+            final PalettedBlockArray copy = copy();
+            if (this.shares.compareAndSet(shares, shares - 1)) {
+                return copy;
+            }
+        }
+    }
+
+    /**
+     * Sets a run of consecutive entries to the given state ids.
+     *
+     * @param offset The index of the first entry
+     * @param stateIds The state ids
+     */
+    public void set(long offset, short[] stateIds) {
+        checkIndex(offset + stateIds.length - 1);
+        for (int i = 0; i < stateIds.length; i++) {
+            set(offset + i, stateIds[i] & 0xffff);
+        }
+    }
+
+    /**
+     * Unpacks the state ids into a short array.
+     *
+     * @return A new array holding the state ids
+     */
+    public short[] toArray() {
+        // Leave 8 bytes for a header used in some JVMs
+        if (this.length > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Cannot copy the blocks to an array because the size limit was reached");
+        }
+        final short[] array = new short[(int) this.length];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (short) this.palette[getPaletteIndex(this.words, this.bitsLog, i)];
+        }
+        return array;
+    }
+
+    /**
+     * Packs an array of state ids, sizing the palette to the ids present.
+     *
+     * @param stateIds The state ids
+     * @return A new paletted array
+     */
+    public static PalettedBlockArray fromArray(short[] stateIds) {
+        final PalettedBlockArray array = new PalettedBlockArray(stateIds.length);
+        for (int i = 0; i < stateIds.length; i++) {
+            array.set(i, stateIds[i] & 0xffff);
+        }
+        return array;
+    }
+
+}
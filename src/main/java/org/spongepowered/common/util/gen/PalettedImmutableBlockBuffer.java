@@ -0,0 +1,102 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.block.Block;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.util.annotation.NonnullByDefault;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
+import org.spongepowered.common.world.extent.ImmutableBlockViewDownsize;
+import org.spongepowered.common.world.extent.ImmutableBlockViewTransform;
+
+/**
+ * Immutable block volume backed by a {@link PalettedBlockArray}. The packed
+ * blocks are shared with the buffer this was copied from, and with mutable
+ * copies of this, until those are written to.
+ */
+@NonnullByDefault
+public class PalettedImmutableBlockBuffer extends AbstractBlockBuffer implements ImmutableBlockVolume {
+
+    @SuppressWarnings("ConstantConditions")
+    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+    private final PalettedBlockArray blocks;
+
+    PalettedImmutableBlockBuffer(PalettedBlockArray blocks, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        checkRange(x, y, z);
+        BlockState block = (BlockState) Block.BLOCK_STATE_IDS.getByValue(this.blocks.get(getLongIndex(x, y, z)));
+        return block == null ? AIR : block;
+    }
+
+    @Override
+    public ImmutableBlockVolume getBlockView(Vector3i newMin, Vector3i newMax) {
+        checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
+        checkRange(newMax.getX(), newMax.getY(), newMax.getZ());
+        return new ImmutableBlockViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public ImmutableBlockVolume getBlockView(DiscreteTransform3 transform) {
+        return new ImmutableBlockViewTransform(this, transform);
+    }
+
+    @Override
+    public ImmutableBlockVolume getRelativeBlockView() {
+        return getBlockView(DiscreteTransform3.fromTranslation(this.start.negate()));
+    }
+
+    @Override
+    public UnmodifiableBlockVolume getUnmodifiableBlockView() {
+        return this;
+    }
+
+    @Override
+    public MutableBlockVolume getBlockCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return new PalettedMutableBlockBuffer(this.blocks.share(), this.start, this.size);
+            case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(this.blocks.toArray(), this.start, this.size);
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBlockVolume getImmutableBlockCopy() {
+        return this;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.BlockPos;
+import org.spongepowered.common.SpongeImplFactory;
+import org.spongepowered.common.block.SpongeBlockSnapshot;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The original snapshots of the blocks changed while capturing, indexed by
+ * their packed position.
+ *
+ * <p>Only the first change of each position is kept, since its snapshot
+ * holds the state before the tick and the final state is read from the
+ * world when the captures are processed. The update flags of later changes
+ * are merged into it, see {@link #addUpdateFlag}. As a position may change
+ * several times, the {@link CaptureType} of the first change is only a hint,
+ * see {@link #getCaptureType}, and a position may end up unchanged, see
+ * {@link #isUnchanged}. Removing the capture of a change which failed is
+ * constant time, as it is always the most recent one.</p>
+ *
+ * <p>The buffer is meant to be cleared and reused for every tick.</p>
+ */
+public final class CapturedBlocks {
+
+    // Buffers which grew beyond this are dropped on clear instead of being kept around
+    private static final int MAX_RETAINED_SIZE = 4096;
+
+    private Map<Long, SpongeBlockSnapshot> byPosition = Maps.newHashMap();
+    private List<SpongeBlockSnapshot> snapshots = Lists.newArrayList();
+
+    /**
+     * Gets whether a change of the given position was already captured.
+     *
+     * @param pos The block position
+     * @return Whether the position was captured
+     */
+    public boolean contains(BlockPos pos) {
+        return this.byPosition.containsKey(pos.toLong());
+    }
+
+    /**
+     * Captures the original snapshot of a block change, unless a change of
+     * the same position was already captured.
+     *
+     * @param pos The block position
+     * @param snapshot The original snapshot of the block
+     * @return Whether the snapshot was captured
+     */
+    public boolean add(BlockPos pos, SpongeBlockSnapshot snapshot) {
+        if (this.byPosition.putIfAbsent(pos.toLong(), snapshot) != null) {
+            return false;
+        }
+        this.snapshots.add(snapshot);
+        return true;
+    }
+
+    /**
+     * Removes the capture of the given position.
+     *
+     * @param pos The block position
+     */
+    public void remove(BlockPos pos) {
+        SpongeBlockSnapshot snapshot = this.byPosition.remove(pos.toLong());
+        if (snapshot != null) {
+            int last = this.snapshots.size() - 1;
+            if (this.snapshots.get(last) == snapshot) {
+                this.snapshots.remove(last);
+            } else {
+                this.snapshots.remove(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Merges the update flag of a later change into the capture of the given
+     * position, so the block is updated as every change of it requested.
+     *
+     * @param pos The block position
+     * @param flag The update flag of the later change
+     */
+    public void addUpdateFlag(BlockPos pos, int flag) {
+        SpongeBlockSnapshot snapshot = this.byPosition.get(pos.toLong());
+        if (snapshot != null) {
+            snapshot.addUpdateFlag(flag);
+        }
+    }
+
+    /**
+     * Gets all captured snapshots in the order they were captured.
+     *
+     * @return The captured snapshots
+     */
+    public List<SpongeBlockSnapshot> getSnapshots() {
+        return Collections.unmodifiableList(this.snapshots);
+    }
+
+    /**
+     * Gets the type of the net change from the original snapshot of a block
+     * to its final state. Decay is kept as it depends on what caused the
+     * change rather than on the states.
+     *
+     * @param original The captured original snapshot
+     * @param current The final state of the block
+     * @return The capture type
+     */
+    public static CaptureType getCaptureType(SpongeBlockSnapshot original, IBlockState current) {
+        if (original.captureType == CaptureType.DECAY) {
+            return CaptureType.DECAY;
+        }
+        final Block originalBlock = ((IBlockState) original.getState()).getBlock();
+        if (current.getBlock() == Blocks.air && originalBlock != Blocks.air) {
+            return CaptureType.BREAK;
+        } else if (current.getBlock() != originalBlock) {
+            return CaptureType.PLACE;
+        }
+        return CaptureType.MODIFY;
+    }
+
+    /**
+     * Gets whether a block ended up in its original state, such as a block
+     * that was replaced and then restored, or air that was set to air. Blocks
+     * with a tile entity are never unchanged, as the tile entity may have been
+     * replaced.
+     *
+     * @param original The captured original snapshot
+     * @param current The final state of the block
+     * @return Whether the block is unchanged
+     */
+    public static boolean isUnchanged(SpongeBlockSnapshot original, IBlockState current) {
+        return original.getState() == current && !SpongeImplFactory.blockHasTileEntity(current.getBlock(), current);
+    }
+
+    public int size() {
+        return this.snapshots.size();
+    }
+
+    public boolean isEmpty() {
+        return this.snapshots.isEmpty();
+    }
+
+    public void clear() {
+        if (this.snapshots.size() > MAX_RETAINED_SIZE) {
+            this.byPosition = Maps.newHashMap();
+            this.snapshots = Lists.newArrayList();
+        } else {
+            this.byPosition.clear();
+            this.snapshots.clear();
+        }
+    }
+
+}
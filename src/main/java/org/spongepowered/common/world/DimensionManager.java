@@ -305,6 +305,7 @@ public static void initDimension(int dim) {
                 (dim == 0 ? overworld : (WorldServer) (new WorldServerMulti(mcServer, savehandler, dim, overworld, mcServer.theProfiler).init()));
         world.addWorldAccess(new WorldManager(mcServer, world));
         SpongeImpl.postEvent(SpongeImplFactory.createLoadWorldEvent((org.spongepowered.api.world.World) world));
+        SpongeChunkTicketManager.getInstance().loadWorld(world);
         if (!mcServer.isSinglePlayer()) {
             world.getWorldInfo().setGameType(mcServer.getGameType());
         }
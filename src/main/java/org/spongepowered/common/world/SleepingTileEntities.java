@@ -0,0 +1,217 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.BlockPos;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The tile entities of a world which were put to sleep because they had
+ * nothing to do, indexed by their packed position.
+ *
+ * <p>A sleeping tile entity is taken out of the tickable tile entity list of
+ * the world, so the tile entity loop doesn't visit it at all. It is put back
+ * when its wake time is reached, or earlier through {@link #wake(BlockPos)}
+ * when a neighbour or its inventory changes.</p>
+ *
+ * <p>Changes to the tickable list are only applied by {@link #update}, which
+ * is called right before the world ticks its tile entities, so the list is
+ * never modified while it is being iterated.</p>
+ */
+public final class SleepingTileEntities {
+
+    /**
+     * The longest nap of tile entities which are only woken by changes, so
+     * that changes which don't notify them are still picked up.
+     */
+    public static final int MAX_SLEEP_TICKS = 100;
+
+    private final List<TileEntity> tickableTileEntities;
+    private final Map<Long, TileEntity> sleeping = Maps.newHashMap();
+    private final Set<TileEntity> pendingSleep = Sets.newIdentityHashSet();
+    private final Set<TileEntity> pendingWake = Sets.newIdentityHashSet();
+    private final PriorityQueue<ScheduledWake> scheduledWakes = new PriorityQueue<>();
+
+    /**
+     * Creates the sleeping tile entities of a world.
+     *
+     * @param tickableTileEntities The tickable tile entity list of the world
+     */
+    public SleepingTileEntities(List<TileEntity> tickableTileEntities) {
+        this.tickableTileEntities = tickableTileEntities;
+    }
+
+    /**
+     * Puts a tile entity to sleep, starting with the next tick.
+     *
+     * @param tileEntity The tile entity
+     * @param wakeTick The world time to wake it at
+     */
+    public void sleep(TileEntity tileEntity, long wakeTick) {
+        if (tileEntity.isInvalid()) {
+            return;
+        }
+        final long pos = tileEntity.getPos().toLong();
+        if (this.sleeping.putIfAbsent(pos, tileEntity) != null) {
+            return;
+        }
+        this.pendingSleep.add(tileEntity);
+        this.scheduledWakes.add(new ScheduledWake(wakeTick, pos, tileEntity));
+    }
+
+    /**
+     * Wakes the tile entity at the given position, if it is sleeping.
+     *
+     * @param pos The block position
+     */
+    public void wake(BlockPos pos) {
+        if (this.sleeping.isEmpty()) {
+            return;
+        }
+        final TileEntity tileEntity = this.sleeping.remove(pos.toLong());
+        // A tile entity that didn't leave the list yet simply stays in it
+        if (tileEntity != null && !this.pendingSleep.remove(tileEntity)) {
+            this.pendingWake.add(tileEntity);
+        }
+    }
+
+    /**
+     * Forgets a tile entity, because the world is removing it from its tile
+     * entity lists.
+     *
+     * @param tileEntity The tile entity
+     */
+    public void remove(TileEntity tileEntity) {
+        // It must not come back through a wake that is still pending
+        this.pendingWake.remove(tileEntity);
+        if (this.sleeping.isEmpty()) {
+            return;
+        }
+        if (this.sleeping.remove(tileEntity.getPos().toLong(), tileEntity)) {
+            this.pendingSleep.remove(tileEntity);
+        }
+    }
+
+    /**
+     * Wakes a tile entity that was invalidated. The world only prunes
+     * invalid tile entities from its loaded tile entity list and the chunk
+     * while ticking them, so it has to be back in the tickable list for that.
+     *
+     * @param tileEntity The tile entity
+     */
+    public void invalidate(TileEntity tileEntity) {
+        if (this.sleeping.isEmpty()) {
+            return;
+        }
+        if (this.sleeping.remove(tileEntity.getPos().toLong(), tileEntity) && !this.pendingSleep.remove(tileEntity)) {
+            this.pendingWake.add(tileEntity);
+        }
+    }
+
+    /**
+     * Gets whether the tile entity at the given position is sleeping.
+     *
+     * @param pos The block position
+     * @return Whether it is sleeping
+     */
+    public boolean isSleeping(BlockPos pos) {
+        return this.sleeping.containsKey(pos.toLong());
+    }
+
+    /**
+     * Gets the number of sleeping tile entities.
+     *
+     * @return The number of sleeping tile entities
+     */
+    public int size() {
+        return this.sleeping.size();
+    }
+
+    /**
+     * Gets the sleeping tile entities.
+     *
+     * @return The sleeping tile entities
+     */
+    public Collection<TileEntity> getTileEntities() {
+        return this.sleeping.values();
+    }
+
+    /**
+     * Applies the tile entities put to sleep and woken since the last call
+     * to the tickable tile entity list, and wakes the tile entities whose
+     * wake time was reached.
+     *
+     * @param worldTime The current world time
+     */
+    public void update(long worldTime) {
+        ScheduledWake scheduled;
+        while ((scheduled = this.scheduledWakes.peek()) != null && scheduled.tick <= worldTime) {
+            this.scheduledWakes.poll();
+            // Skip wakes of tile entities that were woken or removed since,
+            // removed ones that are still here are dropped by the wake
+            if (this.sleeping.get(scheduled.pos) == scheduled.tileEntity) {
+                wake(scheduled.tileEntity.getPos());
+            }
+        }
+
+        if (!this.pendingSleep.isEmpty()) {
+            this.tickableTileEntities.removeAll(this.pendingSleep);
+            this.pendingSleep.clear();
+        }
+        if (!this.pendingWake.isEmpty()) {
+            // Invalid ones are pruned by the tile entity loop, as if they had never slept
+            this.tickableTileEntities.addAll(this.pendingWake);
+            this.pendingWake.clear();
+        }
+    }
+
+    private static final class ScheduledWake implements Comparable<ScheduledWake> {
+
+        final long tick;
+        final long pos;
+        final TileEntity tileEntity;
+
+        ScheduledWake(long tick, long pos, TileEntity tileEntity) {
+            this.tick = tick;
+            this.pos = pos;
+            this.tileEntity = tileEntity;
+        }
+
+        @Override
+        public int compareTo(ScheduledWake other) {
+            return Long.compare(this.tick, other.tick);
+        }
+
+    }
+
+}
@@ -30,15 +30,34 @@
 import com.flowpowered.math.GenericMath;
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.NBTTagCompound;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.slf4j.Logger;
 import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.WorldBorder;
+import org.spongepowered.api.world.gen.WorldGenerator;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.world.IMixinWorld;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
 import org.spongepowered.common.scheduler.SpongeScheduler;
+import org.spongepowered.common.util.SpongeHooks;
+import org.spongepowered.common.world.gen.SpongeChunkProvider;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Queue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
@@ -100,13 +119,21 @@ public Task start() {
         checkNotNull(this.plugin, "owner not set");
         checkArgument(this.chunkCount > 0 || this.tickPercent > 0, "Must use at least one of \"chunks per tick\" or \"tick percent limit\"");
         return Task.builder().name(toString())
-                .execute(new ChunkPreGenerator(this.world, this.center, this.diameter, this.chunkCount, this.tickPercent, this.logger))
+                .execute(new ChunkPreGenerator(this.world, this.center, this.diameter, this.tickInterval, this.chunkCount, this.tickPercent,
+                        this.logger))
                 .intervalTicks(this.tickInterval).submit(this.plugin);
     }
 
     @Override
     public WorldBorder.ChunkPreGenerate from(Task value) {
-        return null;
+        checkArgument(value.getConsumer() instanceof ChunkPreGenerator, "Task is not a chunk pre-generation task");
+        final ChunkPreGenerator preGenerator = (ChunkPreGenerator) value.getConsumer();
+        this.plugin = value.getOwner();
+        this.logger = preGenerator.logger;
+        this.tickInterval = preGenerator.tickInterval;
+        this.chunkCount = preGenerator.chunkCount;
+        this.tickPercent = preGenerator.tickPercent;
+        return this;
     }
 
     @Override
@@ -140,22 +167,40 @@ private static class ChunkPreGenerator implements Consumer<Task> {
                 Vector3i.UNIT_Z.negate()
         };
         private static final String TIME_FORMAT = "s's 'S'ms'";
+        // Chunks each generation thread may generate ahead of the main thread
+        private static final int CHUNKS_AHEAD_PER_THREAD = 16;
         private final World world;
+        private final Vector3i centerChunk;
         private final int chunkRadius;
+        private final int tickInterval;
         private final int chunkCount;
         private final float tickPercent;
         private final long tickTimeLimit;
         @Nullable private final Logger logger;
+        @Nullable private final SpongeChunkProvider generator;
+        @Nullable private final ThreadPoolExecutor executor;
+        private final int maxChunksAhead;
+        private final Queue<GeneratedChunk> generatedChunks = new ConcurrentLinkedQueue<>();
+        // Spiral indices of the chunks handed to the generation threads
+        private final SortedSet<Integer> chunksAhead = new TreeSet<>();
+        // The task running this, for the generation threads to notice when it is cancelled
+        @Nullable private volatile Task task;
+        private int spiralIndex;
         private Vector3i currentPosition;
         private int currentLayerIndex;
         private int currentLayerSize;
         private int currentIndexInLayer;
         private int totalCount;
+        // Chunks generated since this task started, without resumed progress
+        private int sessionCount;
         private long totalTime;
+        private long startTime;
 
-        public ChunkPreGenerator(World world, Vector3d center, double diameter, int chunkCount, float tickPercent, @Nullable Logger logger) {
+        public ChunkPreGenerator(World world, Vector3d center, double diameter, int tickInterval, int chunkCount, float tickPercent,
+                @Nullable Logger logger) {
             this.world = world;
             this.chunkRadius = GenericMath.floor(diameter / 32);
+            this.tickInterval = tickInterval;
             this.chunkCount = chunkCount;
             this.tickPercent = tickPercent;
             this.logger = logger;
@@ -164,40 +209,196 @@ public ChunkPreGenerator(World world, Vector3d center, double diameter, int chun
             this.currentLayerIndex = 0;
             this.currentLayerSize = 0;
             this.currentIndexInLayer = 0;
+            this.centerChunk = this.currentPosition;
             this.totalCount = 0;
             this.totalTime = 0;
+            resume();
+
+            final int threads = SpongeHooks.getActiveConfig((net.minecraft.world.World) world).getConfig().getWorld().getPreGenerateThreads();
+            final WorldGenerator worldGenerator = ((IMixinWorld) world).getWorldGenerator();
+            if (threads > 0 && worldGenerator instanceof SpongeChunkProvider && ((SpongeChunkProvider) worldGenerator).isThreadSafe()) {
+                this.generator = (SpongeChunkProvider) worldGenerator;
+                this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                        new ThreadFactoryBuilder().setNameFormat("Sponge Chunk Pre-Generator #%d").setDaemon(true).build());
+                // Let the threads die if the task is cancelled
+                this.executor.allowCoreThreadTimeOut(true);
+                this.maxChunksAhead = threads * CHUNKS_AHEAD_PER_THREAD;
+            } else {
+                if (threads > 0 && this.logger != null) {
+                    this.logger.info("The generator of world {} is not thread safe, its chunks are generated on the main thread",
+                            world.getName());
+                }
+                this.generator = null;
+                this.executor = null;
+                this.maxChunksAhead = 0;
+            }
         }
 
         @Override
         public void accept(Task task) {
+            this.task = task;
             final long startTime = System.currentTimeMillis();
+            if (this.startTime == 0) {
+                this.startTime = startTime;
+            }
             int count = 0;
-            do {
-                this.world.loadChunk(nextChunkPosition(), true).ifPresent(Chunk::unloadChunk);
-            } while (hasNextChunkPosition() && checkChunkCount(++count) && checkTickTime(System.currentTimeMillis() - startTime));
+            if (this.generator == null) {
+                while (hasNextChunkPosition() && checkChunkCount(count) && checkTickTime(System.currentTimeMillis() - startTime)) {
+                    final Vector3i position = nextChunkPosition();
+                    // Skip chunks that were generated before, without loading them
+                    if (!isChunkSaved(position)) {
+                        this.world.loadChunk(position, true).ifPresent(Chunk::unloadChunk);
+                        count++;
+                    }
+                }
+            } else {
+                // Only load and populate the generated chunks here
+                submitChunks();
+                GeneratedChunk generated;
+                while (checkChunkCount(count) && checkTickTime(System.currentTimeMillis() - startTime)
+                        && (generated = this.generatedChunks.poll()) != null) {
+                    if (!generated.saved) {
+                        this.world.loadChunk(generated.position, true).ifPresent(Chunk::unloadChunk);
+                        // The chunk was already loaded or saved if it wasn't used
+                        this.generator.discardPregeneratedChunk(generated.position.getX(), generated.position.getZ());
+                        count++;
+                    }
+                    this.chunksAhead.remove(generated.spiralIndex);
+                }
+                submitChunks();
+            }
+            this.totalCount += count;
+            this.sessionCount += count;
+            saveProgress();
+            final long deltaTime = System.currentTimeMillis() - startTime;
+            this.totalTime += deltaTime;
             if (this.logger != null) {
-                this.totalCount += count;
-                final long deltaTime = System.currentTimeMillis() - startTime;
-                this.totalTime += deltaTime;
-                this.logger.info("Generated {} chunks in {}, {}% complete", count,
+                this.logger.info("Generated {} chunks in {}, {}% complete, {} chunks/s", count,
                         DurationFormatUtils.formatDuration(deltaTime, TIME_FORMAT, false),
-                        Math.round((float) this.totalCount / (this.chunkRadius * this.chunkRadius * 4) * 100));
+                        Math.round((float) getCompletedIndex() / ((this.chunkRadius * 2 + 1) * (this.chunkRadius * 2 + 1)) * 100),
+                        getChunksPerSecond());
             }
-            if (!hasNextChunkPosition()) {
+            if (!hasNextChunkPosition() && this.chunksAhead.isEmpty()) {
                 if (this.logger != null) {
-                    this.logger.info("Done! Generated a total of {} chunks in {}", this.totalCount,
-                            DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false));
+                    this.logger.info("Done! Generated a total of {} chunks in {} ({} on the main thread), {} chunks/s", this.totalCount,
+                            DurationFormatUtils.formatDuration(System.currentTimeMillis() - this.startTime, TIME_FORMAT, false),
+                            DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false), getChunksPerSecond());
                 }
+                if (this.executor != null) {
+                    this.executor.shutdown();
+                    this.generator.clearPregeneratedChunks();
+                }
+                getSpongeNbt().removeTag(NbtDataUtil.SPONGE_CHUNK_PRE_GENERATE);
                 task.cancel();
             }
         }
 
+        private void submitChunks() {
+            while (hasNextChunkPosition() && this.chunksAhead.size() < this.maxChunksAhead) {
+                final int spiralIndex = this.spiralIndex;
+                final Vector3i position = nextChunkPosition();
+                this.chunksAhead.add(spiralIndex);
+                this.executor.execute(() -> {
+                    if (isCancelled()) {
+                        // Nothing will load the chunks generated ahead anymore
+                        this.executor.shutdownNow();
+                        this.generator.clearPregeneratedChunks();
+                        return;
+                    }
+                    boolean saved = false;
+                    try {
+                        saved = isChunkSaved(position);
+                        if (!saved && this.generator.pregenerateChunk(position.getX(), position.getZ()) && isCancelled()) {
+                            this.generator.discardPregeneratedChunk(position.getX(), position.getZ());
+                        }
+                    } catch (Exception e) {
+                        // The main thread generates the chunk instead
+                        SpongeImpl.getLogger().error("Failed to generate chunk " + position + " ahead of time", e);
+                    } finally {
+                        this.generatedChunks.add(new GeneratedChunk(position, spiralIndex, saved));
+                    }
+                });
+            }
+        }
+
+        private boolean isCancelled() {
+            final Task task = this.task;
+            return task != null && !SpongeScheduler.getInstance().getTaskById(task.getUniqueId()).isPresent();
+        }
+
+        /**
+         * Checks whether a chunk is saved by reading its entry in the offset
+         * table of its region file. The file is opened read-only rather than
+         * through the shared {@link net.minecraft.world.chunk.storage.RegionFileCache},
+         * which is not thread safe and would create missing region files.
+         */
+        private boolean isChunkSaved(Vector3i position) throws IOException {
+            final File worldDirectory = ((net.minecraft.world.World) this.world).getSaveHandler().getWorldDirectory();
+            final File regionFile = new File(worldDirectory, "region/r." + (position.getX() >> 5) + "." + (position.getZ() >> 5) + ".mca");
+            if (!regionFile.isFile()) {
+                return false;
+            }
+            final int entry = 4 * ((position.getX() & 31) + (position.getZ() & 31) * 32);
+            try (RandomAccessFile file = new RandomAccessFile(regionFile, "r")) {
+                if (file.length() < entry + 4) {
+                    return false;
+                }
+                file.seek(entry);
+                return file.readInt() != 0;
+            }
+        }
+
+        private NBTTagCompound getSpongeNbt() {
+            return ((IMixinWorldInfo) ((net.minecraft.world.World) this.world).getWorldInfo()).getSpongeNbt();
+        }
+
+        /**
+         * Continues the spiral where the last pre-generation of the same
+         * area stopped.
+         */
+        private void resume() {
+            final NBTTagCompound progress = getSpongeNbt().getCompoundTag(NbtDataUtil.SPONGE_CHUNK_PRE_GENERATE);
+            if (progress.getInteger("centerX") != this.centerChunk.getX() || progress.getInteger("centerZ") != this.centerChunk.getZ()
+                    || progress.getInteger("chunkRadius") != this.chunkRadius) {
+                return;
+            }
+            final int spiralIndex = progress.getInteger("spiralIndex");
+            while (this.spiralIndex < spiralIndex && hasNextChunkPosition()) {
+                nextChunkPosition();
+            }
+            this.totalCount = progress.getInteger("totalCount");
+            if (this.logger != null) {
+                this.logger.info("Resuming chunk pre-generation at chunk {} of the spiral", this.spiralIndex);
+            }
+        }
+
+        private int getCompletedIndex() {
+            // Chunks that are still generated ahead are not done yet
+            return this.chunksAhead.isEmpty() ? this.spiralIndex : this.chunksAhead.first();
+        }
+
+        private void saveProgress() {
+            final NBTTagCompound progress = new NBTTagCompound();
+            progress.setInteger("centerX", this.centerChunk.getX());
+            progress.setInteger("centerZ", this.centerChunk.getZ());
+            progress.setInteger("chunkRadius", this.chunkRadius);
+            progress.setInteger("spiralIndex", getCompletedIndex());
+            progress.setInteger("totalCount", this.totalCount);
+            getSpongeNbt().setTag(NbtDataUtil.SPONGE_CHUNK_PRE_GENERATE, progress);
+        }
+
+        private long getChunksPerSecond() {
+            final long elapsed = System.currentTimeMillis() - this.startTime;
+            return elapsed <= 0 ? 0 : this.sessionCount * 1000L / elapsed;
+        }
+
         private boolean hasNextChunkPosition() {
             return this.currentLayerIndex <= this.chunkRadius;
         }
 
         private Vector3i nextChunkPosition() {
             final Vector3i nextPosition = this.currentPosition;
+            this.spiralIndex++;
             if (++this.currentIndexInLayer >= this.currentLayerSize * 4) {
                 this.currentLayerIndex++;
                 this.currentLayerSize += 2;
@@ -218,4 +419,19 @@ private boolean checkTickTime(long tickTime) {
 
     }
 
+    private static final class GeneratedChunk {
+
+        final Vector3i position;
+        final int spiralIndex;
+        // Whether the chunk was saved before, so it was not generated
+        final boolean saved;
+
+        GeneratedChunk(Vector3i position, int spiralIndex, boolean saved) {
+            this.position = position;
+            this.spiralIndex = spiralIndex;
+            this.saved = saved;
+        }
+
+    }
+
 }
@@ -0,0 +1,758 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.MemoryDataContainer;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.world.ChunkTicketManager;
+import org.spongepowered.api.world.World;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+import org.spongepowered.common.util.persistence.NbtTranslator;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps chunks loaded for the tickets that plugins request.
+ *
+ * <p>The forced chunks of each world are indexed by their packed chunk
+ * coordinates, which {@code ChunkProviderServer} checks before it queues a
+ * chunk for unloading. Tickets that changed are written to the Sponge data
+ * of their world once per tick and before the world is saved, and forced
+ * again when the world loads.</p>
+ *
+ * <p>When a world unloads, its tickets are released, so tickets that
+ * plugins still hold no longer affect it.</p>
+ */
+public final class SpongeChunkTicketManager implements ChunkTicketManager {
+
+    private static final SpongeChunkTicketManager INSTANCE = new SpongeChunkTicketManager(
+            () -> SpongeImpl.getGlobalConfig().getConfig().getChunkLoading(), SpongeChunkTicketManager::findPlugin,
+            world -> new ServerWorldAccess((WorldServer) world));
+
+    private static final byte TYPE_PLUGIN = 0;
+    private static final byte TYPE_ENTITY = 1;
+    private static final byte TYPE_PLAYER = 2;
+    private static final byte TYPE_PLAYER_ENTITY = 3;
+
+    private final Map<String, Callback> callbacks = Maps.newHashMap();
+    private final Map<UUID, WorldTickets> worlds = Maps.newHashMap();
+    private final Supplier<SpongeConfig.ChunkLoadingCategory> config;
+    private final Function<Object, PluginContainer> plugins;
+    private final Function<World, WorldAccess> worldAccess;
+
+    SpongeChunkTicketManager(Supplier<SpongeConfig.ChunkLoadingCategory> config, Function<Object, PluginContainer> plugins,
+            Function<World, WorldAccess> worldAccess) {
+        this.config = config;
+        this.plugins = plugins;
+        this.worldAccess = worldAccess;
+    }
+
+    public static SpongeChunkTicketManager getInstance() {
+        return INSTANCE;
+    }
+
+    private SpongeConfig.ChunkLoadingCategory getConfig() {
+        return this.config.get();
+    }
+
+    private static PluginContainer findPlugin(Object plugin) {
+        Optional<PluginContainer> container = SpongeImpl.getGame().getPluginManager().fromInstance(plugin);
+        checkArgument(container.isPresent(), "Unknown plugin %s", plugin);
+        return container.get();
+    }
+
+    private PluginContainer getPlugin(Object plugin) {
+        return this.plugins.apply(checkNotNull(plugin, "plugin"));
+    }
+
+    private WorldTickets getTickets(World world) {
+        WorldTickets tickets = this.worlds.get(world.getUniqueId());
+        if (tickets == null) {
+            tickets = new WorldTickets(this.worldAccess.apply(world));
+            this.worlds.put(world.getUniqueId(), tickets);
+        }
+        return tickets;
+    }
+
+    /**
+     * Gets whether a ticket keeps the given chunk loaded.
+     *
+     * @param world The world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return True if the chunk is forced
+     */
+    public boolean isChunkForced(net.minecraft.world.World world, int chunkX, int chunkZ) {
+        WorldTickets tickets = this.worlds.get(((World) world).getUniqueId());
+        return tickets != null && tickets.forcedChunks.containsKey(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+    }
+
+    @Override
+    public void registerCallback(Object plugin, Callback callback) {
+        this.callbacks.put(getPlugin(plugin).getId(), checkNotNull(callback, "callback"));
+    }
+
+    @Override
+    public Optional<LoadingTicket> createTicket(Object plugin, World world) {
+        PluginContainer container = getPlugin(plugin);
+        if (getAvailableTickets(plugin, world) <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(getTickets(world).add(new SpongeLoadingTicket(this, container.getId(), world)));
+    }
+
+    @Override
+    public Optional<EntityLoadingTicket> createEntityTicket(Object plugin, World world) {
+        PluginContainer container = getPlugin(plugin);
+        if (getAvailableTickets(plugin, world) <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(getTickets(world).add(new SpongeEntityLoadingTicket(this, container.getId(), world)));
+    }
+
+    @Override
+    public Optional<PlayerLoadingTicket> createPlayerTicket(Object plugin, World world, UUID player) {
+        PluginContainer container = getPlugin(plugin);
+        if (getAvailableTickets(player) <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(getTickets(world).add(new SpongePlayerLoadingTicket(this, container.getId(), world, player)));
+    }
+
+    @Override
+    public Optional<PlayerEntityLoadingTicket> createPlayerEntityTicket(Object plugin, World world, UUID player) {
+        PluginContainer container = getPlugin(plugin);
+        if (getAvailableTickets(player) <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(getTickets(world).add(new SpongePlayerEntityLoadingTicket(this, container.getId(), world, player)));
+    }
+
+    @Override
+    public int getMaxTickets(Object plugin) {
+        return getConfig().getMaxTickets(getPlugin(plugin).getId());
+    }
+
+    @Override
+    public int getAvailableTickets(Object plugin, World world) {
+        String pluginId = getPlugin(plugin).getId();
+        WorldTickets tickets = this.worlds.get(world.getUniqueId());
+        int used = 0;
+        if (tickets != null) {
+            for (SpongeLoadingTicket ticket : tickets.tickets) {
+                if (ticket.plugin.equals(pluginId) && !(ticket instanceof PlayerLoadingTicket)) {
+                    used++;
+                }
+            }
+        }
+        return getConfig().getMaxTickets(pluginId) - used;
+    }
+
+    @Override
+    public int getAvailableTickets(UUID player) {
+        int used = 0;
+        for (WorldTickets tickets : this.worlds.values()) {
+            for (SpongeLoadingTicket ticket : tickets.tickets) {
+                if (ticket instanceof PlayerLoadingTicket && ((PlayerLoadingTicket) ticket).getPlayerUniqueId().equals(player)) {
+                    used++;
+                }
+            }
+        }
+        return getConfig().getPlayerMaxTickets() - used;
+    }
+
+    @Override
+    public ImmutableSetMultimap<Vector3i, LoadingTicket> getForcedChunks(World world) {
+        WorldTickets tickets = this.worlds.get(world.getUniqueId());
+        if (tickets == null) {
+            return ImmutableSetMultimap.of();
+        }
+        ImmutableSetMultimap.Builder<Vector3i, LoadingTicket> builder = ImmutableSetMultimap.builder();
+        for (Map.Entry<Long, List<SpongeLoadingTicket>> entry : tickets.forcedChunks.entrySet()) {
+            builder.putAll(toChunk(entry.getKey()), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Restores the saved tickets of a world that was loaded and hands them
+     * to the callbacks of their plugins. The tickets of plugins without a
+     * callback are released.
+     *
+     * @param world The world
+     */
+    public void loadWorld(WorldServer world) {
+        NBTTagList ticketsNbt = this.worldAccess.apply((World) world).getSpongeNbt()
+                .getTagList(NbtDataUtil.SPONGE_CHUNK_TICKETS, NbtDataUtil.TAG_COMPOUND);
+        if (ticketsNbt.tagCount() == 0) {
+            return;
+        }
+
+        WorldTickets tickets = getTickets((World) world);
+        Map<String, List<SpongeLoadingTicket>> byPlugin = Maps.newLinkedHashMap();
+        for (int i = 0; i < ticketsNbt.tagCount(); i++) {
+            SpongeLoadingTicket ticket = readTicket((World) world, ticketsNbt.getCompoundTagAt(i));
+            if (this.callbacks.containsKey(ticket.plugin)) {
+                byPlugin.computeIfAbsent(ticket.plugin, plugin -> Lists.newArrayList()).add(ticket);
+            }
+        }
+
+        for (Map.Entry<String, List<SpongeLoadingTicket>> entry : byPlugin.entrySet()) {
+            Callback callback = this.callbacks.get(entry.getKey());
+            List<LoadingTicket> loaded = Lists.newArrayList();
+            ImmutableListMultimap.Builder<UUID, LoadingTicket> playerTickets = ImmutableListMultimap.builder();
+            for (SpongeLoadingTicket ticket : entry.getValue()) {
+                if (ticket instanceof PlayerLoadingTicket) {
+                    playerTickets.put(((PlayerLoadingTicket) ticket).getPlayerUniqueId(), ticket);
+                } else {
+                    loaded.add(ticket);
+                }
+            }
+
+            // Let the plugin choose which tickets to keep
+            if (callback instanceof OrderedCallback) {
+                int maxTickets = getConfig().getMaxTickets(entry.getKey());
+                loaded = Lists.newArrayList(((OrderedCallback) callback).onLoaded(ImmutableList.copyOf(loaded), (World) world, maxTickets));
+                if (loaded.size() > maxTickets) {
+                    loaded = loaded.subList(0, maxTickets);
+                }
+            }
+            if (callback instanceof PlayerOrderedCallback) {
+                ListMultimap<UUID, LoadingTicket> keptPlayerTickets =
+                        ((PlayerOrderedCallback) callback).onPlayerLoaded(playerTickets.build(), (World) world);
+                loaded.addAll(keptPlayerTickets.values());
+            } else {
+                loaded.addAll(playerTickets.build().values());
+            }
+
+            List<LoadingTicket> restored = Lists.newArrayList();
+            for (LoadingTicket loadedTicket : loaded) {
+                SpongeLoadingTicket ticket = (SpongeLoadingTicket) loadedTicket;
+                if (ticket.world == world && !tickets.tickets.contains(ticket)) {
+                    tickets.add(ticket);
+                    for (long chunk : ticket.savedChunks) {
+                        ticket.forceChunk(toChunk(chunk));
+                    }
+                    ticket.savedChunks.clear();
+                    restored.add(ticket);
+                }
+            }
+            callback.onLoaded(ImmutableList.copyOf(restored), (World) world);
+        }
+        tickets.markDirty();
+    }
+
+    /**
+     * Saves and releases the tickets of a world that is being unloaded.
+     * Tickets that plugins still hold can't force chunks of the world
+     * anymore, the saved tickets are restored when it loads again.
+     *
+     * @param world The world
+     */
+    public void unloadWorld(World world) {
+        WorldTickets tickets = this.worlds.remove(world.getUniqueId());
+        if (tickets != null) {
+            tickets.saveIfDirty();
+            tickets.invalidate();
+        }
+    }
+
+    /**
+     * Writes the tickets of every world whose tickets changed since they
+     * were last written to the Sponge data of the world. Called at the end
+     * of every tick and before the worlds are saved.
+     */
+    public void saveTickets() {
+        for (WorldTickets tickets : this.worlds.values()) {
+            tickets.saveIfDirty();
+        }
+    }
+
+    private SpongeLoadingTicket readTicket(World world, NBTTagCompound ticketNbt) {
+        String plugin = ticketNbt.getString("Plugin");
+        UUID player = new UUID(ticketNbt.getLong("PlayerMost"), ticketNbt.getLong("PlayerLeast"));
+        SpongeLoadingTicket ticket;
+        switch (ticketNbt.getByte("Type")) {
+            case TYPE_ENTITY:
+                ticket = new SpongeEntityLoadingTicket(this, plugin, world);
+                break;
+            case TYPE_PLAYER:
+                ticket = new SpongePlayerLoadingTicket(this, plugin, world, player);
+                break;
+            case TYPE_PLAYER_ENTITY:
+                ticket = new SpongePlayerEntityLoadingTicket(this, plugin, world, player);
+                break;
+            default:
+                ticket = new SpongeLoadingTicket(this, plugin, world);
+        }
+        if (ticket instanceof SpongeEntityLoadingTicket && ticketNbt.hasKey("EntityMost")) {
+            ((SpongeEntityLoadingTicket) ticket).entity = new UUID(ticketNbt.getLong("EntityMost"), ticketNbt.getLong("EntityLeast"));
+        }
+        if (ticketNbt.hasKey("NumChunks")) {
+            ticket.numChunks = Math.min(ticketNbt.getInteger("NumChunks"), ticket.getMaxNumChunks());
+        }
+        int[] chunks = ticketNbt.getIntArray("Chunks");
+        for (int i = 0; i + 1 < chunks.length; i += 2) {
+            ticket.savedChunks.add(ChunkCoordIntPair.chunkXZ2Int(chunks[i], chunks[i + 1]));
+        }
+        if (ticketNbt.hasKey("Data", NbtDataUtil.TAG_COMPOUND)) {
+            ticket.companionData = NbtTranslator.getInstance().translateFrom(ticketNbt.getCompoundTag("Data"));
+        }
+        return ticket;
+    }
+
+    static long toPacked(Vector3i chunk) {
+        return ChunkCoordIntPair.chunkXZ2Int(chunk.getX(), chunk.getZ());
+    }
+
+    static Vector3i toChunk(long packed) {
+        return new Vector3i((int) packed, 0, (int) (packed >> 32));
+    }
+
+    /**
+     * The tickets of one world and the chunks they force.
+     */
+    private static final class WorldTickets {
+
+        final WorldAccess world;
+        final List<SpongeLoadingTicket> tickets = Lists.newArrayList();
+        final Map<Long, List<SpongeLoadingTicket>> forcedChunks = Maps.newHashMap();
+        boolean dirty;
+
+        WorldTickets(WorldAccess world) {
+            this.world = world;
+        }
+
+        <T extends SpongeLoadingTicket> T add(T ticket) {
+            this.tickets.add(ticket);
+            ticket.worldTickets = this;
+            markDirty();
+            return ticket;
+        }
+
+        void force(SpongeLoadingTicket ticket, long chunk) {
+            List<SpongeLoadingTicket> chunkTickets = this.forcedChunks.get(chunk);
+            if (chunkTickets == null) {
+                chunkTickets = Lists.newArrayListWithCapacity(1);
+                this.forcedChunks.put(chunk, chunkTickets);
+                // Loading the chunk also takes it off the unload queue
+                this.world.loadChunk((int) chunk, (int) (chunk >> 32));
+            }
+            chunkTickets.add(ticket);
+        }
+
+        void unforce(SpongeLoadingTicket ticket, long chunk) {
+            List<SpongeLoadingTicket> chunkTickets = this.forcedChunks.get(chunk);
+            if (chunkTickets == null || !chunkTickets.remove(ticket) || !chunkTickets.isEmpty()) {
+                return;
+            }
+            this.forcedChunks.remove(chunk);
+            this.world.dropChunk((int) chunk, (int) (chunk >> 32));
+        }
+
+        void markDirty() {
+            this.dirty = true;
+        }
+
+        void saveIfDirty() {
+            if (!this.dirty) {
+                return;
+            }
+            this.dirty = false;
+            NBTTagList ticketsNbt = new NBTTagList();
+            for (SpongeLoadingTicket ticket : this.tickets) {
+                ticketsNbt.appendTag(ticket.write());
+            }
+            this.world.getSpongeNbt().setTag(NbtDataUtil.SPONGE_CHUNK_TICKETS, ticketsNbt);
+        }
+
+        /**
+         * Releases all tickets without unforcing their chunks, which unload
+         * with the world anyway.
+         */
+        void invalidate() {
+            for (SpongeLoadingTicket ticket : this.tickets) {
+                ticket.released = true;
+                ticket.worldTickets = null;
+                ticket.chunks.clear();
+            }
+            this.tickets.clear();
+            this.forcedChunks.clear();
+        }
+
+    }
+
+    /**
+     * The parts of a world the tickets use.
+     */
+    interface WorldAccess {
+
+        /**
+         * Loads a chunk that was forced, which also takes it off the unload
+         * queue.
+         *
+         * @param chunkX The chunk x coordinate
+         * @param chunkZ The chunk z coordinate
+         */
+        void loadChunk(int chunkX, int chunkZ);
+
+        /**
+         * Queues a chunk that is no longer forced for unloading.
+         *
+         * @param chunkX The chunk x coordinate
+         * @param chunkZ The chunk z coordinate
+         */
+        void dropChunk(int chunkX, int chunkZ);
+
+        /**
+         * Gets the Sponge data of the world, which the tickets are saved to.
+         *
+         * @return The Sponge data
+         */
+        NBTTagCompound getSpongeNbt();
+
+    }
+
+    private static final class ServerWorldAccess implements WorldAccess {
+
+        private final WorldServer world;
+
+        ServerWorldAccess(WorldServer world) {
+            this.world = world;
+        }
+
+        @Override
+        public void loadChunk(int chunkX, int chunkZ) {
+            this.world.theChunkProviderServer.loadChunk(chunkX, chunkZ);
+        }
+
+        @Override
+        public void dropChunk(int chunkX, int chunkZ) {
+            // Leave chunks that players still watch to the player manager
+            if (!this.world.getPlayerManager().hasPlayerInstance(chunkX, chunkZ)) {
+                this.world.theChunkProviderServer.dropChunk(chunkX, chunkZ);
+            }
+        }
+
+        @Override
+        public NBTTagCompound getSpongeNbt() {
+            return ((IMixinWorldInfo) this.world.getWorldInfo()).getSpongeNbt();
+        }
+
+    }
+
+    private static class SpongeLoadingTicket implements LoadingTicket {
+
+        final SpongeChunkTicketManager manager;
+        final String plugin;
+        final World world;
+        final LinkedHashSet<Long> chunks = new LinkedHashSet<>();
+        // Chunks read from the world's data, forced once the ticket is restored
+        final LinkedHashSet<Long> savedChunks = new LinkedHashSet<>();
+        int numChunks;
+        boolean released;
+        // The tickets of the world this ticket was added to, null once released
+        @Nullable WorldTickets worldTickets;
+        @Nullable DataContainer companionData;
+
+        SpongeLoadingTicket(SpongeChunkTicketManager manager, String plugin, World world) {
+            this.manager = manager;
+            this.plugin = plugin;
+            this.world = world;
+            this.numChunks = getMaxNumChunks();
+        }
+
+        void markDirty() {
+            if (this.worldTickets != null) {
+                this.worldTickets.markDirty();
+            }
+        }
+
+        byte getType() {
+            return TYPE_PLUGIN;
+        }
+
+        NBTTagCompound write() {
+            NBTTagCompound ticketNbt = new NBTTagCompound();
+            ticketNbt.setString("Plugin", this.plugin);
+            ticketNbt.setByte("Type", getType());
+            ticketNbt.setInteger("NumChunks", this.numChunks);
+            int[] chunks = new int[this.chunks.size() * 2];
+            int i = 0;
+            for (long chunk : this.chunks) {
+                chunks[i++] = (int) chunk;
+                chunks[i++] = (int) (chunk >> 32);
+            }
+            ticketNbt.setIntArray("Chunks", chunks);
+            if (this.companionData != null) {
+                ticketNbt.setTag("Data", NbtTranslator.getInstance().translateData(this.companionData));
+            }
+            return ticketNbt;
+        }
+
+        @Override
+        public boolean setNumChunks(int numChunks) {
+            if (numChunks < 0 || numChunks > getMaxNumChunks()) {
+                return false;
+            }
+            this.numChunks = numChunks;
+            if (this.worldTickets == null) {
+                return true;
+            }
+            // Release the oldest chunks that no longer fit
+            Iterator<Long> it = this.chunks.iterator();
+            while (this.chunks.size() > numChunks && it.hasNext()) {
+                long chunk = it.next();
+                it.remove();
+                this.worldTickets.unforce(this, chunk);
+            }
+            this.worldTickets.markDirty();
+            return true;
+        }
+
+        @Override
+        public int getNumChunks() {
+            return this.numChunks;
+        }
+
+        @Override
+        public int getMaxNumChunks() {
+            return this.manager.getConfig().getMaxChunksPerTicket();
+        }
+
+        @Override
+        public String getPlugin() {
+            return this.plugin;
+        }
+
+        @Override
+        public ImmutableSet<Vector3i> getChunkList() {
+            ImmutableSet.Builder<Vector3i> builder = ImmutableSet.builder();
+            for (long chunk : this.chunks) {
+                builder.add(toChunk(chunk));
+            }
+            return builder.build();
+        }
+
+        @Override
+        public void forceChunk(Vector3i chunk) {
+            checkState(!this.released && this.worldTickets != null, "Ticket was released");
+            long packed = toPacked(chunk);
+            if (this.numChunks == 0 || !this.chunks.add(packed)) {
+                return;
+            }
+            // Release the oldest chunk if the ticket is full
+            if (this.chunks.size() > this.numChunks) {
+                long oldest = this.chunks.iterator().next();
+                this.chunks.remove(oldest);
+                this.worldTickets.unforce(this, oldest);
+            }
+            this.worldTickets.force(this, packed);
+            this.worldTickets.markDirty();
+        }
+
+        @Override
+        public void unforceChunk(Vector3i chunk) {
+            long packed = toPacked(chunk);
+            // Released tickets have no chunks
+            if (this.chunks.remove(packed)) {
+                this.worldTickets.unforce(this, packed);
+                this.worldTickets.markDirty();
+            }
+        }
+
+        @Override
+        public void prioritizeChunk(Vector3i chunk) {
+            // The newest chunks are released last
+            long packed = toPacked(chunk);
+            if (this.chunks.remove(packed)) {
+                this.chunks.add(packed);
+                markDirty();
+            }
+        }
+
+        @Override
+        public DataContainer getCompanionData() {
+            if (this.companionData == null) {
+                this.companionData = new MemoryDataContainer();
+            }
+            return this.companionData;
+        }
+
+        @Override
+        public void setCompanionData(DataContainer container) {
+            this.companionData = checkNotNull(container, "container");
+            markDirty();
+        }
+
+        @Override
+        public void release() {
+            if (this.released) {
+                return;
+            }
+            this.released = true;
+            WorldTickets tickets = this.worldTickets;
+            this.worldTickets = null;
+            if (tickets == null) {
+                return;
+            }
+            for (long chunk : this.chunks) {
+                tickets.unforce(this, chunk);
+            }
+            this.chunks.clear();
+            tickets.tickets.remove(this);
+            tickets.markDirty();
+        }
+
+    }
+
+    private static class SpongeEntityLoadingTicket extends SpongeLoadingTicket implements EntityLoadingTicket {
+
+        @Nullable UUID entity;
+
+        SpongeEntityLoadingTicket(SpongeChunkTicketManager manager, String plugin, World world) {
+            super(manager, plugin, world);
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_ENTITY;
+        }
+
+        @Override
+        NBTTagCompound write() {
+            NBTTagCompound ticketNbt = super.write();
+            if (this.entity != null) {
+                ticketNbt.setLong("EntityMost", this.entity.getMostSignificantBits());
+                ticketNbt.setLong("EntityLeast", this.entity.getLeastSignificantBits());
+            }
+            return ticketNbt;
+        }
+
+        @Override
+        public void bindToEntity(Entity entity) {
+            checkState(this.entity == null, "Ticket is already bound to an entity");
+            checkArgument(entity.getWorld().equals(this.world), "Entity is in another world");
+            this.entity = entity.getUniqueId();
+            markDirty();
+        }
+
+        @Nullable
+        @Override
+        public Entity getBoundEntity() {
+            return this.entity == null ? null : this.world.getEntity(this.entity).orElse(null);
+        }
+
+    }
+
+    private static class SpongePlayerLoadingTicket extends SpongeLoadingTicket implements PlayerLoadingTicket {
+
+        final UUID player;
+
+        SpongePlayerLoadingTicket(SpongeChunkTicketManager manager, String plugin, World world, UUID player) {
+            super(manager, plugin, world);
+            this.player = checkNotNull(player, "player");
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_PLAYER;
+        }
+
+        @Override
+        NBTTagCompound write() {
+            NBTTagCompound ticketNbt = super.write();
+            ticketNbt.setLong("PlayerMost", this.player.getMostSignificantBits());
+            ticketNbt.setLong("PlayerLeast", this.player.getLeastSignificantBits());
+            return ticketNbt;
+        }
+
+        @Override
+        public UUID getPlayerUniqueId() {
+            return this.player;
+        }
+
+    }
+
+    private static final class SpongePlayerEntityLoadingTicket extends SpongeEntityLoadingTicket implements PlayerEntityLoadingTicket {
+
+        final UUID player;
+
+        SpongePlayerEntityLoadingTicket(SpongeChunkTicketManager manager, String plugin, World world, UUID player) {
+            super(manager, plugin, world);
+            this.player = checkNotNull(player, "player");
+        }
+
+        @Override
+        byte getType() {
+            return TYPE_PLAYER_ENTITY;
+        }
+
+        @Override
+        NBTTagCompound write() {
+            NBTTagCompound ticketNbt = super.write();
+            ticketNbt.setLong("PlayerMost", this.player.getMostSignificantBits());
+            ticketNbt.setLong("PlayerLeast", this.player.getLeastSignificantBits());
+            return ticketNbt;
+        }
+
+        @Override
+        public UUID getPlayerUniqueId() {
+            return this.player;
+        }
+
+    }
+
+}
@@ -32,6 +32,7 @@
 import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.common.util.gen.AtomicByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayImmutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 
@@ -102,6 +103,7 @@ public MutableBiomeArea getBiomeCopy(StorageType type) {
             case STANDARD:
                 return new ByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size), this.min, this.size);
             case THREAD_SAFE:
+                return new AtomicByteArrayMutableBiomeBuffer(ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size), this.min, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -33,8 +33,7 @@
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.StorageType;
 import org.spongepowered.common.util.VecHelper;
-import org.spongepowered.common.util.gen.ShortArrayImmutableBlockBuffer;
-import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
+import org.spongepowered.common.util.gen.AtomicShortArrayMutableBlockBuffer;
 
 public abstract class AbstractBlockViewDownsize<V extends BlockVolume> implements BlockVolume {
 
@@ -111,8 +110,10 @@ public MutableBlockVolume getBlockCopy() {
     public MutableBlockVolume getBlockCopy(StorageType type) {
         switch (type) {
             case STANDARD:
-                return new ShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size), this.min, this.size);
+                return ExtentBufferUtil.newBlockCopy(this, this.min, this.max, this.size);
             case THREAD_SAFE:
+                return new AtomicShortArrayMutableBlockBuffer(ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size),
+                    this.min, this.size);
             default:
                 throw new UnsupportedOperationException(type.name());
         }
@@ -120,8 +121,7 @@ public MutableBlockVolume getBlockCopy(StorageType type) {
 
     @Override
     public ImmutableBlockVolume getImmutableBlockCopy() {
-        return ShortArrayImmutableBlockBuffer.newWithoutArrayClone(ExtentBufferUtil.copyToArray(this, this.min, this.max, this.size), this.min,
-            this.size);
+        return ExtentBufferUtil.newImmutableBlockCopy(this, this.min, this.max, this.size);
     }
 
 }
@@ -26,13 +26,37 @@
 
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.Lists;
 import net.minecraft.block.Block;
+import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.api.util.DiscreteTransform3;
 import org.spongepowered.api.world.extent.BiomeArea;
 import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.common.interfaces.block.IMixinBlock;
+import org.spongepowered.common.util.gen.MappedImmutableBlockBuffer;
+import org.spongepowered.common.util.gen.MappedMutableBlockBuffer;
+import org.spongepowered.common.util.gen.MappedShortArray;
+import org.spongepowered.common.util.gen.PalettedBlockArray;
+import org.spongepowered.common.util.gen.ShortArrayImmutableBlockBuffer;
+import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
 
 public class ExtentBufferUtil {
 
+    // Sections to copy before the copy is spread over the common pool
+    private static final int PARALLEL_SECTION_THRESHOLD = 64;
+    // Blocks copied onto the heap at once when copying into mapped or paletted storage
+    private static final long SLAB_BLOCKS = 1 << 24;
+
     public static byte[] copyToArray(BiomeArea area, Vector2i min, Vector2i max, Vector2i size) {
         // Check if the area has more biomes than can be stored in an array
         final long memory = (long) size.getX() * (long) size.getY();
@@ -58,6 +82,9 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
             throw new OutOfMemoryError("Cannot copy the blocks to an array because the size limit was reached");
         }
         final short[] copy = new short[(int) memory];
+        if (copyFromSections(volume, min, max, size, copy)) {
+            return copy;
+        }
         int i = 0;
         for (int x = min.getX(); x <= max.getX(); x++) {
             for (int z = min.getZ(); z <= max.getZ(); z++) {
@@ -69,4 +96,291 @@ public static short[] copyToArray(BlockVolume volume, Vector3i min, Vector3i max
         return copy;
     }
 
+    /**
+     * Gets whether the blocks of a volume of the given size fit into an array.
+     *
+     * @param size The size of the volume
+     * @return Whether {@link #copyToArray(BlockVolume, Vector3i, Vector3i,
+     *     Vector3i)} can copy the volume
+     */
+    public static boolean fitsInArray(Vector3i size) {
+        // Leave 8 bytes for a header used in some JVMs
+        return (long) size.getX() * (long) size.getY() * (long) size.getZ() <= Integer.MAX_VALUE - 8;
+    }
+
+    /**
+     * Copies the blocks into a memory-mapped array, one slab at a time so
+     * only a slab is ever on the heap.
+     *
+     * @return The mapped copy
+     */
+    public static MappedShortArray copyToMappedArray(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size) {
+        final MappedShortArray copy = new MappedShortArray((long) size.getX() * (long) size.getY() * (long) size.getZ());
+        copyInSlabs(volume, min, max, size, copy::set);
+        return copy;
+    }
+
+    /**
+     * Copies the blocks into a paletted array, one slab at a time so only a
+     * slab is ever unpacked on the heap.
+     *
+     * @return The paletted copy
+     */
+    public static PalettedBlockArray copyToPalettedArray(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size) {
+        final PalettedBlockArray copy = new PalettedBlockArray((long) size.getX() * (long) size.getY() * (long) size.getZ());
+        copyInSlabs(volume, min, max, size, copy::set);
+        return copy;
+    }
+
+    /**
+     * Copies the blocks one slab of at most {@link #SLAB_BLOCKS} blocks at a
+     * time, passing each slab with the index of its first block in the copy.
+     * Slabs are whole x slices where those are small enough, and otherwise
+     * runs of z columns, or runs of y within a column, so each slab is
+     * contiguous in the copy.
+     */
+    private static void copyInSlabs(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size, SlabConsumer slabs) {
+        final long column = size.getY();
+        final long slice = column * size.getZ();
+        final int slabWidth = slice <= SLAB_BLOCKS ? (int) Math.max(1, Math.min(size.getX(), SLAB_BLOCKS / Math.max(1, slice))) : 1;
+        final int slabDepth = slice <= SLAB_BLOCKS ? size.getZ() : column <= SLAB_BLOCKS ? (int) (SLAB_BLOCKS / column) : 1;
+        final int slabHeight = column <= SLAB_BLOCKS ? size.getY() : (int) SLAB_BLOCKS;
+        for (int x = min.getX(); x <= max.getX(); x += slabWidth) {
+            for (int z = min.getZ(); z <= max.getZ(); z += slabDepth) {
+                for (int y = min.getY(); y <= max.getY(); y += slabHeight) {
+                    final Vector3i slabMin = new Vector3i(x, y, z);
+                    final Vector3i slabMax = new Vector3i(Math.min(max.getX(), x + slabWidth - 1), Math.min(max.getY(), y + slabHeight - 1),
+                            Math.min(max.getZ(), z + slabDepth - 1));
+                    final long offset = ((x - min.getX()) * (long) size.getZ() + z - min.getZ()) * column + y - min.getY();
+                    slabs.accept(offset, copyToArray(volume, slabMin, slabMax, slabMax.sub(slabMin).add(Vector3i.ONE)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the blocks into a new mutable buffer, which is kept off the heap
+     * if the volume doesn't fit into an array.
+     *
+     * @return The new buffer
+     */
+    public static MutableBlockVolume newBlockCopy(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size) {
+        if (fitsInArray(size)) {
+            return new ShortArrayMutableBlockBuffer(copyToArray(volume, min, max, size), min, size);
+        }
+        return new MappedMutableBlockBuffer(copyToMappedArray(volume, min, max, size), min, size);
+    }
+
+    /**
+     * Copies the blocks into a new immutable buffer, which is kept off the heap
+     * if the volume doesn't fit into an array.
+     *
+     * @return The new buffer
+     */
+    public static ImmutableBlockVolume newImmutableBlockCopy(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size) {
+        if (fitsInArray(size)) {
+            return ShortArrayImmutableBlockBuffer.newWithoutArrayClone(copyToArray(volume, min, max, size), min, size);
+        }
+        return new MappedImmutableBlockBuffer(copyToMappedArray(volume, min, max, size), min, size);
+    }
+
+    /**
+     * Copies the blocks of a world or chunk, or of a view of one, straight
+     * from the state id arrays of the chunk sections. This skips the chunk
+     * lookup and the state id lookup that {@link BlockVolume#getBlock} needs
+     * for every block.
+     *
+     * <p>Chunks are always fetched on the calling thread. Copying the
+     * sections themselves is spread over the common pool once enough of
+     * them are involved.</p>
+     *
+     * @return False if the volume isn't backed by a world or chunk
+     */
+    private static boolean copyFromSections(BlockVolume volume, Vector3i min, Vector3i max, Vector3i size, short[] copy) {
+        BlockVolume backing = unwrapDownsize(volume);
+        DiscreteTransform3 inverseTransform = null;
+        if (backing instanceof ExtentViewTransform) {
+            inverseTransform = ((ExtentViewTransform) backing).getInverseTransform();
+            backing = unwrapDownsize(((ExtentViewTransform) backing).getBackingExtent());
+        }
+        if (!(backing instanceof World) && !(backing instanceof Chunk)) {
+            return false;
+        }
+        // Only worlds report the actual state of blocks such as fences
+        final ActualStateCheck actualState = backing instanceof World ? new ActualStateCheck() : null;
+        if (inverseTransform != null) {
+            copyTransformed(volume, backing, inverseTransform, min, max, size, copy, actualState);
+            return true;
+        }
+
+        final List<Section> sections = Lists.newArrayList();
+        final int minSection = Math.max(min.getY(), 0) >> 4;
+        final int maxSection = Math.min(max.getY(), 255) >> 4;
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                final ExtendedBlockStorage[] storage = getChunk(backing, chunkX, chunkZ).getBlockStorageArray();
+                for (int sectionY = minSection; sectionY <= maxSection; sectionY++) {
+                    // Missing sections are all air, which is already id 0
+                    if (storage[sectionY] != null) {
+                        sections.add(new Section(chunkX, sectionY, chunkZ, storage[sectionY].getData()));
+                    }
+                }
+            }
+        }
+
+        IntStream indices = IntStream.range(0, sections.size());
+        if (sections.size() >= PARALLEL_SECTION_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        final int[] needActualState = indices
+                .filter(index -> sections.get(index).copyTo(copy, min, max, size, actualState))
+                .toArray();
+        // getActualState can look at neighbouring chunks, so it has to run here
+        for (int index : needActualState) {
+            sections.get(index).copyActualState(volume, copy, min, max, size, actualState);
+        }
+        return true;
+    }
+
+    private static void copyTransformed(BlockVolume volume, BlockVolume backing, DiscreteTransform3 inverseTransform, Vector3i min,
+            Vector3i max, Vector3i size, short[] copy, @Nullable ActualStateCheck actualState) {
+        Chunk chunk = null;
+        int i = 0;
+        for (int x = min.getX(); x <= max.getX(); x++) {
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                for (int y = min.getY(); y <= max.getY(); y++, i++) {
+                    final int backingX = inverseTransform.transformX(x, y, z);
+                    final int backingY = inverseTransform.transformY(x, y, z);
+                    final int backingZ = inverseTransform.transformZ(x, y, z);
+                    if (backingY < 0 || backingY > 255) {
+                        continue;
+                    }
+                    if (chunk == null || chunk.xPosition != backingX >> 4 || chunk.zPosition != backingZ >> 4) {
+                        chunk = getChunk(backing, backingX >> 4, backingZ >> 4);
+                    }
+                    final ExtendedBlockStorage section = chunk.getBlockStorageArray()[backingY >> 4];
+                    if (section == null) {
+                        continue;
+                    }
+                    final char id = section.getData()[(backingY & 15) << 8 | (backingZ & 15) << 4 | (backingX & 15)];
+                    if (actualState != null && actualState.isNeeded(id)) {
+                        copy[i] = (short) Block.BLOCK_STATE_IDS.get(volume.getBlock(x, y, z));
+                    } else {
+                        copy[i] = (short) id;
+                    }
+                }
+            }
+        }
+    }
+
+    private static BlockVolume unwrapDownsize(BlockVolume volume) {
+        // Downsized views only narrow the bounds, positions are unchanged
+        while (volume instanceof ExtentViewDownsize) {
+            volume = ((ExtentViewDownsize) volume).getBackingExtent();
+        }
+        return volume;
+    }
+
+    private static Chunk getChunk(BlockVolume backing, int chunkX, int chunkZ) {
+        if (backing instanceof Chunk) {
+            return (Chunk) backing;
+        }
+        return ((World) backing).getChunkFromChunkCoords(chunkX, chunkZ);
+    }
+
+    private static final class Section {
+
+        private final int chunkX;
+        private final int sectionY;
+        private final int chunkZ;
+        private final char[] data;
+
+        Section(int chunkX, int sectionY, int chunkZ, char[] data) {
+            this.chunkX = chunkX;
+            this.sectionY = sectionY;
+            this.chunkZ = chunkZ;
+            this.data = data;
+        }
+
+        /**
+         * Copies the part of this section inside the bounds into the array.
+         *
+         * @return Whether any of the copied blocks need their actual state
+         */
+        boolean copyTo(short[] copy, Vector3i min, Vector3i max, Vector3i size, @Nullable ActualStateCheck actualState) {
+            final int minX = Math.max(min.getX(), this.chunkX << 4);
+            final int maxX = Math.min(max.getX(), this.chunkX << 4 | 15);
+            final int minY = Math.max(min.getY(), this.sectionY << 4);
+            final int maxY = Math.min(max.getY(), this.sectionY << 4 | 15);
+            final int minZ = Math.max(min.getZ(), this.chunkZ << 4);
+            final int maxZ = Math.min(max.getZ(), this.chunkZ << 4 | 15);
+            boolean needActualState = false;
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int i = ((x - min.getX()) * size.getZ() + z - min.getZ()) * size.getY() + minY - min.getY();
+                    final int column = (z & 15) << 4 | (x & 15);
+                    for (int y = minY; y <= maxY; y++) {
+                        final char id = this.data[(y & 15) << 8 | column];
+                        copy[i++] = (short) id;
+                        needActualState |= actualState != null && actualState.isNeeded(id);
+                    }
+                }
+            }
+            return needActualState;
+        }
+
+        void copyActualState(BlockVolume volume, short[] copy, Vector3i min, Vector3i max, Vector3i size, ActualStateCheck actualState) {
+            final int minX = Math.max(min.getX(), this.chunkX << 4);
+            final int maxX = Math.min(max.getX(), this.chunkX << 4 | 15);
+            final int minY = Math.max(min.getY(), this.sectionY << 4);
+            final int maxY = Math.min(max.getY(), this.sectionY << 4 | 15);
+            final int minZ = Math.max(min.getZ(), this.chunkZ << 4);
+            final int maxZ = Math.min(max.getZ(), this.chunkZ << 4 | 15);
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int i = ((x - min.getX()) * size.getZ() + z - min.getZ()) * size.getY() + minY - min.getY();
+                    for (int y = minY; y <= maxY; y++, i++) {
+                        if (actualState.isNeeded((char) copy[i])) {
+                            copy[i] = (short) Block.BLOCK_STATE_IDS.get(volume.getBlock(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface SlabConsumer {
+
+        void accept(long offset, short[] blocks);
+
+    }
+
+    /**
+     * Caches {@link IMixinBlock#forceUpdateBlockState()} per block id, since
+     * worlds return the actual state of those blocks from getBlock.
+     */
+    private static final class ActualStateCheck {
+
+        private static final byte UNKNOWN = 0;
+        private static final byte NOT_NEEDED = 1;
+        private static final byte NEEDED = 2;
+
+        // Racing threads can only ever store the same answer
+        private final byte[] blocks = new byte[4096];
+
+        boolean isNeeded(char stateId) {
+            final int blockId = stateId >> 4;
+            byte needed = this.blocks[blockId];
+            if (needed == UNKNOWN) {
+                final Block block = Block.getBlockById(blockId);
+                needed = block != null && ((IMixinBlock) block).forceUpdateBlockState() ? NEEDED : NOT_NEEDED;
+                this.blocks[blockId] = needed;
+            }
+            return needed == NEEDED;
+        }
+
+    }
+
 }
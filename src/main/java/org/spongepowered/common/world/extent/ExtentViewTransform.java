@@ -75,6 +75,14 @@ public static Extent newInstance(Extent extent, DiscreteTransform3 transform) {
         return (Extent) new ExtentViewTransform(extent, transform);
     }
 
+    public Extent getBackingExtent() {
+        return this.extent;
+    }
+
+    public DiscreteTransform3 getInverseTransform() {
+        return this.inverseTransform;
+    }
+
     public static class DiscreteTransform3to2 {
 
         private final DiscreteTransform3 transform;
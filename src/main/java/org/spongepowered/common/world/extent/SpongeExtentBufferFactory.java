@@ -26,10 +26,16 @@
 
 import com.flowpowered.math.vector.Vector2i;
 import com.flowpowered.math.vector.Vector3i;
+import org.spongepowered.api.world.extent.BlockVolume;
 import org.spongepowered.api.world.extent.ExtentBufferFactory;
 import org.spongepowered.api.world.extent.MutableBiomeArea;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.common.util.gen.AtomicByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.AtomicShortArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
+import org.spongepowered.common.util.gen.MappedMutableBlockBuffer;
+import org.spongepowered.common.util.gen.PalettedMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ShortArrayMutableBlockBuffer;
 
 public final class SpongeExtentBufferFactory implements ExtentBufferFactory {
@@ -51,12 +57,12 @@ public MutableBiomeArea createBiomeBuffer(int xSize, int zSize) {
 
     @Override
     public MutableBiomeArea createThreadSafeBiomeBuffer(Vector2i size) {
-        throw new UnsupportedOperationException();
+        return new AtomicByteArrayMutableBiomeBuffer(Vector2i.ZERO, size);
     }
 
     @Override
     public MutableBiomeArea createThreadSafeBiomeBuffer(int xSize, int zSize) {
-        throw new UnsupportedOperationException();
+        return createThreadSafeBiomeBuffer(new Vector2i(xSize, zSize));
     }
 
     @Override
@@ -69,14 +75,77 @@ public MutableBlockVolume createBlockBuffer(int xSize, int ySize, int zSize) {
         return createBlockBuffer(new Vector3i(xSize, ySize, zSize));
     }
 
+    /**
+     * Creates a block buffer that stores its blocks as bit-packed indices into
+     * a palette. Volumes with few different blocks take a fraction of the
+     * memory of {@link #createBlockBuffer(Vector3i)}, and the volume may have
+     * more than {@link Integer#MAX_VALUE} blocks.
+     *
+     * @param size The size of the buffer
+     * @return The new buffer
+     */
+    public MutableBlockVolume createPalettedBlockBuffer(Vector3i size) {
+        return new PalettedMutableBlockBuffer(Vector3i.ZERO, size);
+    }
+
+    public MutableBlockVolume createPalettedBlockBuffer(int xSize, int ySize, int zSize) {
+        return createPalettedBlockBuffer(new Vector3i(xSize, ySize, zSize));
+    }
+
+    /**
+     * Copies the blocks of a volume into a paletted buffer. This is the
+     * paletted counterpart of {@link BlockVolume#getBlockCopy(StorageType)},
+     * whose storage types are fixed by the API. Only a slab of the volume
+     * is unpacked on the heap at any time during the copy.
+     *
+     * @param volume The volume to copy
+     * @return The copy, with the same bounds as the volume
+     */
+    public MutableBlockVolume createPalettedBlockCopy(BlockVolume volume) {
+        return new PalettedMutableBlockBuffer(ExtentBufferUtil.copyToPalettedArray(volume, volume.getBlockMin(), volume.getBlockMax(),
+            volume.getBlockSize()), volume.getBlockMin(), volume.getBlockSize());
+    }
+
+    /**
+     * Creates a block buffer that keeps its blocks in a memory-mapped
+     * temporary file instead of on the heap. The volume may have more than
+     * {@link Integer#MAX_VALUE} blocks. The buffer is {@link AutoCloseable},
+     * closing it releases the mapping without waiting for the garbage
+     * collector.
+     *
+     * @param size The size of the buffer
+     * @return The new buffer
+     */
+    public MutableBlockVolume createMappedBlockBuffer(Vector3i size) {
+        return new MappedMutableBlockBuffer(Vector3i.ZERO, size);
+    }
+
+    public MutableBlockVolume createMappedBlockBuffer(int xSize, int ySize, int zSize) {
+        return createMappedBlockBuffer(new Vector3i(xSize, ySize, zSize));
+    }
+
+    /**
+     * Copies the blocks of a volume into a memory-mapped buffer, such as a
+     * view of a world that is to be snapshotted. Only a slab of the volume is
+     * on the heap at any time during the copy. Like
+     * {@link #createMappedBlockBuffer(Vector3i)}, the copy can be closed.
+     *
+     * @param volume The volume to copy
+     * @return The copy, with the same bounds as the volume
+     */
+    public MutableBlockVolume createMappedBlockCopy(BlockVolume volume) {
+        return new MappedMutableBlockBuffer(ExtentBufferUtil.copyToMappedArray(volume, volume.getBlockMin(), volume.getBlockMax(),
+            volume.getBlockSize()), volume.getBlockMin(), volume.getBlockSize());
+    }
+
     @Override
     public MutableBlockVolume createThreadSafeBlockBuffer(Vector3i size) {
-        throw new UnsupportedOperationException();
+        return new AtomicShortArrayMutableBlockBuffer(Vector3i.ZERO, size);
     }
 
     @Override
     public MutableBlockVolume createThreadSafeBlockBuffer(int xSize, int ySize, int zSize) {
-        throw new UnsupportedOperationException();
+        return createThreadSafeBlockBuffer(new Vector3i(xSize, ySize, zSize));
     }
 
 }
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.gen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import co.aikar.timings.SpongeTimings;
+import net.minecraft.world.ChunkCoordIntPair;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A bounded cache of the biomes generated for chunk columns, keyed by chunk
+ * coordinate. When full, the least recently used column is evicted.
+ *
+ * <p>Biomes are stored in the same layout as {@link
+ * net.minecraft.world.chunk.Chunk#getBiomeArray()}. This class is thread
+ * safe, a column missed by two threads at once is generated twice.</p>
+ *
+ * <p>Hits and misses are counted, and are printed by the chunks command.
+ * Generating the biomes of a missed column on the main thread shows up in
+ * timings as "Biome Cache - Generate".</p>
+ */
+public final class ChunkBiomeCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+    private static final int CHUNK_AREA = 256;
+
+    private final int maxSize;
+    private final Map<Long, byte[]> biomes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize The number of chunk columns to keep, 0 to keep none
+     */
+    public ChunkBiomeCache(int maxSize) {
+        checkArgument(maxSize >= 0, "maxSize must not be negative");
+        this.maxSize = maxSize;
+        this.biomes = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > ChunkBiomeCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Copies the biomes of the given chunk column into the target array. If
+     * they aren't cached, the generator is called to write them into the
+     * target array, and they are cached from there.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param target The array of 256 biome ids to fill
+     * @param generator Generates the biomes into the array it is given
+     */
+    public void getBiomes(int chunkX, int chunkZ, byte[] target, Consumer<byte[]> generator) {
+        checkArgument(target.length == CHUNK_AREA, "target must hold the biomes of one chunk");
+        if (this.maxSize == 0) {
+            generator.accept(target);
+            return;
+        }
+
+        final Long key = ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ);
+        final byte[] cached;
+        synchronized (this.biomes) {
+            cached = this.biomes.get(key);
+        }
+        if (cached != null) {
+            System.arraycopy(cached, 0, target, 0, CHUNK_AREA);
+            this.hits.increment();
+            return;
+        }
+
+        this.misses.increment();
+        SpongeTimings.biomeGenerationTimer.startTimingIfSync();
+        generator.accept(target);
+        SpongeTimings.biomeGenerationTimer.stopTimingIfSync();
+        final byte[] copy = target.clone();
+        synchronized (this.biomes) {
+            this.biomes.put(key, copy);
+        }
+    }
+
+    /**
+     * Removes all cached biomes, for example because the biome generator
+     * changed.
+     */
+    public void clear() {
+        synchronized (this.biomes) {
+            this.biomes.clear();
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public int size() {
+        synchronized (this.biomes) {
+            return this.biomes.size();
+        }
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+}
@@ -51,9 +51,11 @@
 public final class CustomWorldChunkManager extends WorldChunkManager {
 
     private static final Vector2i CACHED_AREA_SIZE = new Vector2i(40, 40);
+    private static final Vector2i CHUNK_AREA_SIZE = new Vector2i(16, 16);
 
     private final ByteArrayMutableBiomeBuffer areaForGeneration = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CACHED_AREA_SIZE);
     private final BiomeGenerator biomeGenerator;
+    private final ChunkBiomeCache chunkBiomes;
 
     /**
      * Gets a world chunk manager based on the given biome generator.
@@ -62,15 +64,29 @@ public final class CustomWorldChunkManager extends WorldChunkManager {
      * @return The world chunk manager.
      */
     public static WorldChunkManager of(BiomeGenerator biomeGenerator) {
+        return of(biomeGenerator, new ChunkBiomeCache(ChunkBiomeCache.DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Gets a world chunk manager based on the given biome generator, which
+     * keeps the biomes of whole chunks in the given cache.
+     *
+     * @param biomeGenerator The biome generator.
+     * @param chunkBiomes The cache of chunk biomes, shared with the chunk
+     *        provider
+     * @return The world chunk manager.
+     */
+    public static WorldChunkManager of(BiomeGenerator biomeGenerator, ChunkBiomeCache chunkBiomes) {
         if (biomeGenerator instanceof WorldChunkManager) {
             return ((WorldChunkManager) biomeGenerator);
         }
         // Biome generator set to some custom implementation
-        return new CustomWorldChunkManager(biomeGenerator);
+        return new CustomWorldChunkManager(biomeGenerator, chunkBiomes);
     }
 
-    private CustomWorldChunkManager(BiomeGenerator biomeGenerator) {
+    private CustomWorldChunkManager(BiomeGenerator biomeGenerator, ChunkBiomeCache chunkBiomes) {
         this.biomeGenerator = checkNotNull(biomeGenerator, "biomeGenerator");
+        this.chunkBiomes = checkNotNull(chunkBiomes, "chunkBiomes");
     }
 
     public BiomeGenerator getBiomeGenerator() {
@@ -216,6 +232,12 @@ public boolean areBiomesViable(int xCenter, int zCenter, int range, @SuppressWar
 
     @Override
     public BiomeGenBase[] loadBlockGeneratorData(BiomeGenBase[] biomeArray, int startX, int startZ, int sizeX, int sizeZ) {
+        if (sizeX == 16 && sizeZ == 16 && (startX & 15) == 0 && (startZ & 15) == 0) {
+            // The vanilla biome cache asks for whole chunks, those are shared
+            // with the chunk provider
+            return loadChunkBiomes(biomeArray, startX >> 4, startZ >> 4);
+        }
+
         if (biomeArray == null || biomeArray.length < sizeX * sizeZ) {
             biomeArray = new BiomeGenBase[sizeX * sizeZ];
         } else {
@@ -232,4 +254,24 @@ public BiomeGenBase[] loadBlockGeneratorData(BiomeGenBase[] biomeArray, int star
         return biomeArray;
     }
 
+    private BiomeGenBase[] loadChunkBiomes(BiomeGenBase[] biomeArray, int chunkX, int chunkZ) {
+        if (biomeArray == null || biomeArray.length < 256) {
+            biomeArray = new BiomeGenBase[256];
+        }
+
+        // Positions the generator doesn't set stay 0, which is ocean
+        byte[] biomes = new byte[256];
+        Vector2i start = new Vector2i(chunkX * 16, chunkZ * 16);
+        this.chunkBiomes.getBiomes(chunkX, chunkZ, biomes,
+                array -> this.biomeGenerator.generateBiomes(new ByteArrayMutableBiomeBuffer(array, start, CHUNK_AREA_SIZE)));
+
+        BiomeGenBase[] biomeById = BiomeGenBase.getBiomeGenArray();
+        for (int i = 0; i < biomes.length; i++) {
+            BiomeGenBase biome = biomeById[biomes[i] & 0xff];
+            biomeArray[i] = (biome == null ? BiomeGenBase.ocean : biome);
+        }
+
+        return biomeArray;
+    }
+
 }
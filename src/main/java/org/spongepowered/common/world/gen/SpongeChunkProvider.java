@@ -72,6 +72,8 @@
 import org.spongepowered.common.interfaces.world.biome.IBiomeGenBase;
 import org.spongepowered.common.interfaces.world.gen.IChunkProviderGenerate;
 import org.spongepowered.common.interfaces.world.gen.IFlaggedPopulator;
+import org.spongepowered.common.interfaces.world.gen.IThreadSafeGenerator;
+import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.StaticMixinHelper;
 import org.spongepowered.common.util.gen.ByteArrayMutableBiomeBuffer;
 import org.spongepowered.common.util.gen.ChunkPrimerBuffer;
@@ -81,6 +83,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -90,6 +93,8 @@
 public class SpongeChunkProvider implements WorldGenerator, IChunkProvider {
 
     private static final Vector2i CHUNK_AREA = new Vector2i(16, 16);
+    // Chunks beyond this are generated again by the main thread instead of being kept ahead
+    private static final int MAX_PREGENERATED_CHUNKS = 1024;
 
     protected BiomeGenerator biomeGenerator;
     protected GenerationPopulator baseGenerator;
@@ -97,29 +102,27 @@ public class SpongeChunkProvider implements WorldGenerator, IChunkProvider {
     protected List<Populator> pop;
     protected Map<BiomeType, BiomeGenerationSettings> biomeSettings;
     protected final World world;
-    private final ByteArrayMutableBiomeBuffer cachedBiomes;
+    private final ThreadLocal<GenerationContext> context = ThreadLocal.withInitial(GenerationContext::new);
+    private final Map<Long, Chunk> pregeneratedChunks = new ConcurrentHashMap<>();
+    private ChunkBiomeCache biomeCache;
 
     protected Random rand;
+    // Only read once constructed, the per-thread output array is passed in from the GenerationContext
     private NoiseGeneratorPerlin noise4;
-    private double[] stoneNoise;
 
     public SpongeChunkProvider(World world, GenerationPopulator base, BiomeGenerator biomegen) {
         this.world = checkNotNull(world, "world");
         this.baseGenerator = checkNotNull(base, "baseGenerator");
         this.biomeGenerator = checkNotNull(biomegen, "biomeGenerator");
 
-        // Make initially empty biome cache
-        this.cachedBiomes = new ByteArrayMutableBiomeBuffer(Vector2i.ZERO, CHUNK_AREA);
-        this.cachedBiomes.detach();
-
         this.genpop = Lists.newArrayList();
         this.pop = Lists.newArrayList();
-        this.biomeSettings = Maps.newHashMap();
+        this.biomeSettings = Maps.newConcurrentMap();
         this.rand = new Random(world.getSeed());
         this.noise4 = new NoiseGeneratorPerlin(this.rand, 4);
-        this.stoneNoise = new double[256];
 
-        this.world.provider.worldChunkMgr = CustomWorldChunkManager.of(this.biomeGenerator);
+        this.biomeCache = new ChunkBiomeCache(SpongeHooks.getActiveConfig(world).getConfig().getWorld().getBiomeCacheSize());
+        this.world.provider.worldChunkMgr = CustomWorldChunkManager.of(this.biomeGenerator, this.biomeCache);
         if (this.baseGenerator instanceof IChunkProviderGenerate) {
             ((IChunkProviderGenerate) this.baseGenerator).setBiomeGenerator(this.biomeGenerator);
         }
@@ -161,7 +164,7 @@ public Map<BiomeType, BiomeGenerationSettings> getBiomeOverrides() {
     }
 
     public void setBiomeOverrides(Map<BiomeType, BiomeGenerationSettings> biomeOverrides) {
-        this.biomeSettings = Maps.newHashMap(biomeOverrides);
+        this.biomeSettings = new ConcurrentHashMap<>(biomeOverrides);
     }
 
     @Override
@@ -172,18 +175,27 @@ public BiomeGenerator getBiomeGenerator() {
     @Override
     public void setBiomeGenerator(BiomeGenerator biomeGenerator) {
         this.biomeGenerator = biomeGenerator;
-        this.world.provider.worldChunkMgr = CustomWorldChunkManager.of(biomeGenerator);
+        // Biomes cached from the old generator are no longer valid
+        this.biomeCache = new ChunkBiomeCache(this.biomeCache.getMaxSize());
+        this.world.provider.worldChunkMgr = CustomWorldChunkManager.of(biomeGenerator, this.biomeCache);
         if (this.baseGenerator instanceof IChunkProviderGenerate) {
             ((IChunkProviderGenerate) this.baseGenerator).setBiomeGenerator(biomeGenerator);
         }
     }
 
+    /**
+     * Gets the cache of the biomes generated for whole chunks, which is
+     * shared with the world chunk manager of the world.
+     *
+     * @return The biome cache
+     */
+    public ChunkBiomeCache getBiomeCache() {
+        return this.biomeCache;
+    }
+
     @Override
     public BiomeGenerationSettings getBiomeSettings(BiomeType type) {
-        if (!this.biomeSettings.containsKey(type)) {
-            this.biomeSettings.put(type, ((IBiomeGenBase) type).initPopulators(this.world));
-        }
-        return this.biomeSettings.get(type);
+        return this.biomeSettings.computeIfAbsent(type, biome -> ((IBiomeGenBase) biome).initPopulators(this.world));
     }
 
     @Override
@@ -200,23 +212,78 @@ public List<Populator> getPopulators(Class<? extends Populator> type) {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Generates a chunk ahead of time, so a later {@link #provideChunk} of
+     * it returns the generated chunk instead of generating it again. Only
+     * the terrain is generated, the chunk is neither loaded nor populated.
+     *
+     * <p>This may only be called from a thread other than the main thread
+     * if {@link #isThreadSafe()} returned true.</p>
+     *
+     * <p>At most {@value #MAX_PREGENERATED_CHUNKS} chunks are kept, further
+     * chunks are not generated ahead of time.</p>
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return Whether the chunk was generated
+     */
+    public boolean pregenerateChunk(int chunkX, int chunkZ) {
+        if (this.pregeneratedChunks.size() >= MAX_PREGENERATED_CHUNKS) {
+            return false;
+        }
+        this.pregeneratedChunks.put(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ), generateChunk(chunkX, chunkZ));
+        return true;
+    }
+
+    /**
+     * Discards a chunk generated by {@link #pregenerateChunk} that was not
+     * provided.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    public void discardPregeneratedChunk(int chunkX, int chunkZ) {
+        this.pregeneratedChunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+    }
+
+    /**
+     * Discards all chunks generated by {@link #pregenerateChunk} that were
+     * not provided, such as when the pre-generation is cancelled or the
+     * world unloads.
+     */
+    public void clearPregeneratedChunks() {
+        this.pregeneratedChunks.clear();
+    }
+
     @Override
     public Chunk provideChunk(int chunkX, int chunkZ) {
-        this.rand.setSeed((long) chunkX * 341873128712L + (long) chunkZ * 132897987541L);
-        this.cachedBiomes.reuse(new Vector2i(chunkX * 16, chunkZ * 16));
-        this.biomeGenerator.generateBiomes(this.cachedBiomes);
+        Chunk chunk = this.pregeneratedChunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+        if (chunk != null) {
+            return chunk;
+        }
+        return generateChunk(chunkX, chunkZ);
+    }
+
+    private Chunk generateChunk(int chunkX, int chunkZ) {
+        // Everything random is seeded from the chunk position, so the chunk
+        // comes out the same no matter which thread generates it
+        final GenerationContext context = this.context.get();
+        context.rand.setSeed((long) chunkX * 341873128712L + (long) chunkZ * 132897987541L);
+        final ByteArrayMutableBiomeBuffer biomes = context.biomes;
+        biomes.reuse(new Vector2i(chunkX * 16, chunkZ * 16));
+        this.biomeCache.getBiomes(chunkX, chunkZ, context.biomeArray, array -> this.biomeGenerator.generateBiomes(biomes));
 
         // Generate base terrain
         ChunkPrimer chunkprimer = new ChunkPrimer();
         MutableBlockVolume blockBuffer = new ChunkPrimerBuffer(chunkprimer, chunkX, chunkZ);
-        ImmutableBiomeArea biomeBuffer = this.cachedBiomes.getImmutableBiomeCopy();
-        this.baseGenerator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
+        ImmutableBiomeArea biomeBuffer = biomes.getImmutableBiomeCopy();
+        populate(this.baseGenerator, blockBuffer, biomeBuffer);
 
-        replaceBiomeBlocks(this.world, this.rand, chunkX, chunkZ, chunkprimer, biomeBuffer);
+        replaceBiomeBlocks(this.world, context.rand, chunkX, chunkZ, chunkprimer, biomeBuffer, context.stoneNoise);
 
         // Apply the generator populators to complete the blockBuffer
         for (GenerationPopulator populator : this.genpop) {
-            populator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
+            populate(populator, blockBuffer, biomeBuffer);
         }
 
         // Get unique biomes to determine what generator populators to run
@@ -224,7 +291,7 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
         BiomeType biome;
         for (int x = 0; x < 16; x++) {
             for (int z = 0; z < 16; z++) {
-                biome = this.cachedBiomes.getBiome(chunkX * 16 + x, chunkZ * 16 + z);
+                biome = biomes.getBiome(chunkX * 16 + x, chunkZ * 16 + z);
                 if (!uniqueBiomes.contains(biome)) {
                     uniqueBiomes.add(biome);
                 }
@@ -233,22 +300,58 @@ public Chunk provideChunk(int chunkX, int chunkZ) {
 
         // run our generator populators
         for (BiomeType type : uniqueBiomes) {
-            if (!this.biomeSettings.containsKey(type)) {
-                this.biomeSettings.put(type, ((IBiomeGenBase) type).initPopulators(this.world));
-            }
-            for (GenerationPopulator populator : this.biomeSettings.get(type).getGenerationPopulators()) {
-                populator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
+            for (GenerationPopulator populator : getBiomeSettings(type).getGenerationPopulators()) {
+                populate(populator, blockBuffer, biomeBuffer);
             }
         }
 
         // Assemble chunk
         Chunk chunk = new Chunk(this.world, chunkprimer, chunkX, chunkZ);
         byte[] biomeArray = chunk.getBiomeArray();
-        System.arraycopy(this.cachedBiomes.detach(), 0, biomeArray, 0, biomeArray.length);
+        System.arraycopy(biomes.detach(), 0, biomeArray, 0, biomeArray.length);
         chunk.generateSkylightMap();
         return chunk;
     }
 
+    private void populate(GenerationPopulator populator, MutableBlockVolume blockBuffer, ImmutableBiomeArea biomeBuffer) {
+        populator.populate((org.spongepowered.api.world.World) this.world, blockBuffer, biomeBuffer);
+    }
+
+    /**
+     * Gets whether the terrain of this provider may be generated by
+     * {@link #pregenerateChunk} on other threads than the main thread. That
+     * is only the case if the biome generator and every generation populator,
+     * including those of all biomes, is marked with
+     * {@link IThreadSafeGenerator}.
+     *
+     * <p>Vanilla generators share state that is not guarded by any lock,
+     * such as the static IntCache of the biome layers, their noise arrays
+     * and the structure data that is saved on the main thread. So unless
+     * the whole chain is safe, chunks must only be generated on the main
+     * thread.</p>
+     *
+     * <p>Must be called on the main thread, as it creates the settings of
+     * every biome that were not created yet.</p>
+     *
+     * @return Whether chunks may be generated on other threads
+     */
+    public boolean isThreadSafe() {
+        if (!(this.biomeGenerator instanceof IThreadSafeGenerator) || !isThreadSafe(this.baseGenerator)
+                || !this.genpop.stream().allMatch(SpongeChunkProvider::isThreadSafe)) {
+            return false;
+        }
+        for (BiomeType biome : Sponge.getRegistry().getAllOf(BiomeType.class)) {
+            if (!getBiomeSettings(biome).getGenerationPopulators().stream().allMatch(SpongeChunkProvider::isThreadSafe)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isThreadSafe(GenerationPopulator populator) {
+        return populator instanceof IThreadSafeGenerator;
+    }
+
     @Override
     public void populate(IChunkProvider chunkProvider, int chunkX, int chunkZ) {
         IMixinWorld world = (IMixinWorld) this.world;
@@ -266,11 +369,8 @@ public void populate(IChunkProvider chunkProvider, int chunkX, int chunkZ) {
 
         org.spongepowered.api.world.Chunk chunk = (org.spongepowered.api.world.Chunk) this.world.getChunkFromChunkCoords(chunkX, chunkZ);
 
-        if (!this.biomeSettings.containsKey(biome)) {
-            this.biomeSettings.put(biome, ((IBiomeGenBase) biome).initPopulators(this.world));
-        }
         List<Populator> populators = Lists.newArrayList(this.pop);
-        populators.addAll(this.biomeSettings.get(biome).getPopulators());
+        populators.addAll(getBiomeSettings(biome).getPopulators());
 
         Sponge.getGame().getEventManager().post(SpongeEventFactory.createPopulateChunkEventPre(populateCause, populators, chunk));
 
@@ -395,14 +495,14 @@ public boolean chunkExists(int x, int z) {
         return true;
     }
 
-    public void replaceBiomeBlocks(World world, Random rand, int x, int z, ChunkPrimer chunk, ImmutableBiomeArea biomes) {
+    public void replaceBiomeBlocks(World world, Random rand, int x, int z, ChunkPrimer chunk, ImmutableBiomeArea biomes, double[] stoneNoise) {
         double d0 = 0.03125D;
-        this.stoneNoise = this.noise4.func_151599_a(this.stoneNoise, (double) (x * 16), (double) (z * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
+        stoneNoise = this.noise4.func_151599_a(stoneNoise, (double) (x * 16), (double) (z * 16), 16, 16, d0 * 2.0D, d0 * 2.0D, 1.0D);
         Vector2i min = biomes.getBiomeMin();
         for (int k = 0; k < 16; ++k) {
             for (int l = 0; l < 16; ++l) {
                 BiomeType biomegenbase = biomes.getBiome(min.getX() + l, min.getY() + k);
-                generateBiomeTerrain(world, rand, chunk, x * 16 + k, z * 16 + l, this.stoneNoise[l + k * 16],
+                generateBiomeTerrain(world, rand, chunk, x * 16 + k, z * 16 + l, stoneNoise[l + k * 16],
                         getBiomeSettings(biomegenbase).getGroundCoverLayers());
             }
         }
@@ -473,4 +573,21 @@ public void generateBiomeTerrain(World worldIn, Random rand, ChunkPrimer chunk,
         }
     }
 
+    /**
+     * Scratch state for generating a chunk, one per generating thread.
+     */
+    private static final class GenerationContext {
+
+        final Random rand = new Random();
+        final byte[] biomeArray = new byte[CHUNK_AREA.getX() * CHUNK_AREA.getY()];
+        final ByteArrayMutableBiomeBuffer biomes = new ByteArrayMutableBiomeBuffer(this.biomeArray, Vector2i.ZERO, CHUNK_AREA);
+        final double[] stoneNoise = new double[256];
+
+        GenerationContext() {
+            // Start detached, every chunk reuses the buffer
+            this.biomes.detach();
+        }
+
+    }
+
 }
@@ -37,11 +37,12 @@
 import org.spongepowered.api.world.extent.ImmutableBiomeArea;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.gen.GenerationPopulator;
+import org.spongepowered.common.interfaces.world.gen.IThreadSafeGenerator;
 
 import java.util.Arrays;
 import java.util.Random;
 
-public class MesaBiomeGenerationPopulator implements GenerationPopulator {
+public class MesaBiomeGenerationPopulator implements GenerationPopulator, IThreadSafeGenerator {
 
     private BlockState[] possibleBlocks;
     private long lastSeed;
@@ -51,8 +52,6 @@ public class MesaBiomeGenerationPopulator implements GenerationPopulator {
     private boolean hasHills = false;
     private boolean hasTrees = false;
 
-    private double[] stoneNoise;
-
     public MesaBiomeGenerationPopulator(boolean mesa, boolean trees) {
         this.hasHills = mesa;
         this.hasTrees = trees;
@@ -61,21 +60,23 @@ public MesaBiomeGenerationPopulator(boolean mesa, boolean trees) {
     @Override
     public void populate(World world, MutableBlockVolume buffer, ImmutableBiomeArea biomes) {
         long seed = world.getProperties().getSeed();
-        if (this.possibleBlocks == null || this.lastSeed != seed) {
-            this.func_150619_a(seed);
-        }
-
-        if (this.noise1 == null || this.noise2 == null || this.lastSeed != seed) {
-            Random random1 = new Random(seed);
-            this.noise1 = new NoiseGeneratorPerlin(random1, 4);
-            this.noise2 = new NoiseGeneratorPerlin(random1, 1);
+        // The noise only depends on the seed, so once it is created several
+        // chunks may be populated at once. Taking the lock on every call also
+        // makes the fields visible to the other threads.
+        synchronized (this) {
+            if (this.possibleBlocks == null || this.lastSeed != seed) {
+                this.func_150619_a(seed);
+                Random random1 = new Random(seed);
+                this.noise1 = new NoiseGeneratorPerlin(random1, 4);
+                this.noise2 = new NoiseGeneratorPerlin(random1, 1);
+                this.lastSeed = seed;
+            }
         }
 
-        this.lastSeed = seed;
         int cx = buffer.getBlockMin().getX();
         int cz = buffer.getBlockMin().getZ();
 
-        this.stoneNoise = this.noise1.func_151599_a(this.stoneNoise, cx, cz, 16, 16, 0.0625D, 0.0625D, 1.0D);
+        double[] stoneNoise = this.noise1.func_151599_a(null, cx, cz, 16, 16, 0.0625D, 0.0625D, 1.0D);
 
         Random rand = new Random(cx / 16 * 341873128712L + cz / 16 * 132897987541L);
 
@@ -83,7 +84,7 @@ public void populate(World world, MutableBlockVolume buffer, ImmutableBiomeArea
             int xo = buffer.getBlockMin().getX() + x;
             for (int z = 0; z < 16; z++) {
                 int zo = buffer.getBlockMin().getZ() + z;
-                performOnColumn(rand, buffer, xo, zo, this.stoneNoise[x + z * 16]);
+                performOnColumn(rand, buffer, xo, zo, stoneNoise[x + z * 16]);
             }
         }
 
@@ -218,8 +219,8 @@ public IBlockState func_180629_a(int p_180629_1_, int p_180629_2_, int p_180629_
     }
 
     public void func_150619_a(long p_150619_1_) {
-        this.possibleBlocks = new BlockState[64];
-        Arrays.fill(this.possibleBlocks, Blocks.hardened_clay.getDefaultState());
+        BlockState[] possibleBlocks = new BlockState[64];
+        Arrays.fill(possibleBlocks, Blocks.hardened_clay.getDefaultState());
         Random random = new Random(p_150619_1_);
         this.noise3 = new NoiseGeneratorPerlin(random, 1);
         int j;
@@ -228,7 +229,7 @@ public void func_150619_a(long p_150619_1_) {
             j += random.nextInt(5) + 1;
 
             if (j < 64) {
-                this.possibleBlocks[j] =
+                possibleBlocks[j] =
                         (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.ORANGE);
             }
         }
@@ -244,7 +245,7 @@ public void func_150619_a(long p_150619_1_) {
             i1 = random.nextInt(64);
 
             for (j1 = 0; i1 + j1 < 64 && j1 < l; ++j1) {
-                this.possibleBlocks[i1 + j1] =
+                possibleBlocks[i1 + j1] =
                         (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.YELLOW);
             }
         }
@@ -257,7 +258,7 @@ public void func_150619_a(long p_150619_1_) {
             j1 = random.nextInt(64);
 
             for (k1 = 0; j1 + k1 < 64 && k1 < i1; ++k1) {
-                this.possibleBlocks[j1 + k1] =
+                possibleBlocks[j1 + k1] =
                         (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.BROWN);
             }
         }
@@ -269,7 +270,7 @@ public void func_150619_a(long p_150619_1_) {
             k1 = random.nextInt(64);
 
             for (int l1 = 0; k1 + l1 < 64 && l1 < j1; ++l1) {
-                this.possibleBlocks[k1 + l1] =
+                possibleBlocks[k1 + l1] =
                         (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.RED);
             }
         }
@@ -282,20 +283,21 @@ public void func_150619_a(long p_150619_1_) {
             j1 += random.nextInt(16) + 4;
 
             for (int i2 = 0; j1 + i2 < 64 && i2 < b0; ++i2) {
-                this.possibleBlocks[j1 + i2] =
+                possibleBlocks[j1 + i2] =
                         (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.WHITE);
 
                 if (j1 + i2 > 1 && random.nextBoolean()) {
-                    this.possibleBlocks[j1 + i2 - 1] =
+                    possibleBlocks[j1 + i2 - 1] =
                             (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.SILVER);
                 }
 
                 if (j1 + i2 < 63 && random.nextBoolean()) {
-                    this.possibleBlocks[j1 + i2 + 1] =
+                    possibleBlocks[j1 + i2 + 1] =
                             (BlockState) Blocks.stained_hardened_clay.getDefaultState().withProperty(BlockColored.COLOR, EnumDyeColor.SILVER);
                 }
             }
         }
+        this.possibleBlocks = possibleBlocks;
     }
 
 }
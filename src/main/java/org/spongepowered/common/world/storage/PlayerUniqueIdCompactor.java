@@ -0,0 +1,210 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.RegionFile;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraft.world.storage.ThreadedFileIOBase;
+import org.spongepowered.common.data.util.NbtDataUtil;
+import org.spongepowered.common.entity.PlayerTrackerMap;
+import org.spongepowered.common.interfaces.IMixinChunk;
+import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+import org.spongepowered.common.scheduler.SpongeScheduler;
+import org.spongepowered.common.world.DimensionManager;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Frees the indices of the {@link PlayerUniqueIdIndex} of a world that are
+ * no longer referenced by the block trackers of any of its chunks.
+ *
+ * <p>Freed indices are handed out to new players again, so the scan must
+ * see every chunk. For a loaded world, the loaded chunks are read on the
+ * main thread and the region files on a worker thread once the pending
+ * chunk saves are written, while the index records the indices chunks
+ * start to refer to in the meantime.</p>
+ */
+public final class PlayerUniqueIdCompactor {
+
+    private static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+
+    private PlayerUniqueIdCompactor() {
+    }
+
+    /**
+     * Compacts the player index of a loaded world. This must be called on
+     * the main thread, the saved chunks are scanned on a worker thread and
+     * the index is compacted on the main thread once the scan is done.
+     *
+     * @param world The world
+     * @return The number of freed indices, once the world is compacted
+     * @throws IllegalStateException If the world is already being compacted
+     */
+    public static ListenableFuture<Integer> compact(WorldServer world) {
+        PlayerUniqueIdIndex index = ((IMixinWorldInfo) world.getWorldInfo()).getPlayerUniqueIdIndex();
+        checkState(!index.isRecording(), "The player ids of %s are already being compacted", world.getWorldInfo().getWorldName());
+
+        BitSet referenced = new BitSet();
+        for (Chunk chunk : world.theChunkProviderServer.loadedChunks) {
+            markReferenced(((IMixinChunk) chunk).getTrackedShortPlayerPositions(), referenced);
+            markReferenced(((IMixinChunk) chunk).getTrackedIntPlayerPositions(), referenced);
+        }
+        index.startRecording();
+
+        File worldDirectory = world.getSaveHandler().getWorldDirectory();
+        ListenableFuture<BitSet> scan = SpongeScheduler.getInstance().getListeningExecService().submit(() -> {
+            // Chunks unloaded before the scan may not be written yet
+            ThreadedFileIOBase.getThreadedIOInstance().waitForFinish();
+            markReferenced(worldDirectory, referenced);
+            return referenced;
+        });
+        ListenableFuture<Integer> compacted = Futures.transform(scan, (AsyncFunction<BitSet, Integer>) scanned ->
+                MinecraftServer.getServer().callFromMainThread(() -> {
+                    if (DimensionManager.getWorldFromDimId(((IMixinWorldInfo) world.getWorldInfo()).getDimensionId()) != world) {
+                        // The world was unloaded and saved in the meantime
+                        index.stopRecording();
+                        return 0;
+                    }
+                    return index.retain(scanned);
+                }));
+        Futures.addCallback(compacted, new FutureCallback<Integer>() {
+
+            @Override
+            public void onSuccess(Integer freed) {
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                MinecraftServer.getServer().addScheduledTask(index::stopRecording);
+            }
+        });
+        return compacted;
+    }
+
+    /**
+     * Compacts the player index of a world before any of its chunks are
+     * loaded, only reading its saved chunks.
+     *
+     * @param worldDirectory The directory of the world
+     * @param index The player index of the world
+     * @return The number of freed indices
+     * @throws IOException If the chunks of the world couldn't be read
+     */
+    public static int compactOffline(File worldDirectory, PlayerUniqueIdIndex index) throws IOException {
+        BitSet referenced = new BitSet();
+        markReferenced(worldDirectory, referenced);
+        return index.retain(referenced);
+    }
+
+    private static void markReferenced(File worldDirectory, BitSet referenced) throws IOException {
+        File[] regionFiles = new File(worldDirectory, "region").listFiles();
+        if (regionFiles == null) {
+            return;
+        }
+        for (File file : regionFiles) {
+            Matcher matcher = REGION_FILE.matcher(file.getName());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int chunkX = Integer.parseInt(matcher.group(1)) << 5;
+            int chunkZ = Integer.parseInt(matcher.group(2)) << 5;
+            RegionFile region = RegionFileCache.createOrLoadRegionFile(worldDirectory, chunkX, chunkZ);
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    DataInputStream stream = region.getChunkDataInputStream(x, z);
+                    if (stream == null) {
+                        continue;
+                    }
+                    NBTTagCompound chunkNbt;
+                    try {
+                        chunkNbt = CompressedStreamTools.read(stream);
+                    } finally {
+                        stream.close();
+                    }
+                    NBTTagCompound levelNbt = chunkNbt.getCompoundTag("Level");
+                    if (levelNbt.hasKey(NbtDataUtil.SPONGE_DATA, NbtDataUtil.TAG_COMPOUND)) {
+                        markReferenced(levelNbt.getCompoundTag(NbtDataUtil.SPONGE_DATA), referenced);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void markReferenced(NBTTagCompound trackedNbt, BitSet referenced) {
+        for (String key : new String[] {NbtDataUtil.SPONGE_SHORT_POS_TRACKERS, NbtDataUtil.SPONGE_INT_POS_TRACKERS}) {
+            NBTTagCompound trackersNbt = trackedNbt.getCompoundTag(key);
+            markReferenced(trackersNbt.getIntArray(NbtDataUtil.SPONGE_TRACKER_OWNERS), referenced);
+            markReferenced(trackersNbt.getIntArray(NbtDataUtil.SPONGE_TRACKER_NOTIFIERS), referenced);
+        }
+
+        // Chunks that were not saved since the packed format was added
+        NBTTagList positions = trackedNbt.getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, NbtDataUtil.TAG_COMPOUND);
+        for (int i = 0; i < positions.tagCount(); i++) {
+            NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
+            for (String key : new String[] {"owner", "uuid", "notifier"}) {
+                if (valueNbt.hasKey(key)) {
+                    markReferenced(valueNbt.getInteger(key), referenced);
+                }
+            }
+        }
+    }
+
+    private static void markReferenced(PlayerTrackerMap trackers, BitSet referenced) {
+        trackers.forEach((pos, owner, notifier) -> {
+            markReferenced(owner, referenced);
+            markReferenced(notifier, referenced);
+        });
+    }
+
+    private static void markReferenced(int[] indices, BitSet referenced) {
+        for (int index : indices) {
+            markReferenced(index, referenced);
+        }
+    }
+
+    private static void markReferenced(int index, BitSet referenced) {
+        if (index >= 0) {
+            referenced.set(index);
+        }
+    }
+
+}
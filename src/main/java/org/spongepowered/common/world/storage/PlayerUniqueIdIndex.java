@@ -0,0 +1,333 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * The table of player unique ids that chunks refer to by index when they
+ * track block owners and notifiers.
+ *
+ * <p>Unique ids are stored in an array by index, with an open addressing
+ * table for the reverse lookup. Indices freed by {@link #retain(BitSet)}
+ * are handed out again to new players, lowest first, so the table only
+ * grows with the number of players chunks still refer to. Since a reused
+ * index attributes blocks to its new player, the scan for referenced
+ * indices must not miss any chunk, and indices handed out while the scan
+ * runs are recorded, see {@link #startRecording()}.</p>
+ *
+ * <p>The table is persisted as an int array of four ints per index, see
+ * {@link #toIntArray()}.</p>
+ */
+public final class PlayerUniqueIdIndex {
+
+    private static final int INTS_PER_ID = 4;
+
+    private UUID[] uniqueIds = new UUID[16];
+    // Number of indices in use, including free ones below the highest used index
+    private int length;
+    private int size;
+    private final BitSet free = new BitSet();
+
+    // Index + 1 of the unique id in each slot, 0 for free slots
+    private int[] table = new int[32];
+    private int mask = 31;
+
+    // The last written int array and the range of indices changed since
+    private int[] packed = new int[0];
+    private int changedFrom = Integer.MAX_VALUE;
+    private int changedTo;
+
+    // Indices handed out while a scan for referenced indices runs
+    @Nullable private BitSet recorded;
+
+    private static int hash(UUID uniqueId) {
+        int h = uniqueId.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int slot(UUID uniqueId) {
+        int slot = hash(uniqueId) & this.mask;
+        int entry;
+        while ((entry = this.table[slot]) != 0 && !this.uniqueIds[entry - 1].equals(uniqueId)) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the index of the given unique id.
+     *
+     * @param uniqueId The unique id
+     * @return The index, or -1 if the unique id has none
+     */
+    public int indexOf(UUID uniqueId) {
+        return this.table[slot(checkNotNull(uniqueId, "uniqueId"))] - 1;
+    }
+
+    /**
+     * Gets the index of the given unique id, assigning the lowest free
+     * index if it has none yet.
+     *
+     * @param uniqueId The unique id
+     * @return The index
+     */
+    public int getOrAdd(UUID uniqueId) {
+        int slot = slot(checkNotNull(uniqueId, "uniqueId"));
+        int index = this.table[slot] - 1;
+        if (index < 0) {
+            index = this.free.nextSetBit(0);
+            if (index >= 0) {
+                this.free.clear(index);
+            } else {
+                index = this.length++;
+                if (index == this.uniqueIds.length) {
+                    this.uniqueIds = Arrays.copyOf(this.uniqueIds, index << 1);
+                }
+            }
+            set(index, uniqueId);
+            this.table[slot] = index + 1;
+            if (++this.size > this.table.length * 3 / 4) {
+                rehash(this.table.length << 1);
+            }
+        }
+        if (this.recorded != null) {
+            this.recorded.set(index);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the unique id with the given index.
+     *
+     * @param index The index
+     * @return The unique id, or null if the index is not in use
+     */
+    @Nullable
+    public UUID get(int index) {
+        return index >= 0 && index < this.length ? this.uniqueIds[index] : null;
+    }
+
+    /**
+     * Starts recording the indices handed out by {@link #getOrAdd(UUID)},
+     * which the next {@link #retain(BitSet)} keeps as well. This lets the
+     * scan for referenced indices run while chunks keep changing.
+     */
+    public void startRecording() {
+        checkState(this.recorded == null, "Already recording");
+        this.recorded = new BitSet();
+    }
+
+    /**
+     * Stops recording the handed out indices without freeing any.
+     */
+    public void stopRecording() {
+        this.recorded = null;
+    }
+
+    /**
+     * Gets whether this index records the handed out indices for a scan
+     * for referenced indices that runs right now.
+     *
+     * @return True if this index is recording
+     */
+    public boolean isRecording() {
+        return this.recorded != null;
+    }
+
+    /**
+     * Frees every index that is not set in the given set of referenced
+     * indices, nor was recorded since {@link #startRecording()}, and stops
+     * recording.
+     *
+     * @param referenced The referenced indices
+     * @return The number of freed indices
+     */
+    public int retain(BitSet referenced) {
+        BitSet recorded = this.recorded;
+        this.recorded = null;
+        int removed = 0;
+        for (int index = 0; index < this.length; index++) {
+            if (this.uniqueIds[index] != null && !referenced.get(index) && (recorded == null || !recorded.get(index))) {
+                remove(index);
+                removed++;
+            }
+        }
+
+        // Drop the free indices at the end
+        int length = this.length;
+        while (length > 0 && this.uniqueIds[length - 1] == null) {
+            length--;
+        }
+        this.free.clear(length, this.length);
+        this.length = length;
+        return removed;
+    }
+
+    private void remove(int index) {
+        int slot = slot(this.uniqueIds[index]);
+        set(index, null);
+        this.free.set(index);
+        this.size--;
+
+        // Shift back the following entries of the probe sequence
+        this.table[slot] = 0;
+        int next = (slot + 1) & this.mask;
+        int entry;
+        while ((entry = this.table[next]) != 0) {
+            int ideal = hash(this.uniqueIds[entry - 1]) & this.mask;
+            if (((next - ideal) & this.mask) >= ((next - slot) & this.mask)) {
+                this.table[slot] = entry;
+                this.table[next] = 0;
+                slot = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+    }
+
+    private void set(int index, @Nullable UUID uniqueId) {
+        this.uniqueIds[index] = uniqueId;
+        this.changedFrom = Math.min(this.changedFrom, index);
+        this.changedTo = Math.max(this.changedTo, index + 1);
+    }
+
+    private void rehash(int capacity) {
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (int index = 0; index < this.length; index++) {
+            if (this.uniqueIds[index] != null) {
+                this.table[slot(this.uniqueIds[index])] = index + 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of unique ids in this index.
+     *
+     * @return The number of unique ids
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of indices in use, including the free indices below
+     * the highest index in use.
+     *
+     * @return The number of indices
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Gets whether this index changed since it was last written with
+     * {@link #toIntArray()}.
+     *
+     * @return True if this index changed
+     */
+    public boolean isDirty() {
+        return this.changedFrom < this.changedTo || this.packed.length != this.length * INTS_PER_ID;
+    }
+
+    /**
+     * Writes this index to an int array of four ints per index, in which
+     * free indices are written as zeros.
+     *
+     * <p>Only the indices changed since the last call are written. As long
+     * as the number of indices stays the same, the array of the last call
+     * is updated and returned again, so it must not be modified.</p>
+     *
+     * @return The packed index
+     */
+    public int[] toIntArray() {
+        int packedLength = this.length * INTS_PER_ID;
+        if (this.packed.length != packedLength) {
+            this.packed = Arrays.copyOf(this.packed, packedLength);
+        }
+        int to = Math.min(this.changedTo, this.length);
+        for (int index = this.changedFrom; index < to; index++) {
+            UUID uniqueId = this.uniqueIds[index];
+            long most = uniqueId == null ? 0 : uniqueId.getMostSignificantBits();
+            long least = uniqueId == null ? 0 : uniqueId.getLeastSignificantBits();
+            int offset = index * INTS_PER_ID;
+            this.packed[offset] = (int) (most >>> 32);
+            this.packed[offset + 1] = (int) most;
+            this.packed[offset + 2] = (int) (least >>> 32);
+            this.packed[offset + 3] = (int) least;
+        }
+        this.changedFrom = Integer.MAX_VALUE;
+        this.changedTo = 0;
+        return this.packed;
+    }
+
+    /**
+     * Reads an index written by {@link #toIntArray()}.
+     *
+     * @param packed The packed index
+     * @return The new index
+     */
+    public static PlayerUniqueIdIndex fromIntArray(int[] packed) {
+        checkArgument(packed.length % INTS_PER_ID == 0, "packed unique id index has an invalid length of %s", packed.length);
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        int length = packed.length / INTS_PER_ID;
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, length - 1)) << 1);
+        index.uniqueIds = new UUID[capacity];
+        for (int i = 0; i < length; i++) {
+            int offset = i * INTS_PER_ID;
+            long most = (long) packed[offset] << 32 | packed[offset + 1] & 0xFFFFFFFFL;
+            long least = (long) packed[offset + 2] << 32 | packed[offset + 3] & 0xFFFFFFFFL;
+            // Free indices are written as zeros
+            if (most != 0 || least != 0) {
+                index.uniqueIds[i] = new UUID(most, least);
+                index.length = i + 1;
+                index.size++;
+            }
+        }
+        index.free.set(0, index.length);
+        for (int i = 0; i < index.length; i++) {
+            if (index.uniqueIds[i] != null) {
+                index.free.clear(i);
+            }
+        }
+        // Free indices at the end are dropped on the next write
+        index.packed = packed.clone();
+        int tableSize = 32;
+        while (tableSize * 3 / 4 < index.size) {
+            tableSize <<= 1;
+        }
+        index.rehash(tableSize);
+        return index;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class EntityCountsTest {
+
+    private static final String CHICKEN = "minecraft:chicken";
+    private static final String ZOMBIE = "minecraft:zombie";
+
+    @Test
+    public void testAddAndRemove() {
+        EntityCounts counts = new EntityCounts();
+        counts.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        counts.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        counts.add(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        assertEquals(2, counts.get(CHICKEN));
+        assertEquals(1, counts.get(ZOMBIE));
+        assertEquals(2, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+        assertEquals(1, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_MONSTER));
+
+        counts.remove(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        counts.remove(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        assertEquals(1, counts.get(CHICKEN));
+        assertEquals(0, counts.get(ZOMBIE));
+        assertEquals(1, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+        assertEquals(0, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_MONSTER));
+    }
+
+    @Test
+    public void testRemoveNeverGoesNegative() {
+        EntityCounts counts = new EntityCounts();
+        counts.remove(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        assertEquals(0, counts.get(CHICKEN));
+        assertEquals(0, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+        counts.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        assertEquals(1, counts.get(CHICKEN));
+        assertEquals(1, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+    }
+
+    @Test
+    public void testEntitiesWithoutType() {
+        EntityCounts counts = new EntityCounts();
+        counts.add(null, EntityActivationRange.ACTIVATION_TYPE_MISC);
+        assertEquals(1, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_MISC));
+        counts.remove(null, EntityActivationRange.ACTIVATION_TYPE_MISC);
+        assertEquals(0, counts.getCategory(EntityActivationRange.ACTIVATION_TYPE_MISC));
+    }
+
+    @Test
+    public void testChunkUnload() {
+        // Mirrors the world and chunk hooks: spawning adds to both, moving
+        // between chunks only touches the chunks, and unloading a chunk
+        // removes its entities from the world while the chunk is dropped
+        EntityCounts world = new EntityCounts();
+        EntityCounts chunkA = new EntityCounts();
+        EntityCounts chunkB = new EntityCounts();
+        for (int i = 0; i < 3; i++) {
+            world.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+            chunkA.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        }
+        world.add(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        chunkB.add(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+
+        chunkA.remove(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        chunkB.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        assertEquals(2, chunkA.get(CHICKEN));
+        assertEquals(1, chunkB.get(CHICKEN));
+        assertEquals(3, world.get(CHICKEN));
+
+        world.remove(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        world.remove(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        assertEquals(2, world.get(CHICKEN));
+        assertEquals(0, world.get(ZOMBIE));
+        assertEquals(2, world.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+        assertEquals(0, world.getCategory(EntityActivationRange.ACTIVATION_TYPE_MONSTER));
+
+        EntityCounts reloadedB = new EntityCounts();
+        reloadedB.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        reloadedB.add(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        world.add(CHICKEN, EntityActivationRange.ACTIVATION_TYPE_CREATURE);
+        world.add(ZOMBIE, EntityActivationRange.ACTIVATION_TYPE_MONSTER);
+        assertEquals(3, world.get(CHICKEN));
+        assertEquals(1, world.get(ZOMBIE));
+        assertEquals(1, reloadedB.get(CHICKEN));
+        assertEquals(2, chunkA.getCategory(EntityActivationRange.ACTIVATION_TYPE_CREATURE));
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.common.interfaces.entity.IMixinEntityItem;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class EntityMergingTest {
+
+    private static final int MAX_STACK_SIZE = 64;
+
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    private final Map<EntityItem, Integer> stackSizes = new IdentityHashMap<>();
+    private int nextEntityId;
+    private World world;
+
+    @Before
+    public void setUp() {
+        this.world = mock(World.class);
+        final IChunkProvider chunkProvider = mock(IChunkProvider.class);
+        when(this.world.getChunkProvider()).thenReturn(chunkProvider);
+        when(chunkProvider.chunkExists(anyInt(), anyInt())).thenAnswer(invocation -> this.chunks.containsKey(
+                chunkKey((Integer) invocation.getArguments()[0], (Integer) invocation.getArguments()[1])));
+        when(this.world.getChunkFromChunkCoords(anyInt(), anyInt())).thenAnswer(invocation -> this.chunks.get(
+                chunkKey((Integer) invocation.getArguments()[0], (Integer) invocation.getArguments()[1])));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xffffffffL;
+    }
+
+    private EntityItem spawnItem(double x, double y, double z, int stackSize) {
+        final EntityItem item = mock(EntityItem.class, withSettings().extraInterfaces(IMixinEntityItem.class).defaultAnswer(CALLS_REAL_METHODS));
+        item.setEntityId(this.nextEntityId++);
+        item.worldObj = this.world;
+        item.posX = x;
+        item.posY = y;
+        item.posZ = z;
+        this.stackSizes.put(item, stackSize);
+        doAnswer(invocation -> combine(item, (EntityItem) invocation.getArguments()[0])).when((IMixinEntityItem) item)
+                .combineWith(any(EntityItem.class));
+
+        final int chunkX = (int) Math.floor(x / 16.0D);
+        final int chunkZ = (int) Math.floor(z / 16.0D);
+        Chunk chunk = this.chunks.get(chunkKey(chunkX, chunkZ));
+        if (chunk == null) {
+            final ClassInheritanceMultiMap[] entityLists = new ClassInheritanceMultiMap[16];
+            for (int i = 0; i < entityLists.length; i++) {
+                entityLists[i] = new ClassInheritanceMultiMap(Entity.class);
+            }
+            chunk = mock(Chunk.class);
+            when(chunk.getEntityLists()).thenReturn(entityLists);
+            this.chunks.put(chunkKey(chunkX, chunkZ), chunk);
+        }
+        chunk.getEntityLists()[(int) Math.floor(y / 16.0D)].add(item);
+        return item;
+    }
+
+    // Like vanilla, the smaller stack is merged into the larger one
+    private boolean combine(EntityItem item, EntityItem other) {
+        if (other == item || item.isDead || other.isDead) {
+            return false;
+        }
+        final int size = this.stackSizes.get(item);
+        final int otherSize = this.stackSizes.get(other);
+        if (otherSize < size) {
+            return combine(other, item);
+        }
+        if (size + otherSize > MAX_STACK_SIZE) {
+            return false;
+        }
+        this.stackSizes.put(other, size + otherSize);
+        item.setDead();
+        return true;
+    }
+
+    @Test
+    public void testNoMergeWithoutRadius() {
+        EntityItem item = spawnItem(8, 64, 8, 5);
+        EntityItem other = spawnItem(8, 64, 8, 10);
+        assertFalse(EntityMerging.mergeItem(item, 0));
+        assertFalse(item.isDead);
+        assertFalse(other.isDead);
+        verifyZeroInteractions(this.world);
+    }
+
+    @Test
+    public void testMergesAcrossChunks() {
+        EntityItem item = spawnItem(15.8, 64, 8, 5);
+        EntityItem other = spawnItem(16.3, 64, 8, 10);
+        assertTrue(EntityMerging.mergeItem(item, 1));
+        assertTrue(item.isDead);
+        assertEquals(15, (int) this.stackSizes.get(other));
+    }
+
+    @Test
+    public void testMergesAcrossSections() {
+        EntityItem item = spawnItem(8, 63.8, 8, 5);
+        EntityItem other = spawnItem(8, 64.2, 8, 10);
+        assertTrue(EntityMerging.mergeItem(item, 1));
+        assertEquals(15, (int) this.stackSizes.get(other));
+    }
+
+    @Test
+    public void testIgnoresItemsOutOfRadius() {
+        EntityItem item = spawnItem(15.8, 64, 8, 5);
+        EntityItem other = spawnItem(17.5, 64, 8, 10);
+        assertFalse(EntityMerging.mergeItem(item, 1));
+        assertFalse(other.isDead);
+        assertEquals(10, (int) this.stackSizes.get(other));
+    }
+
+    @Test
+    public void testAbsorbsSeveralStacks() {
+        EntityItem item = spawnItem(8, 64, 8, 10);
+        EntityItem small = spawnItem(8.5, 64, 8, 2);
+        EntityItem smaller = spawnItem(7.5, 64, 8, 1);
+        assertFalse(EntityMerging.mergeItem(item, 1));
+        assertFalse(item.isDead);
+        assertTrue(small.isDead);
+        assertTrue(smaller.isDead);
+        assertEquals(13, (int) this.stackSizes.get(item));
+    }
+
+    @Test
+    public void testAbsorbsStacksBeforeMergingIntoLarger() {
+        EntityItem item = spawnItem(8, 64, 8, 10);
+        EntityItem small = spawnItem(8.5, 64, 8, 2);
+        EntityItem large = spawnItem(8, 64, 8.5, 20);
+        EntityItem smaller = spawnItem(7.5, 64, 8, 1);
+        assertTrue(EntityMerging.mergeItem(item, 1));
+        assertTrue(item.isDead);
+        assertTrue(small.isDead);
+        // Merging stops once the item itself was merged
+        assertFalse(smaller.isDead);
+        assertEquals(32, (int) this.stackSizes.get(large));
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PlayerTrackerMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        map.put(42, 1, -1);
+        map.setNotifier(42, 2);
+        assertTrue(map.contains(42));
+        assertEquals(1, map.getOwner(42));
+        assertEquals(2, map.getNotifier(42));
+        assertFalse(map.contains(43));
+        assertEquals(-1, map.getOwner(43));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testZeroAndNegativeKeys() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        map.put(0, 3, 4);
+        map.put(Short.MIN_VALUE, 5, -1);
+        assertEquals(3, map.getOwner(0));
+        assertEquals(4, map.getNotifier(0));
+        assertEquals(5, map.getOwner(Short.MIN_VALUE));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testGrowth() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        for (int i = -5000; i < 5000; i++) {
+            map.put(i, i, -i);
+        }
+        assertEquals(10000, map.size());
+        for (int i = -5000; i < 5000; i++) {
+            assertEquals(i, map.getOwner(i));
+            assertEquals(-i, map.getNotifier(i));
+        }
+        int[] visited = new int[1];
+        map.forEach((key, owner, notifier) -> {
+            assertEquals(key, owner);
+            visited[0]++;
+        });
+        assertEquals(10000, visited[0]);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.contains(0));
+    }
+
+    @Test
+    public void testArrayRoundTrip() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        map.put(0, 1, -1);
+        map.put(-7, -1, 2);
+        map.put(300, 3, 4);
+        int[] keys = new int[map.size()];
+        int[] owners = new int[map.size()];
+        int[] notifiers = new int[map.size()];
+        map.toArrays(keys, owners, notifiers);
+
+        PlayerTrackerMap copy = PlayerTrackerMap.fromArrays(keys, owners, notifiers);
+        assertEquals(3, copy.size());
+        assertEquals(1, copy.getOwner(0));
+        assertEquals(-1, copy.getNotifier(0));
+        assertEquals(2, copy.getNotifier(-7));
+        assertEquals(3, copy.getOwner(300));
+        assertEquals(4, copy.getNotifier(300));
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class DispatchMetricsTest {
+
+    @Test
+    public void testRecord() {
+        DispatchMetrics metrics = new DispatchMetrics();
+        metrics.record(500);
+        metrics.record(3000);
+        metrics.record(1500);
+
+        assertEquals(3, metrics.getInvocations());
+        assertEquals(5000, metrics.getTotalNanos());
+        assertEquals(3000, metrics.getMaxNanos());
+    }
+
+    @Test
+    public void testHistogram() {
+        DispatchMetrics metrics = new DispatchMetrics();
+        metrics.record(500); // < 1us
+        metrics.record(1500); // [1us, 2us)
+        metrics.record(3000); // [2us, 4us)
+        metrics.record(Long.MAX_VALUE); // overflow bucket
+
+        long[] histogram = metrics.getHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(1, histogram[2]);
+        assertEquals(1, histogram[DispatchMetrics.BUCKETS - 1]);
+    }
+
+    @Test
+    public void testPercentile() {
+        DispatchMetrics metrics = new DispatchMetrics();
+        for (int i = 0; i < 99; i++) {
+            metrics.record(1500);
+        }
+        metrics.record(100000);
+
+        assertEquals(2, metrics.getPercentileMicros(0.5));
+        assertEquals(2, metrics.getPercentileMicros(0.99));
+        assertEquals(128, metrics.getPercentileMicros(1));
+    }
+
+    @Test
+    public void testReset() {
+        DispatchMetrics metrics = new DispatchMetrics();
+        metrics.record(1000);
+        metrics.recordSlow();
+        metrics.reset();
+
+        assertEquals(0, metrics.getInvocations());
+        assertEquals(0, metrics.getMaxNanos());
+        assertEquals(0, metrics.getSlowInvocations());
+        assertEquals(0, metrics.getPercentileMicros(0.99));
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.spongepowered.api.event.Cancellable;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.util.List;
+
+public class EventFreezerTest {
+
+    @Test
+    public void testFrozenValues() {
+        TestEventImpl event = new TestEventImpl();
+        Event frozen = freeze(event, TestEvent.class);
+        assertTrue(frozen instanceof TestEvent);
+        assertEquals(TestEventImpl.class, EventFreezer.getEventType(frozen));
+
+        event.names.add("b");
+        event.setCancelled(true);
+
+        assertEquals(Lists.newArrayList("a"), ((TestEvent) frozen).getNames());
+        assertFalse(((TestEvent) frozen).isCancelled());
+        assertEquals(event.getCause(), frozen.getCause());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetterUnsupported() {
+        ((TestEvent) freeze(new TestEventImpl(), TestEvent.class)).setCancelled(true);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListUnmodifiable() {
+        ((TestEvent) freeze(new TestEventImpl(), TestEvent.class)).getNames().add("b");
+    }
+
+    @Test
+    public void testOnlyListenedTypesCopied() {
+        TestEventImpl event = new TestEventImpl();
+        Event frozen = freeze(event, Event.class);
+        assertFalse(frozen instanceof TestEvent);
+        assertEquals(event.getCause(), frozen.getCause());
+    }
+
+    private static <T extends Event> Event freeze(Event event, Class<T> listenedTo) {
+        RegisteredListener<T> listener = new RegisteredListener<>(mock(PluginContainer.class), listenedTo, Order.POST, e -> {
+        }, false, true, true);
+        return EventFreezer.freeze(event, EventFreezer.createShape(event.getClass(), ImmutableList.<RegisteredListener<?>>of(listener)).get()).get();
+    }
+
+    public interface TestEvent extends Event, Cancellable {
+
+        List<String> getNames();
+
+    }
+
+    private static class TestEventImpl implements TestEvent {
+
+        private final Cause cause = Cause.of(NamedCause.source(this));
+        final List<String> names = Lists.newArrayList("a");
+        private boolean cancelled;
+
+        @Override
+        public Cause getCause() {
+            return this.cause;
+        }
+
+        @Override
+        public List<String> getNames() {
+            return this.names;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            this.cancelled = cancel;
+        }
+
+    }
+
+}
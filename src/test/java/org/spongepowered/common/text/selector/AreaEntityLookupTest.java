@@ -0,0 +1,175 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.text.selector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flowpowered.math.vector.Vector3d;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.entity.Entity;
+import org.spongepowered.api.world.Chunk;
+import org.spongepowered.api.world.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class AreaEntityLookupTest {
+
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    private final Map<Long, List<Entity>> chunkEntities = new HashMap<>();
+    private final Map<Entity, Vector3d> positions = new IdentityHashMap<>();
+    private final List<Entity> allEntities = new ArrayList<>();
+    private World world;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        this.world = mock(World.class);
+        when(this.world.getEntities(any(Predicate.class))).thenAnswer(invocation -> filter(this.allEntities,
+                (Predicate<Entity>) invocation.getArguments()[0]));
+        when(this.world.getChunk(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> Optional.ofNullable(this.chunks.get(
+                chunkKey((Integer) invocation.getArguments()[0], (Integer) invocation.getArguments()[2]))));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xffffffffL;
+    }
+
+    private static Collection<Entity> filter(List<Entity> entities, Predicate<Entity> filter) {
+        return entities.stream().filter(filter).collect(Collectors.toList());
+    }
+
+    /**
+     * Adds an entity listed in the given chunk, which may be up to the
+     * search margin away from its actual position.
+     */
+    @SuppressWarnings("unchecked")
+    private Entity addEntity(Vector3d position, int chunkX, int chunkZ) {
+        final Entity entity = mock(Entity.class);
+        this.positions.put(entity, position);
+        this.allEntities.add(entity);
+        List<Entity> entities = this.chunkEntities.get(chunkKey(chunkX, chunkZ));
+        if (entities == null) {
+            final List<Entity> chunkEntities = new ArrayList<>();
+            final Chunk chunk = mock(Chunk.class);
+            when(chunk.getEntities(any(Predicate.class))).thenAnswer(invocation -> filter(chunkEntities,
+                    (Predicate<Entity>) invocation.getArguments()[0]));
+            this.chunks.put(chunkKey(chunkX, chunkZ), chunk);
+            this.chunkEntities.put(chunkKey(chunkX, chunkZ), chunkEntities);
+            entities = chunkEntities;
+        }
+        entities.add(entity);
+        return entity;
+    }
+
+    private Entity addEntity(Vector3d position) {
+        return addEntity(position, position.getFloorX() >> 4, position.getFloorZ() >> 4);
+    }
+
+    private Set<Entity> inArea(Collection<Entity> entities, Vector3d min, Vector3d max) {
+        return entities.stream().filter(entity -> {
+            final Vector3d pos = this.positions.get(entity);
+            return pos.getX() >= min.getX() && pos.getX() <= max.getX() && pos.getZ() >= min.getZ() && pos.getZ() <= max.getZ();
+        }).collect(Collectors.toSet());
+    }
+
+    private void assertSameAsFullScan(Vector3d min, Vector3d max, Predicate<Entity> filter) {
+        final Set<Entity> expected = inArea(this.world.getEntities(filter), min, max);
+        assertEquals(expected, inArea(AreaEntityLookup.getEntities(this.world, min, max, filter), min, max));
+    }
+
+    @Test
+    public void testFindsEntitiesListedInNeighbouringChunks() {
+        final Vector3d min = new Vector3d(16, 0, 16);
+        final Vector3d max = new Vector3d(31.5, 255, 31.5);
+        // Inside the area, but still listed in the chunks next to it
+        Entity west = addEntity(new Vector3d(17.5, 64, 20), 0, 1);
+        Entity south = addEntity(new Vector3d(20, 64, 31), 1, 2);
+        Entity inside = addEntity(new Vector3d(24, 64, 24));
+        // Outside the area
+        addEntity(new Vector3d(14.5, 64, 20), 1, 1);
+        addEntity(new Vector3d(40, 64, 20));
+
+        final Set<Entity> found = inArea(AreaEntityLookup.getEntities(this.world, min, max, entity -> true), min, max);
+        assertEquals(ImmutableSet.of(west, south, inside), found);
+        assertSameAsFullScan(min, max, entity -> true);
+    }
+
+    @Test
+    public void testSameAsFullScan() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            final Vector3d position = new Vector3d(random.nextDouble() * 160 - 80, 64, random.nextDouble() * 160 - 80);
+            int chunkX = position.getFloorX() >> 4;
+            int chunkZ = position.getFloorZ() >> 4;
+            // Some entities moved up to the margin past the chunk they are still listed in
+            if (random.nextInt(4) == 0) {
+                final Vector3d listed = position.add(random.nextDouble() * 4 - 2, 0, random.nextDouble() * 4 - 2);
+                chunkX = listed.getFloorX() >> 4;
+                chunkZ = listed.getFloorZ() >> 4;
+            }
+            addEntity(position, chunkX, chunkZ);
+        }
+        final Set<Entity> even = new HashSet<>();
+        for (int i = 0; i < this.allEntities.size(); i += 2) {
+            even.add(this.allEntities.get(i));
+        }
+        for (int i = 0; i < 50; i++) {
+            final Vector3d corner = new Vector3d(random.nextDouble() * 160 - 80, 0, random.nextDouble() * 160 - 80);
+            final Vector3d other = corner.add(random.nextDouble() * 40 - 20, 255, random.nextDouble() * 40 - 20);
+            assertSameAsFullScan(corner.min(other), corner.max(other), entity -> true);
+            assertSameAsFullScan(corner.min(other), corner.max(other), even::contains);
+        }
+    }
+
+    @Test
+    public void testLargeAreasScanTheWorld() {
+        final Entity entity = addEntity(new Vector3d(1000, 64, 1000));
+        final Collection<Entity> found = AreaEntityLookup.getEntities(this.world, new Vector3d(-1000, 0, -1000), new Vector3d(1000, 255, 1000),
+                e -> true);
+        assertTrue(found.contains(entity));
+        verify(this.world, never()).getChunk(anyInt(), anyInt(), anyInt());
+    }
+
+}
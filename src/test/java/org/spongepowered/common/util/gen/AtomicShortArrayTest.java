@@ -0,0 +1,96 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AtomicShortArrayTest {
+
+    @Test
+    public void testNeighboursAreIndependent() {
+        AtomicShortArray array = new AtomicShortArray(3);
+        array.set(0, (short) -1);
+        array.set(1, (short) 0x1234);
+        array.set(2, Short.MIN_VALUE);
+        assertEquals(-1, array.get(0));
+        assertEquals(0x1234, array.get(1));
+        assertEquals(Short.MIN_VALUE, array.get(2));
+        array.set(0, (short) 7);
+        assertEquals(0x1234, array.get(1));
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        AtomicShortArray array = new AtomicShortArray(2);
+        assertTrue(array.compareAndSet(1, (short) 0, (short) 5));
+        assertFalse(array.compareAndSet(1, (short) 0, (short) 6));
+        assertEquals(5, array.getAndSet(1, (short) 9));
+        assertEquals(0, array.get(0));
+    }
+
+    @Test
+    public void testArrayRoundTrip() {
+        short[] values = {1, -2, 3, Short.MAX_VALUE, Short.MIN_VALUE};
+        assertArrayEquals(values, new AtomicShortArray(values).toArray());
+    }
+
+    @Test
+    public void testConcurrentWritesToNeighbours() throws InterruptedException {
+        final AtomicShortArray array = new AtomicShortArray(64);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 10000; round++) {
+                    for (int i = offset; i < 64; i += 4) {
+                        array.set(i, (short) round);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < 64; i++) {
+            assertEquals(9999, array.get(i));
+        }
+    }
+
+    @Test
+    public void testBytes() {
+        AtomicByteArray array = new AtomicByteArray(new byte[] {1, 2, 3, 4, 5});
+        array.set(2, (byte) -1);
+        assertArrayEquals(new byte[] {1, 2, -1, 4, 5}, array.toArray());
+        assertTrue(array.compareAndSet(4, (byte) 5, (byte) 6));
+        assertEquals(6, array.get(4));
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class MappedShortArrayTest {
+
+    @Test
+    public void testGetAndSet() {
+        MappedShortArray array = new MappedShortArray(1000);
+        assertEquals(0, array.get(999));
+        array.set(999, (short) -5);
+        array.set(0, (short) 42);
+        assertEquals(-5, array.get(999));
+        assertEquals(42, array.get(0));
+    }
+
+    @Test
+    public void testBulkSetAcrossPages() {
+        // Spans two 1M entry pages
+        long pageSize = 1 << 20;
+        MappedShortArray array = new MappedShortArray(pageSize + 10);
+        array.set(pageSize - 2, new short[] {1, 2, 3, 4});
+        assertEquals(1, array.get(pageSize - 2));
+        assertEquals(2, array.get(pageSize - 1));
+        assertEquals(3, array.get(pageSize));
+        assertEquals(4, array.get(pageSize + 1));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        MappedShortArray array = new MappedShortArray(10);
+        array.set(3, new short[] {7, 8});
+        MappedShortArray copy = array.copy();
+        copy.set(3, (short) 9);
+        assertArrayEquals(new short[] {0, 0, 0, 7, 8, 0, 0, 0, 0, 0}, array.toArray());
+        assertArrayEquals(new short[] {0, 0, 0, 9, 8, 0, 0, 0, 0, 0}, copy.toArray());
+    }
+
+    @Test
+    public void testCopiesWriteToTheirOwnPages() {
+        long pageSize = 1 << 20;
+        MappedShortArray array = new MappedShortArray(pageSize * 2);
+        array.set(5, (short) 1);
+        array.set(pageSize + 5, (short) 2);
+        MappedShortArray copy = array.copy();
+        copy.set(5, (short) 3);
+        array.set(pageSize + 5, (short) 4);
+        assertEquals(1, array.get(5));
+        assertEquals(4, array.get(pageSize + 5));
+        assertEquals(3, copy.get(5));
+        assertEquals(2, copy.get(pageSize + 5));
+        copy.close();
+        assertEquals(1, array.get(5));
+    }
+
+    @Test
+    public void testOnlyWriterCopies() {
+        MappedShortArray array = new MappedShortArray(10);
+        MappedShortArray written = array.share().forWriting();
+        assertNotSame(array, written);
+        written.set(3, (short) 8);
+        assertEquals(0, array.get(3));
+        // The other holder is the only one left, so it writes in place
+        assertSame(array, array.forWriting());
+    }
+
+    @Test
+    public void testStaysMappedWhileShared() {
+        MappedShortArray array = new MappedShortArray(10);
+        array.set(3, (short) 7);
+        array.share();
+        array.close();
+        assertEquals(7, array.get(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedByLastHolder() {
+        MappedShortArray array = new MappedShortArray(10);
+        array.close();
+        array.get(3);
+    }
+
+}
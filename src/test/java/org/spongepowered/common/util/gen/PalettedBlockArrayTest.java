@@ -0,0 +1,108 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class PalettedBlockArrayTest {
+
+    @Test
+    public void testStartsAsAir() {
+        PalettedBlockArray array = new PalettedBlockArray(100);
+        assertEquals(0, array.get(99));
+        assertEquals(1, array.getBitsPerEntry());
+    }
+
+    @Test
+    public void testWidensWithPalette() {
+        PalettedBlockArray array = new PalettedBlockArray(1000);
+        for (int i = 0; i < 1000; i++) {
+            array.set(i, (i % 300) * 16);
+        }
+        assertEquals(16, array.getBitsPerEntry());
+        assertEquals(300, array.getPaletteSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((i % 300) * 16, array.get(i));
+        }
+    }
+
+    @Test
+    public void testFewBlocksStayNarrow() {
+        PalettedBlockArray array = new PalettedBlockArray(4096);
+        for (int i = 0; i < 4096; i++) {
+            array.set(i, i < 2048 ? 16 : 0xffff);
+        }
+        assertEquals(2, array.getBitsPerEntry());
+        assertEquals(16, array.get(0));
+        assertEquals(0xffff, array.get(4095));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        PalettedBlockArray array = new PalettedBlockArray(10);
+        array.set(3, 7);
+        PalettedBlockArray copy = array.copy();
+        copy.set(3, 8);
+        assertEquals(7, array.get(3));
+        assertEquals(8, copy.get(3));
+    }
+
+    @Test
+    public void testOnlyWriterCopies() {
+        PalettedBlockArray array = new PalettedBlockArray(10);
+        PalettedBlockArray shared = array.share();
+        PalettedBlockArray written = shared.forWriting();
+        assertNotSame(array, written);
+        written.set(3, 8);
+        assertEquals(0, array.get(3));
+        // The other holder is the only one left, so it writes in place
+        assertSame(array, array.forWriting());
+    }
+
+    @Test
+    public void testUnsharedWritesInPlace() {
+        PalettedBlockArray array = new PalettedBlockArray(10);
+        assertSame(array, array.forWriting());
+    }
+
+    @Test
+    public void testSetRun() {
+        PalettedBlockArray array = new PalettedBlockArray(10);
+        array.set(4, new short[] {16, 32, -1});
+        assertArrayEquals(new short[] {0, 0, 0, 0, 16, 32, -1, 0, 0, 0}, array.toArray());
+    }
+
+    @Test
+    public void testArrayRoundTrip() {
+        short[] blocks = {0, 1, 16, -1, 16, 0, 32};
+        assertArrayEquals(blocks, PalettedBlockArray.fromArray(blocks).toArray());
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.minecraft.nbt.NBTTagCompound;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.world.ChunkTicketManager.LoadingTicket;
+import org.spongepowered.api.world.World;
+import org.spongepowered.common.config.SpongeConfig;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class SpongeChunkTicketManagerTest {
+
+    private static final Vector3i CHUNK_A = new Vector3i(1, 0, 2);
+    private static final Vector3i CHUNK_B = new Vector3i(-3, 0, 4);
+    private static final Vector3i CHUNK_C = new Vector3i(5, 0, -6);
+
+    private final Object plugin = new Object();
+    private final SpongeConfig.ChunkLoadingCategory config = new SpongeConfig.ChunkLoadingCategory();
+    private final TestWorldAccess access = new TestWorldAccess();
+    private SpongeChunkTicketManager manager;
+    private World world;
+
+    @Before
+    public void setUp() {
+        this.config.setMaxTickets(2);
+        this.config.setMaxChunksPerTicket(2);
+        PluginContainer container = mock(PluginContainer.class);
+        when(container.getId()).thenReturn("test");
+        this.world = mock(World.class);
+        when(this.world.getUniqueId()).thenReturn(UUID.randomUUID());
+        this.manager = new SpongeChunkTicketManager(() -> this.config, plugin -> container, world -> this.access);
+    }
+
+    @Test
+    public void testForceChunk() {
+        LoadingTicket ticket = this.manager.createTicket(this.plugin, this.world).get();
+        ticket.forceChunk(CHUNK_A);
+
+        assertEquals(ImmutableSet.of(CHUNK_A), ticket.getChunkList());
+        assertEquals(ImmutableSet.of(CHUNK_A), this.manager.getForcedChunks(this.world).keySet());
+        assertEquals(Sets.newHashSet(CHUNK_A), this.access.loaded);
+    }
+
+    @Test
+    public void testUnforceChunk() {
+        LoadingTicket first = this.manager.createTicket(this.plugin, this.world).get();
+        LoadingTicket second = this.manager.createTicket(this.plugin, this.world).get();
+        first.forceChunk(CHUNK_A);
+        second.forceChunk(CHUNK_A);
+
+        // Still forced by the second ticket
+        first.unforceChunk(CHUNK_A);
+        assertTrue(first.getChunkList().isEmpty());
+        assertEquals(ImmutableSet.of(CHUNK_A), this.manager.getForcedChunks(this.world).keySet());
+        assertTrue(this.access.dropped.isEmpty());
+
+        second.unforceChunk(CHUNK_A);
+        assertTrue(this.manager.getForcedChunks(this.world).isEmpty());
+        assertEquals(Lists.newArrayList(CHUNK_A), this.access.dropped);
+    }
+
+    @Test
+    public void testChunkLimit() {
+        LoadingTicket ticket = this.manager.createTicket(this.plugin, this.world).get();
+        ticket.forceChunk(CHUNK_A);
+        ticket.forceChunk(CHUNK_B);
+        ticket.forceChunk(CHUNK_C);
+
+        // The oldest chunk is released first
+        assertEquals(ImmutableSet.of(CHUNK_B, CHUNK_C), ticket.getChunkList());
+        assertEquals(Lists.newArrayList(CHUNK_A), this.access.dropped);
+    }
+
+    @Test
+    public void testTicketLimit() {
+        LoadingTicket first = this.manager.createTicket(this.plugin, this.world).get();
+        assertTrue(this.manager.createTicket(this.plugin, this.world).isPresent());
+        assertFalse(this.manager.createTicket(this.plugin, this.world).isPresent());
+        assertEquals(0, this.manager.getAvailableTickets(this.plugin, this.world));
+
+        first.release();
+        assertEquals(1, this.manager.getAvailableTickets(this.plugin, this.world));
+        assertTrue(this.manager.createTicket(this.plugin, this.world).isPresent());
+    }
+
+    @Test
+    public void testSavedOncePerTick() {
+        LoadingTicket ticket = this.manager.createTicket(this.plugin, this.world).get();
+        ticket.forceChunk(CHUNK_A);
+        ticket.forceChunk(CHUNK_B);
+        assertFalse(this.access.spongeNbt.hasKey(NbtDataUtil.SPONGE_CHUNK_TICKETS));
+
+        this.manager.saveTickets();
+        NBTTagCompound ticketNbt = this.access.spongeNbt.getTagList(NbtDataUtil.SPONGE_CHUNK_TICKETS, NbtDataUtil.TAG_COMPOUND)
+                .getCompoundTagAt(0);
+        assertEquals(4, ticketNbt.getIntArray("Chunks").length);
+    }
+
+    @Test
+    public void testUnloadWorld() {
+        LoadingTicket ticket = this.manager.createTicket(this.plugin, this.world).get();
+        ticket.forceChunk(CHUNK_A);
+        this.manager.unloadWorld(this.world);
+
+        // The tickets are saved to be restored on the next load
+        assertEquals(1, this.access.spongeNbt.getTagList(NbtDataUtil.SPONGE_CHUNK_TICKETS, NbtDataUtil.TAG_COMPOUND).tagCount());
+        assertTrue(this.manager.getForcedChunks(this.world).isEmpty());
+        assertTrue(ticket.getChunkList().isEmpty());
+
+        // A ticket held across the unload does not bring the world's tickets back
+        ticket.unforceChunk(CHUNK_A);
+        ticket.prioritizeChunk(CHUNK_A);
+        ticket.release();
+        assertTrue(this.manager.getForcedChunks(this.world).isEmpty());
+        assertEquals(2, this.manager.getAvailableTickets(this.plugin, this.world));
+        assertEquals(Sets.newHashSet(CHUNK_A), this.access.loaded);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testForceAfterUnload() {
+        LoadingTicket ticket = this.manager.createTicket(this.plugin, this.world).get();
+        this.manager.unloadWorld(this.world);
+        ticket.forceChunk(CHUNK_A);
+    }
+
+    private static final class TestWorldAccess implements SpongeChunkTicketManager.WorldAccess {
+
+        final Set<Vector3i> loaded = Sets.newHashSet();
+        final List<Vector3i> dropped = Lists.newArrayList();
+        final NBTTagCompound spongeNbt = new NBTTagCompound();
+
+        @Override
+        public void loadChunk(int chunkX, int chunkZ) {
+            this.loaded.add(new Vector3i(chunkX, 0, chunkZ));
+        }
+
+        @Override
+        public void dropChunk(int chunkX, int chunkZ) {
+            this.dropped.add(new Vector3i(chunkX, 0, chunkZ));
+        }
+
+        @Override
+        public NBTTagCompound getSpongeNbt() {
+            return this.spongeNbt;
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.UUID;
+
+public class PlayerUniqueIdIndexTest {
+
+    @Test
+    public void testGetOrAdd() {
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        UUID[] uniqueIds = new UUID[1000];
+        for (int i = 0; i < uniqueIds.length; i++) {
+            uniqueIds[i] = UUID.randomUUID();
+            assertEquals(i, index.getOrAdd(uniqueIds[i]));
+        }
+        for (int i = 0; i < uniqueIds.length; i++) {
+            assertEquals(i, index.getOrAdd(uniqueIds[i]));
+            assertEquals(i, index.indexOf(uniqueIds[i]));
+            assertEquals(uniqueIds[i], index.get(i));
+        }
+        assertEquals(-1, index.indexOf(UUID.randomUUID()));
+        assertNull(index.get(uniqueIds.length));
+        assertEquals(uniqueIds.length, index.size());
+    }
+
+    @Test
+    public void testRetainReusesIndices() {
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        UUID[] uniqueIds = new UUID[100];
+        for (int i = 0; i < uniqueIds.length; i++) {
+            uniqueIds[i] = UUID.randomUUID();
+            index.getOrAdd(uniqueIds[i]);
+        }
+        BitSet referenced = new BitSet();
+        for (int i = 0; i < uniqueIds.length; i += 2) {
+            referenced.set(i);
+        }
+        assertEquals(50, index.retain(referenced));
+        assertEquals(50, index.size());
+        for (int i = 0; i < uniqueIds.length; i++) {
+            assertEquals(i % 2 == 0 ? i : -1, index.indexOf(uniqueIds[i]));
+        }
+        // The last index was freed
+        assertEquals(uniqueIds.length - 1, index.length());
+
+        UUID added = UUID.randomUUID();
+        assertEquals(1, index.getOrAdd(added));
+        assertEquals(added, index.get(1));
+        assertEquals(1, index.indexOf(added));
+        assertEquals(3, index.getOrAdd(uniqueIds[1]));
+        assertEquals(uniqueIds.length - 1, index.length());
+    }
+
+    @Test
+    public void testRetainKeepsRecordedIndices() {
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.getOrAdd(first);
+        index.getOrAdd(second);
+
+        index.startRecording();
+        assertTrue(index.isRecording());
+        UUID third = UUID.randomUUID();
+        index.getOrAdd(first);
+        index.getOrAdd(third);
+        assertEquals(1, index.retain(new BitSet()));
+        assertFalse(index.isRecording());
+        assertEquals(0, index.indexOf(first));
+        assertEquals(-1, index.indexOf(second));
+        assertEquals(2, index.indexOf(third));
+
+        assertEquals(2, index.retain(new BitSet()));
+        assertEquals(0, index.length());
+    }
+
+    @Test
+    public void testIntArrayRoundTrip() {
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        index.getOrAdd(removed);
+        index.getOrAdd(kept);
+        BitSet referenced = new BitSet();
+        referenced.set(1);
+        index.retain(referenced);
+        assertTrue(index.isDirty());
+
+        int[] packed = index.toIntArray();
+        assertFalse(index.isDirty());
+        PlayerUniqueIdIndex copy = PlayerUniqueIdIndex.fromIntArray(packed);
+        assertEquals(1, copy.size());
+        assertEquals(1, copy.indexOf(kept));
+        assertEquals(-1, copy.indexOf(removed));
+        assertArrayEquals(packed, copy.toIntArray());
+        assertEquals(0, copy.getOrAdd(UUID.randomUUID()));
+        assertTrue(copy.isDirty());
+        assertArrayEquals(copy.toIntArray(), PlayerUniqueIdIndex.fromIntArray(copy.toIntArray()).toIntArray());
+    }
+
+    @Test
+    public void testIntArrayDropsTrailingFreeIndices() {
+        PlayerUniqueIdIndex index = new PlayerUniqueIdIndex();
+        UUID kept = UUID.randomUUID();
+        index.getOrAdd(kept);
+        index.getOrAdd(UUID.randomUUID());
+        index.getOrAdd(UUID.randomUUID());
+        int[] packed = index.toIntArray();
+        assertEquals(12, packed.length);
+
+        BitSet referenced = new BitSet();
+        referenced.set(0);
+        index.retain(referenced);
+        assertTrue(index.isDirty());
+        assertArrayEquals(Arrays.copyOf(packed, 4), index.toIntArray());
+
+        // Trailing zeros written by older saves are dropped as well
+        int[] padded = Arrays.copyOf(packed, 12);
+        Arrays.fill(padded, 4, 12, 0);
+        PlayerUniqueIdIndex copy = PlayerUniqueIdIndex.fromIntArray(padded);
+        assertEquals(1, copy.length());
+        assertEquals(kept, copy.get(0));
+        assertTrue(copy.isDirty());
+        assertEquals(4, copy.toIntArray().length);
+    }
+
+}